@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Runs the same k6 workload against the app in platform-thread mode and in virtual-thread mode and
+# keeps both summaries side by side in loadtest/results/.
+#
+# Requirements: a built jar (mvn package -DskipTests), Java 21, k6, and the MySQL database from
+# application.properties (or SPRING_DATASOURCE_* overrides) seeded with data.
+# Usage: loadtest/compare-modes.sh [VUS]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+VUS="${1:-400}"
+JAR="$(ls target/inventory-management-*.jar | head -n 1)"
+RESULTS="loadtest/results/$(date +%Y%m%d-%H%M%S)"
+mkdir -p "$RESULTS"
+
+run_mode() {
+    local mode="$1" profiles="$2" jvm_opts="$3"
+    echo "=== $mode (profiles: ${profiles:-default}) ==="
+    # shellcheck disable=SC2086
+    java $jvm_opts -jar "$JAR" --spring.profiles.active="$profiles" > "$RESULTS/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    until curl -sf http://localhost:8082/actuator/health > /dev/null; do sleep 2; done
+
+    k6 run -e VUS="$VUS" --summary-export "$RESULTS/$mode-summary.json" loadtest/mixed-workload.js \
+        | tee "$RESULTS/$mode-k6.txt"
+    curl -sf http://localhost:8082/actuator/prometheus > "$RESULTS/$mode-metrics.txt" || true
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform "" ""
+# tracePinnedThreads reports virtual threads pinned to their carrier (e.g. blocking inside synchronized)
+run_mode virtual "virtual-threads" "-Djdk.tracePinnedThreads=short"
+
+echo "Summaries: $RESULTS/{platform,virtual}-summary.json (compare http_req_duration p95/p99, http_reqs rate,"
+echo "and the 'shed (503)' check). Pinning reports, if any, are in $RESULTS/virtual-app.log."
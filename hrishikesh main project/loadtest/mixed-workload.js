@@ -0,0 +1,71 @@
+// k6 workload used to compare the platform-thread and virtual-thread modes.
+//   k6 run -e BASE_URL=http://localhost:8082 -e VUS=400 loadtest/mixed-workload.js
+// Mostly reads (page listings, lookups, dashboard) plus a small share of order creation,
+// i.e. the blocking-JDBC mix that saturates Tomcat's thread pool during spikes.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+const VUS = parseInt(__ENV.VUS || '200', 10);
+
+export const options = {
+    scenarios: {
+        spike: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const products = http.get(`${BASE_URL}/api/products/page?size=200`).json('items') || [];
+    const vendors = http.get(`${BASE_URL}/api/vendors/page?size=50`).json('items') || [];
+    const orders = http.get(`${BASE_URL}/api/orders/page?size=200`).json('items') || [];
+    if (products.length === 0 || vendors.length === 0) {
+        throw new Error('Seed some vendors and products first (e.g. via /api/import/*)');
+    }
+    return {
+        productIds: products.map((p) => p.id),
+        vendorIds: vendors.map((v) => v.id),
+        orderIds: orders.map((o) => o.id),
+    };
+}
+
+function pick(list) {
+    return list[Math.floor(Math.random() * list.length)];
+}
+
+export default function (data) {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.30) {
+        res = http.get(`${BASE_URL}/api/products/page?size=50&cursor=${pick(data.productIds)}`,
+            { tags: { name: 'products/page' } });
+    } else if (roll < 0.55) {
+        res = http.get(`${BASE_URL}/api/orders/page?size=50`, { tags: { name: 'orders/page' } });
+    } else if (roll < 0.70) {
+        res = http.get(`${BASE_URL}/api/products/${pick(data.productIds)}`, { tags: { name: 'products/{id}' } });
+    } else if (roll < 0.80 && data.orderIds.length > 0) {
+        res = http.get(`${BASE_URL}/api/orders/${pick(data.orderIds)}`, { tags: { name: 'orders/{id}' } });
+    } else if (roll < 0.90) {
+        res = http.get(`${BASE_URL}/api/payments/page?size=50`, { tags: { name: 'payments/page' } });
+    } else if (roll < 0.95) {
+        res = http.get(`${BASE_URL}/api/dashboard/stats`, { tags: { name: 'dashboard/stats' } });
+    } else {
+        const items = [1, 2, 3].map(() => ({ product: { id: pick(data.productIds) }, quantity: 5, unitPrice: 10 }));
+        res = http.post(`${BASE_URL}/api/orders`,
+            JSON.stringify({ vendor: { id: pick(data.vendorIds) }, totalAmount: 150, items }),
+            { headers: { 'Content-Type': 'application/json' }, tags: { name: 'orders create' } });
+    }
+    // 503 is the admission filter pushing back (virtual-threads mode) and is counted separately
+    check(res, {
+        'ok': (r) => r.status === 200,
+        'shed (503)': (r) => r.status === 503,
+    });
+}
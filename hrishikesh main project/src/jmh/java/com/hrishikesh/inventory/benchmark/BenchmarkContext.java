@@ -0,0 +1,167 @@
+package com.hrishikesh.inventory.benchmark;
+
+import com.hrishikesh.inventory.InventoryApplication;
+import com.hrishikesh.inventory.repository.IdBlockAllocator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Boots the application on the "bench" profile (in-memory H2, schema from the Flyway migrations)
+// and seeds it with SQL set inserts:
+// `rows` products, orders (one line each, statuses rotating PENDING/APPROVED/RECEIVED/CANCELLED)
+// and rows/2 completed payments, spread over 100 vendors.
+final class BenchmarkContext implements AutoCloseable {
+
+    static final int VENDORS = 100;
+
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbc;
+    private final int rows;
+
+    // First seeded id per table; each table's seeded rows hold the ids first .. first + count - 1
+    private long firstVendorId;
+    private long firstProductId;
+    private long firstOrderId;
+    private long firstPaymentId;
+
+    private BenchmarkContext(ConfigurableApplicationContext context, int rows) {
+        this.context = context;
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        this.rows = rows;
+    }
+
+    static BenchmarkContext start(int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                .profiles("bench")
+                .properties(properties)
+                .run();
+        BenchmarkContext bench = new BenchmarkContext(context, rows);
+        bench.seed();
+        return bench;
+    }
+
+    JdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    long firstVendorId() {
+        return firstVendorId;
+    }
+
+    long firstProductId() {
+        return firstProductId;
+    }
+
+    long firstOrderId() {
+        return firstOrderId;
+    }
+
+    long firstPaymentId() {
+        return firstPaymentId;
+    }
+
+    // APPROVED orders with one line of `quantity` units each, ready for (partial) receipt or payment
+    List<Long> createApprovedOrders(int count, int quantity, BigDecimal unitPrice) {
+        return createApprovedOrders(count, 1, quantity, unitPrice);
+    }
+
+    // APPROVED orders with `lines` lines of `quantity` units each, on consecutive (distinct) products
+    List<Long> createApprovedOrders(int count, int lines, int quantity, BigDecimal unitPrice) {
+        long firstOrder = reserveIds("purchase_order", count);
+        long firstItem = reserveIds("order_item", count * lines);
+        BigDecimal total = unitPrice.multiply(BigDecimal.valueOf((long) quantity * lines));
+        jdbc.update("INSERT INTO purchase_order (id, vendor_id, order_date, status, total_amount, paid_amount, "
+                + "outstanding_amount, version) SELECT ? + x - 1, ? + MOD(x, ?), CURRENT_TIMESTAMP, 'APPROVED', ?, 0, ?, 0 "
+                + "FROM SYSTEM_RANGE(1, ?) r(x)", firstOrder, firstVendorId, VENDORS, total, total, count);
+        jdbc.update("INSERT INTO order_item (id, purchase_order_id, product_id, quantity, received_quantity, unit_price) "
+                + "SELECT ? + x - 1, ? + (x - 1) / ?, ? + MOD(? + x - 1, ?), ?, 0, ? FROM SYSTEM_RANGE(1, ?) r(x)",
+                firstItem, firstOrder, lines, firstProductId, firstItem, rows, quantity, unitPrice, count * lines);
+        return jdbc.queryForList("SELECT id FROM purchase_order WHERE id >= ? ORDER BY id LIMIT ?",
+                Long.class, firstOrder, count);
+    }
+
+    List<Long> itemIds(List<Long> orderIds) {
+        return jdbc.queryForList("SELECT id FROM order_item WHERE purchase_order_id BETWEEN ? AND ? ORDER BY id",
+                Long.class, orderIds.get(0), orderIds.get(orderIds.size() - 1));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // Rows get ids from the same id_generator blocks the application uses, so later Hibernate inserts
+    // never collide with them. Where a block starts is up to the generator, so the benchmarks address
+    // seeded rows through the first ids read back at the end.
+    private void seed() {
+        long vendor = reserveIds("vendor", VENDORS);
+        long product = reserveIds("product", rows);
+        long order = reserveIds("purchase_order", rows);
+        long item = reserveIds("order_item", rows);
+        long payment = reserveIds("payment", rows / 2);
+
+        jdbc.update("INSERT INTO vendor (id, name, contact_number, email, created_at) "
+                + "SELECT ? + x - 1, CONCAT('Vendor ', x), '555-0100', CONCAT('vendor', x, '@example.com'), "
+                + "CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?) r(x)", vendor, VENDORS);
+        jdbc.update("INSERT INTO product (id, name, sku, description, unit_price, current_stock, last_updated, version) "
+                + "SELECT ? + x - 1, CONCAT('Product ', x), CONCAT('SKU-', x), CONCAT('Seeded product ', x), 10.00, 1000, "
+                + "CURRENT_TIMESTAMP, 0 FROM SYSTEM_RANGE(1, ?) r(x)", product, rows);
+        jdbc.update("INSERT INTO purchase_order (id, vendor_id, order_date, status, total_amount, paid_amount, "
+                + "outstanding_amount, version) "
+                + "SELECT ? + x - 1, ? + MOD(x, ?), DATEADD('MINUTE', -x, CURRENT_TIMESTAMP), "
+                + "CASE MOD(x, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'APPROVED' WHEN 2 THEN 'RECEIVED' ELSE 'CANCELLED' END, "
+                + "100.00, CASE WHEN x <= ? THEN 10.00 ELSE 0 END, CASE WHEN x <= ? THEN 90.00 ELSE 100.00 END, 0 "
+                + "FROM SYSTEM_RANGE(1, ?) r(x)", order, vendor, VENDORS, rows / 2, rows / 2, rows);
+        jdbc.update("INSERT INTO order_item (id, purchase_order_id, product_id, quantity, received_quantity, unit_price) "
+                + "SELECT ? + x - 1, ? + x - 1, ? + MOD(x * 7, ?), 10, 0, 10.00 FROM SYSTEM_RANGE(1, ?) r(x)",
+                item, order, product, rows, rows);
+        jdbc.update("INSERT INTO payment (id, purchase_order_id, amount, payment_date, payment_method, status, version) "
+                + "SELECT ? + x - 1, ? + x - 1, 10.00, CURRENT_TIMESTAMP, 'BANK_TRANSFER', 'COMPLETED', 0 "
+                + "FROM SYSTEM_RANGE(1, ?) r(x)", payment, order, rows / 2);
+
+        firstVendorId = firstSeededId("vendor", VENDORS);
+        firstProductId = firstSeededId("product", rows);
+        firstOrderId = firstSeededId("purchase_order", rows);
+        firstPaymentId = firstSeededId("payment", rows / 2);
+    }
+
+    // Only seeded rows exist at this point; they must form one unbroken range
+    private long firstSeededId(String table, int count) {
+        Map<String, Object> range = jdbc.queryForMap(
+                "SELECT MIN(id) AS first_id, MAX(id) AS last_id, COUNT(*) AS row_count FROM " + table);
+        long first = ((Number) range.get("first_id")).longValue();
+        long last = ((Number) range.get("last_id")).longValue();
+        long seeded = ((Number) range.get("row_count")).longValue();
+        if (seeded != count || last - first + 1 != count) {
+            throw new IllegalStateException(table + " seeded ids are not one range of " + count + ": "
+                    + seeded + " rows, ids " + first + ".." + last);
+        }
+        return first;
+    }
+
+    // Schemas migrated only up to a version before V3 (QueryPlanBenchmark) have no id_generator yet; their
+    // ids are AUTO_INCREMENT, so the block starts after the highest id in the table
+    private long reserveIds(String table, int count) {
+        if (!hasIdGenerator()) {
+            return jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+        }
+        return bean(IdBlockAllocator.class).allocate(table, count);
+    }
+
+    private boolean hasIdGenerator() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE table_schema = SCHEMA() AND table_name = 'id_generator'", Integer.class) > 0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.hrishikesh.inventory.benchmark;
+
+import com.hrishikesh.inventory.dto.ImportReport;
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.service.BulkImportService;
+import com.hrishikesh.inventory.service.FileFormat;
+import com.hrishikesh.inventory.service.PurchaseOrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Insert-heavy paths: a large order (one order row + 300 lines) and bulk product creation, both through
+// JPA (JDBC-batched inserts with pooled ids) and through the CSV import (JdbcTemplate batches).
+// Setup prints how many JDBC statements one call prepares; with batching that is ~1 per 50 rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class InsertThroughputBenchmark {
+
+    private static final int LINES_PER_ORDER = 300;
+    private static final int PRODUCTS_PER_CALL = 1000;
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private BenchmarkContext bench;
+    private PurchaseOrderService orderService;
+    private ProductRepository productRepository;
+    private BulkImportService bulkImportService;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    // Keeps generated SKUs unique across calls
+    private final AtomicLong skuSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(rows);
+        orderService = bench.bean(PurchaseOrderService.class);
+        productRepository = bench.bean(ProductRepository.class);
+        bulkImportService = bench.bean(BulkImportService.class);
+        transactionTemplate = new TransactionTemplate(bench.bean(PlatformTransactionManager.class));
+        statistics = bench.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        printStatements("createOrder (" + LINES_PER_ORDER + " lines)", this::createOrder);
+        printStatements("saveAllProducts (" + PRODUCTS_PER_CALL + " products)", this::saveAllProducts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public PurchaseOrder createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PurchaseOrder order = new PurchaseOrder();
+        Vendor vendor = new Vendor();
+        vendor.setId(bench.firstVendorId() + random.nextInt(BenchmarkContext.VENDORS));
+        order.setVendor(vendor);
+        order.setTotalAmount(BigDecimal.valueOf(LINES_PER_ORDER * 100L));
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            Product product = new Product();
+            product.setId(bench.firstProductId() + random.nextInt(rows));
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(10);
+            item.setUnitPrice(BigDecimal.TEN);
+            order.getItems().add(item);
+        }
+        return orderService.createOrder(order);
+    }
+
+    @Benchmark
+    public List<Product> saveAllProducts() {
+        List<Product> products = new ArrayList<>(PRODUCTS_PER_CALL);
+        for (int i = 0; i < PRODUCTS_PER_CALL; i++) {
+            long n = skuSequence.incrementAndGet();
+            Product product = new Product();
+            product.setName("Bench product " + n);
+            product.setSku("BENCH-" + n);
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setCurrentStock(0);
+            products.add(product);
+        }
+        return transactionTemplate.execute(status -> productRepository.saveAll(products));
+    }
+
+    @Benchmark
+    public ImportReport importProducts() {
+        StringBuilder csv = new StringBuilder("name,sku,unitPrice,currentStock\n");
+        for (int i = 0; i < PRODUCTS_PER_CALL; i++) {
+            long n = skuSequence.incrementAndGet();
+            csv.append("Imported product ").append(n).append(",IMPORT-").append(n).append(",10.00,5\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+        return bulkImportService.importProducts(new ByteArrayInputStream(body), FileFormat.CSV);
+    }
+
+    private void printStatements(String operation, Supplier<?> call) {
+        long before = statistics.getPrepareStatementCount();
+        call.get();
+        System.out.println(operation + ": " + (statistics.getPrepareStatementCount() - before)
+                + " JDBC statements prepared");
+    }
+}
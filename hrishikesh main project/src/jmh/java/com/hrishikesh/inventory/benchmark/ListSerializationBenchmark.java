@@ -0,0 +1,101 @@
+package com.hrishikesh.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.OrderSummary;
+import com.hrishikesh.inventory.dto.PaymentSummary;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.service.PaymentService;
+import com.hrishikesh.inventory.service.ProductService;
+import com.hrishikesh.inventory.service.PurchaseOrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// JSON for one page of each list endpoint, using the application's ObjectMapper. The serialize*
+// benchmarks isolate Jackson on a preloaded page; the query* ones include the page query at a random
+// cursor, i.e. the whole /page request minus HTTP.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ListSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkContext bench;
+    private ObjectMapper objectMapper;
+    private ProductService productService;
+    private PurchaseOrderService orderService;
+    private PaymentService paymentService;
+
+    private CursorPage<Product> productPage;
+    private CursorPage<OrderSummary> orderPage;
+    private CursorPage<PaymentSummary> paymentPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(rows);
+        objectMapper = bench.bean(ObjectMapper.class);
+        productService = bench.bean(ProductService.class);
+        orderService = bench.bean(PurchaseOrderService.class);
+        paymentService = bench.bean(PaymentService.class);
+
+        productPage = productService.getProductsPage(null, PAGE_SIZE, null, "asc", null, null, null);
+        orderPage = orderService.getOrdersPage(null, PAGE_SIZE, null, "asc", null, null, null, null);
+        paymentPage = paymentService.getPaymentsPage(null, PAGE_SIZE, null, "asc", null, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public byte[] serializeProductPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderPage);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paymentPage);
+    }
+
+    @Benchmark
+    public byte[] queryAndSerializeProductPage() throws JsonProcessingException {
+        String cursor = randomCursor(bench.firstProductId(), rows);
+        return objectMapper.writeValueAsBytes(
+                productService.getProductsPage(cursor, PAGE_SIZE, null, "asc", null, null, null));
+    }
+
+    @Benchmark
+    public byte[] queryAndSerializeOrderPage() throws JsonProcessingException {
+        String cursor = randomCursor(bench.firstOrderId(), rows);
+        return objectMapper.writeValueAsBytes(
+                orderService.getOrdersPage(cursor, PAGE_SIZE, null, "asc", null, null, null, null));
+    }
+
+    @Benchmark
+    public byte[] queryAndSerializePaymentPage() throws JsonProcessingException {
+        String cursor = randomCursor(bench.firstPaymentId(), rows / 2);
+        return objectMapper.writeValueAsBytes(
+                paymentService.getPaymentsPage(cursor, PAGE_SIZE, null, "asc", null, null, null));
+    }
+
+    // An id cursor inside the seeded range, with a full page of seeded rows after it
+    private String randomCursor(long firstId, int seeded) {
+        return Long.toString(firstId - 1 + ThreadLocalRandom.current().nextLong(Math.max(1, seeded - PAGE_SIZE)));
+    }
+}
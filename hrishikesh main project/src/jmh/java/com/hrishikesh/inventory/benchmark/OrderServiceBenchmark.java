@@ -0,0 +1,103 @@
+package com.hrishikesh.inventory.benchmark;
+
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.service.PurchaseOrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class OrderServiceBenchmark {
+
+    // Order lines waiting for receipt; the pool holds RECEIPT_POOL_LINES / lines orders
+    private static final int RECEIPT_POOL_LINES = 100_000;
+    private static final int PARTIAL_ORDERS = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    // Lines per order for createOrder and receiveGoods: receipt cost grows with the lines it touches
+    @Param({"1", "50", "500"})
+    public int lines;
+
+    private BenchmarkContext bench;
+    private PurchaseOrderService orderService;
+
+    // Approved orders not yet received; each receiveGoods call consumes one
+    private final ArrayDeque<Long> approvedOrders = new ArrayDeque<>();
+
+    // Orders whose single line is large enough to take partial receipts for the whole run
+    private List<Long> partialOrderIds;
+    private List<Long> partialItemIds;
+    private int nextPartial;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(rows);
+        orderService = bench.bean(PurchaseOrderService.class);
+        partialOrderIds = bench.createApprovedOrders(PARTIAL_ORDERS, Integer.MAX_VALUE / 2, BigDecimal.ONE);
+        partialItemIds = bench.itemIds(partialOrderIds);
+    }
+
+    @Setup(Level.Iteration)
+    public void refillApprovedOrders() {
+        int poolOrders = RECEIPT_POOL_LINES / lines;
+        if (approvedOrders.size() < poolOrders) {
+            approvedOrders.addAll(bench.createApprovedOrders(poolOrders, lines, 10, BigDecimal.TEN));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public PurchaseOrder createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PurchaseOrder order = new PurchaseOrder();
+        Vendor vendor = new Vendor();
+        vendor.setId(bench.firstVendorId() + random.nextInt(BenchmarkContext.VENDORS));
+        order.setVendor(vendor);
+        order.setTotalAmount(BigDecimal.valueOf(lines * 100L));
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setId(bench.firstProductId() + random.nextInt(rows));
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(10);
+            item.setUnitPrice(BigDecimal.TEN);
+            order.getItems().add(item);
+        }
+        return orderService.createOrder(order);
+    }
+
+    @Benchmark
+    public PurchaseOrder receiveGoods() {
+        Long orderId = approvedOrders.poll();
+        if (orderId == null) {
+            // Pool ran dry mid-iteration; refilling here is rare and shows up as a slow call
+            refillApprovedOrders();
+            orderId = approvedOrders.poll();
+        }
+        return orderService.receiveGoods(orderId);
+    }
+
+    @Benchmark
+    public PurchaseOrder receivePartialGoods() {
+        int index = nextPartial++ % PARTIAL_ORDERS;
+        return orderService.receivePartialGoods(partialOrderIds.get(index), partialItemIds.get(index), 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.hrishikesh.inventory.benchmark;
+
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PaymentServiceBenchmark {
+
+    private static final int PAYABLE_ORDERS = 100;
+    private static final BigDecimal PAYMENT_AMOUNT = new BigDecimal("0.01");
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkContext bench;
+    private PaymentService paymentService;
+
+    // Orders with an outstanding balance far larger than a whole run of 0.01 payments
+    private List<Long> payableOrderIds;
+    private int nextOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(rows);
+        paymentService = bench.bean(PaymentService.class);
+        payableOrderIds = bench.createApprovedOrders(PAYABLE_ORDERS, 1_000_000, new BigDecimal("1000"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public Payment createPayment() {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setId(payableOrderIds.get(nextOrder++ % PAYABLE_ORDERS));
+        Payment payment = new Payment();
+        payment.setPurchaseOrder(order);
+        payment.setAmount(PAYMENT_AMOUNT);
+        payment.setPaymentMethod(Payment.PaymentMethod.BANK_TRANSFER);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        return paymentService.createPayment(payment);
+    }
+
+    @Benchmark
+    public BigDecimal getTotalPaid() {
+        return paymentService.getTotalPaid(bench.firstOrderId() + ThreadLocalRandom.current().nextInt(rows));
+    }
+}
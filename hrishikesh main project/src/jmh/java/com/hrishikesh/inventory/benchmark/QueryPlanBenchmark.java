@@ -0,0 +1,146 @@
+package com.hrishikesh.inventory.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The order/payment access paths with and without the V2 composite indexes:
+//   schemaVersion=1.1    -> schema before the indexes (primary keys, foreign keys, unique SKU only)
+//   schemaVersion=latest -> all migrations
+// Each trial writes the EXPLAIN output of every query to target/query-plans/v<schemaVersion>-<rows>.txt.
+// The statements are what Hibernate sends for the repository queries, with parameters inlined the way
+// MySQL Connector/J does for client-side prepared statements.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class QueryPlanBenchmark {
+
+    private static final String PAYMENT_TOTAL_BY_ORDER =
+            "SELECT COALESCE(SUM(p.amount), 0) FROM payment p "
+                    + "WHERE p.purchase_order_id = 4242 AND p.status = 'COMPLETED'";
+
+    private static final String PAYMENT_PAGE_BY_STATUS =
+            "SELECT p.id, o.id, v.name, p.amount, p.payment_date, p.payment_method, p.status "
+                    + "FROM payment p JOIN purchase_order o ON o.id = p.purchase_order_id "
+                    + "JOIN vendor v ON v.id = o.vendor_id WHERE p.id > 0 "
+                    + "AND (NULL IS NULL OR o.id = NULL) "
+                    + "AND ('PENDING' IS NULL OR p.status = 'PENDING') "
+                    + "ORDER BY p.id ASC LIMIT 51";
+
+    private static final String ORDER_COUNT_BY_STATUS =
+            "SELECT COUNT(o.id) FROM purchase_order o WHERE o.status = 'PENDING'";
+
+    private static final String ORDER_PAGE_BY_VENDOR_STATUS =
+            "SELECT o.id, v.id, v.name, o.order_date, o.status, o.total_amount "
+                    + "FROM purchase_order o JOIN vendor v ON v.id = o.vendor_id WHERE o.id > 0 "
+                    + "AND ('APPROVED' IS NULL OR o.status = 'APPROVED') "
+                    + "AND (7 IS NULL OR v.id = 7) "
+                    + "ORDER BY o.id ASC LIMIT 51";
+
+    private static final String ORDER_PAGE_BY_DATE =
+            "SELECT o.id, v.id, v.name, o.order_date, o.status, o.total_amount "
+                    + "FROM purchase_order o JOIN vendor v ON v.id = o.vendor_id WHERE o.id > 0 "
+                    + "AND o.order_date >= DATEADD('HOUR', -2, CURRENT_TIMESTAMP) "
+                    + "ORDER BY o.id ASC LIMIT 51";
+
+    private static final String ORDER_ITEMS_BY_ORDERS =
+            "SELECT i.id, i.product_id, i.quantity, i.received_quantity FROM order_item i "
+                    + "WHERE i.purchase_order_id IN (11, 12, 13, 14, 15, 16, 17, 18, 19, 20)";
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("paymentTotalByOrder", PAYMENT_TOTAL_BY_ORDER);
+        QUERIES.put("paymentPageByStatus", PAYMENT_PAGE_BY_STATUS);
+        QUERIES.put("orderCountByStatus", ORDER_COUNT_BY_STATUS);
+        QUERIES.put("orderPageByVendorStatus", ORDER_PAGE_BY_VENDOR_STATUS);
+        QUERIES.put("orderPageByDate", ORDER_PAGE_BY_DATE);
+        QUERIES.put("orderItemsByOrders", ORDER_ITEMS_BY_ORDERS);
+    }
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"1.1", "latest"})
+    public String schemaVersion;
+
+    private BenchmarkContext bench;
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(rows, "spring.flyway.target=" + schemaVersion);
+        jdbc = bench.jdbc();
+        // Refresh optimizer statistics after the bulk seed
+        jdbc.execute("ANALYZE");
+        writePlans();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public Object paymentTotalByOrder() {
+        return jdbc.queryForObject(PAYMENT_TOTAL_BY_ORDER, Object.class);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> paymentPageByStatus() {
+        return jdbc.queryForList(PAYMENT_PAGE_BY_STATUS);
+    }
+
+    @Benchmark
+    public Long orderCountByStatus() {
+        return jdbc.queryForObject(ORDER_COUNT_BY_STATUS, Long.class);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> orderPageByVendorStatus() {
+        return jdbc.queryForList(ORDER_PAGE_BY_VENDOR_STATUS);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> orderPageByDate() {
+        return jdbc.queryForList(ORDER_PAGE_BY_DATE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> orderItemsByOrders() {
+        return jdbc.queryForList(ORDER_ITEMS_BY_ORDERS);
+    }
+
+    private void writePlans() {
+        StringBuilder report = new StringBuilder();
+        report.append("# schema version ").append(schemaVersion).append(", ").append(rows).append(" rows\n");
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            report.append("\n## ").append(query.getKey()).append('\n');
+            // H2 returns one PLAN column, MySQL one row per table access: print whatever comes back
+            for (Map<String, Object> row : jdbc.queryForList("EXPLAIN " + query.getValue())) {
+                report.append(row.size() == 1 ? String.valueOf(row.values().iterator().next()) : row.toString())
+                        .append('\n');
+            }
+        }
+
+        Path file = Path.of("target", "query-plans", "v" + schemaVersion + "-" + rows + ".txt");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write query plans to " + file, e);
+        }
+        System.out.println(report);
+    }
+}
@@ -2,10 +2,14 @@ package com.hrishikesh.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing // Enabling Audit features as promised
+@EnableScheduling // Background reconciliation jobs
+@EnableCaching // Product catalog cache (spring.cache.*)
 public class InventoryApplication {
 
 	public static void main(String[] args) {
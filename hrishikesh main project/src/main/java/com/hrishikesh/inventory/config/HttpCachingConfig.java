@@ -0,0 +1,20 @@
+package com.hrishikesh.inventory.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class HttpCachingConfig {
+
+    // The pages change only on deploy and are small, so hashing the rendered body is fine here. API
+    // endpoints are not covered: they get ETags from table versions (ConditionalGet) without rendering.
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> pageEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/", "*.html");
+        return registration;
+    }
+}
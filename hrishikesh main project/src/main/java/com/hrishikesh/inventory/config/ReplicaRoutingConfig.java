@@ -0,0 +1,116 @@
+package com.hrishikesh.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Read/write splitting, active only when inventory.datasource.replicas.urls lists at least one replica
+// (entries are trimmed, blank ones dropped: "," or " " alone leaves the plain single data source).
+// The primary pool is built from spring.datasource.* as before; each replica gets its own read-only pool.
+// Everything that takes "the" DataSource (JPA, JdbcTemplate, Flyway) gets the lazy routing proxy, so
+// migrations and writes land on the primary and only read-only transactions reach a replica.
+@Configuration
+@Conditional(ReplicaRoutingConfig.HasReplicaUrls.class)
+public class ReplicaRoutingConfig {
+
+    static final String URLS_PROPERTY = "inventory.datasource.replicas.urls";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.datasource.replicas.urls}") String urls,
+            @Value("${inventory.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${inventory.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${inventory.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${inventory.datasource.replicas.lag-query:}") String lagQuery,
+            @Value("${inventory.datasource.replicas.max-lag-seconds:5}") long maxLagSeconds) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls(urls)) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url);
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            // Defence in depth: a write that slips through fails instead of diverging the replica
+            replica.setReadOnly(true);
+            // Fail over to the primary quickly rather than queueing reads on a sick replica
+            replica.setConnectionTimeout(2000);
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery, maxLagSeconds, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Hibernate otherwise keeps the first connection of a request for the whole open-session-in-view,
+    // and a write after a read-only call would run on the replica connection
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(
+            @Value("${inventory.datasource.replicas.sticky-ms:5000}") long stickyMs) {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaStickinessFilter(stickyMs));
+        // Outside everything that may touch the database
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Comma-separated, trimmed, blank entries dropped
+    static List<String> replicaUrls(String urls) {
+        return Arrays.stream(StringUtils.commaDelimitedListToStringArray(urls))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    static class HasReplicaUrls implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return !replicaUrls(context.getEnvironment().getProperty(URLS_PROPERTY, "")).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.hrishikesh.inventory.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends connections for read-only transactions (@Transactional(readOnly = true)) to a read replica and
+// everything else to the primary. Wrapped in a LazyConnectionDataSourceProxy (ReplicaRoutingConfig), so
+// the physical connection is only requested at the first statement, once the transaction's read-only
+// flag is known.
+//
+// A read goes to the primary instead when the client recently wrote (ReplicaStickinessFilter), when no
+// replica is healthy, or when the chosen replica refuses a connection (it is then marked down until the
+// next health check). Replicas are checked every health-check interval: a connection must be valid and,
+// if a lag query is configured, the replica no further behind than max-lag-seconds.
+//
+// Routing is counted as inventory.datasource.route{target, reason}; replica state is the
+// inventory.datasource.replica.healthy gauge.
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, String lagQuery,
+                                    long maxLagSeconds, MeterRegistry meterRegistry) {
+        if (replicaDataSources.isEmpty()) {
+            throw new IllegalArgumentException("Read/write splitting needs at least one replica data source");
+        }
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.writes = routeCounter(meterRegistry, PRIMARY, "read-write");
+        this.stickyReads = routeCounter(meterRegistry, PRIMARY, "sticky");
+        this.fallbackReads = routeCounter(meterRegistry, PRIMARY, "fallback");
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicaDataSources.get(i), meterRegistry);
+            replicas.add(replica);
+            Gauge.builder("inventory.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 while the read replica passes its health check")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            pinAfterCommit();
+            return primary.getConnection();
+        }
+        if (ReplicaStickinessFilter.isPinned()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        Replica replica = nextHealthyReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Read replica {} refused a connection, reading from the primary until it recovers: {}",
+                        replica.name, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    // Credentials are configured per pool, so there is nothing to route a per-call login to
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = check(replica);
+            if (healthy != replica.healthy) {
+                log.info("Read replica {} is {}", replica.name, healthy ? "back in rotation" : "out of rotation");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    // The replica pools belong to this data source; the primary pool is a bean of its own
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Round robin over the replicas that passed their last check
+    private Replica nextHealthyReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // A committed write pins this client's reads to the primary for a while, so it reads its own writes
+    private static void pinAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReplicaStickinessFilter.written();
+                }
+            });
+        }
+    }
+
+    private boolean check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(2)) {
+                return false;
+            }
+            if (!StringUtils.hasText(lagQuery)) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                // No row or NULL means replication is not running: lag unknown, so unhealthy
+                Long lag = null;
+                if (rs.next()) {
+                    lag = rs.getLong(1);
+                    if (rs.wasNull()) {
+                        lag = null;
+                    }
+                }
+                if (lag == null || lag > maxLagSeconds) {
+                    log.debug("Read replica {} lag is {} s, limit {} s", replica.name, lag, maxLagSeconds);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.debug("Health check of read replica {} failed: {}", replica.name, e.getMessage());
+            return false;
+        }
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("inventory.datasource.route")
+                .description("Connections handed out, by target database and routing reason")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        // Out of rotation until its first check passes (the check runs at startup); a refused connection
+        // takes it out at once
+        private volatile boolean healthy;
+
+        private Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = routeCounter(meterRegistry, name, "read");
+        }
+    }
+}
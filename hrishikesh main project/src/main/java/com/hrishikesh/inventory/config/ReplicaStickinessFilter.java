@@ -0,0 +1,92 @@
+package com.hrishikesh.inventory.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Read-your-writes for replica routing (ReplicaRoutingDataSource). Once a request commits a write, the
+// rest of that request and the client's requests for the next sticky-ms read from the primary, so a
+// page never reloads a list from a replica that has not yet replayed the change. The pin travels in a
+// cookie holding its expiry (epoch milliseconds); clients without cookies are only pinned per request.
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "inventory-read-primary";
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final long stickyMs;
+
+    public ReplicaStickinessFilter(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CURRENT.set(new RequestState(response, stickyMs, pinnedUntil(request) > System.currentTimeMillis()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    static boolean isPinned() {
+        RequestState state = CURRENT.get();
+        return state != null && state.pinned;
+    }
+
+    // Called after a write transaction commits on this thread
+    static void written() {
+        RequestState state = CURRENT.get();
+        if (state == null) {
+            return;
+        }
+        state.pinned = true;
+        // Once per request; the body may already be streaming (SSE), then the request-level pin must do
+        if (!state.cookieSent && !state.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + state.stickyMs));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (state.stickyMs + 999) / 1000));
+            state.response.addCookie(cookie);
+            state.cookieSent = true;
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static final class RequestState {
+
+        private final HttpServletResponse response;
+        private final long stickyMs;
+        private boolean pinned;
+        private boolean cookieSent;
+
+        private RequestState(HttpServletResponse response, long stickyMs, boolean pinned) {
+            this.response = response;
+            this.stickyMs = stickyMs;
+            this.pinned = pinned;
+        }
+    }
+}
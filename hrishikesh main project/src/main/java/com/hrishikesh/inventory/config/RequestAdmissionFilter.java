@@ -0,0 +1,99 @@
+package com.hrishikesh.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Admission control for the virtual-threads profile. Virtual threads remove Tomcat's 200-thread cap, so
+// without a limit every spike turns into thousands of requests queued inside Hikari until they time out.
+// Here at most max-concurrent-requests API calls run at once; the rest wait up to queue-timeout-ms for a
+// slot and then get 503 + Retry-After, which clients and load balancers can back off on.
+@Component
+@ConditionalOnProperty(prefix = "inventory.admission", name = "max-concurrent-requests")
+public class RequestAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long queueTimeoutMs;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public RequestAdmissionFilter(@Value("${inventory.admission.max-concurrent-requests}") int maxConcurrentRequests,
+                                  @Value("${inventory.admission.queue-timeout-ms:2000}") long queueTimeoutMs,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("inventory.admission.rejected")
+                .description("API requests rejected with 503 because no slot freed up in time")
+                .register(meterRegistry);
+        Gauge.builder("inventory.admission.in.flight", this, f -> f.maxConcurrentRequests - f.permits.availablePermits())
+                .description("API requests currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("inventory.admission.queued", permits, Semaphore::getQueueLength)
+                .description("API requests waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    // The change feed is a long-lived stream that holds no worker thread while idle; counting it would
+    // pin a permit per open browser tab
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.equals("/api/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        rejected.increment();
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Server is busy. Please retry shortly.");
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,25 @@
+package com.hrishikesh.inventory.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Hibernate hook (hibernate.session_factory.statement_inspector) that counts the statements prepared
+// on the current thread. SqlStatementCountFilter resets and reads it around each API request.
+// Statements issued through JdbcTemplate (bulk stock updates, imports) bypass Hibernate and are not counted.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    static int current() {
+        return COUNT.get()[0];
+    }
+}
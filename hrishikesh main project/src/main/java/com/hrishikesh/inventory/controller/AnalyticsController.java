@@ -0,0 +1,72 @@
+package com.hrishikesh.inventory.controller;
+
+import com.hrishikesh.inventory.dto.PaymentMethodTotal;
+import com.hrishikesh.inventory.dto.VendorFillRate;
+import com.hrishikesh.inventory.dto.VendorSpend;
+import com.hrishikesh.inventory.service.AnalyticsService;
+import com.hrishikesh.inventory.service.TableVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Served from the daily rollup tables. Ranges are whole days, 'to' inclusive; both default to the
+// last twelve months. The rollups change with every order and payment, hence the ETags on both tables.
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ConditionalGet conditionalGet;
+
+    @GetMapping("/vendor-spend")
+    public List<VendorSpend> getVendorSpend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long vendorId,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.ORDERS, TableVersions.Table.PAYMENTS)) {
+            return null;
+        }
+        return analyticsService.getVendorSpend(from, to, vendorId);
+    }
+
+    @GetMapping("/fill-rates")
+    public List<VendorFillRate> getFillRates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long vendorId,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.ORDERS)) {
+            return null;
+        }
+        return analyticsService.getFillRates(from, to, vendorId);
+    }
+
+    @GetMapping("/payment-methods")
+    public List<PaymentMethodTotal> getPaymentMethods(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long vendorId,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PAYMENTS)) {
+            return null;
+        }
+        return analyticsService.getPaymentMethods(from, to, vendorId);
+    }
+
+    // Recomputes the rollups from the order and payment tables
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(analyticsService.rebuildRollups());
+    }
+}
@@ -0,0 +1,42 @@
+package com.hrishikesh.inventory.controller;
+
+import com.hrishikesh.inventory.service.TableVersions;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Conditional GET for the read endpoints. Validators are known before anything is loaded (table versions)
+// or from an already cached entity, so a client re-polling unchanged data gets a 304 with no query and no
+// serialization. Handlers return null when notModified() is true; the 304 has already been written.
+@Component
+public class ConditionalGet {
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    public boolean notModified(NativeWebRequest request, TableVersions.Table... tables) {
+        revalidateEveryTime(request);
+        return request.checkNotModified(tableVersions.etag(tables));
+    }
+
+    public boolean notModified(NativeWebRequest request, String etag, LocalDateTime lastModified) {
+        revalidateEveryTime(request);
+        if (lastModified == null) {
+            return request.checkNotModified(etag);
+        }
+        return request.checkNotModified(etag, lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // Browsers may keep the body but must ask before reusing it (no heuristic freshness on Last-Modified)
+    private void revalidateEveryTime(NativeWebRequest request) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+    }
+}
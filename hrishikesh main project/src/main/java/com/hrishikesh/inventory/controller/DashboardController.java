@@ -0,0 +1,20 @@
+package com.hrishikesh.inventory.controller;
+
+import com.hrishikesh.inventory.dto.DashboardStats;
+import com.hrishikesh.inventory.service.DashboardStatsCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @GetMapping("/stats")
+    public DashboardStats getStats() {
+        return dashboardStatsCache.getStats();
+    }
+}
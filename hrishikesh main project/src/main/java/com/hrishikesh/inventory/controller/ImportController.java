@@ -0,0 +1,50 @@
+package com.hrishikesh.inventory.controller;
+
+import com.hrishikesh.inventory.dto.ImportReport;
+import com.hrishikesh.inventory.service.BulkImportService;
+import com.hrishikesh.inventory.service.FileFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+// Bulk uploads: the raw request body is CSV (text/csv, header row required) or NDJSON
+// (application/x-ndjson, one JSON object per line), read as a stream. ?format=csv|ndjson overrides
+// the Content-Type.
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*")
+public class ImportController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @PostMapping("/products")
+    public ResponseEntity<ImportReport> importProducts(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importProducts(body,
+                FileFormat.resolve(format, contentType)));
+    }
+
+    @PostMapping("/vendors")
+    public ResponseEntity<ImportReport> importVendors(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importVendors(body,
+                FileFormat.resolve(format, contentType)));
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<ImportReport> importOrders(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importOrders(body,
+                FileFormat.resolve(format, contentType)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.hrishikesh.inventory.controller;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+// UI pages. They are Thymeleaf templates only so that @{/js/app.js} links are rewritten to content-hashed
+// names (/js/app-<md5>.js) that browsers can cache for a year; the .html URLs stay the same (app.js routes
+// on them).
+@Controller
+public class PageController {
+
+    @GetMapping({"/", "/index.html"})
+    public String dashboard() {
+        return "index";
+    }
+
+    @GetMapping("/vendors.html")
+    public String vendors() {
+        return "vendors";
+    }
+
+    @GetMapping("/inventory.html")
+    public String inventory() {
+        return "inventory";
+    }
+
+    @GetMapping("/orders.html")
+    public String orders() {
+        return "orders";
+    }
+
+    @GetMapping("/payments.html")
+    public String payments() {
+        return "payments";
+    }
+}
@@ -1,13 +1,25 @@
 package com.hrishikesh.inventory.controller;
 
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.PaymentIngestionStatus;
+import com.hrishikesh.inventory.dto.PaymentSummary;
 import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.service.ExportService;
+import com.hrishikesh.inventory.service.FileFormat;
+import com.hrishikesh.inventory.service.PaymentIngestionService;
 import com.hrishikesh.inventory.service.PaymentService;
+import com.hrishikesh.inventory.service.TableVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -19,22 +31,77 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private PaymentIngestionService paymentIngestionService;
+
+    // Payments embed their full order (running totals, items and products)
     @GetMapping
-    public List<Payment> getAllPayments() {
+    public List<Payment> getAllPayments(NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PAYMENTS, TableVersions.Table.ORDERS,
+                TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
         return paymentService.getAllPayments();
     }
 
+    @GetMapping("/page")
+    public CursorPage<PaymentSummary> getPaymentsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Long orderId,
+            @RequestParam(required = false) Payment.PaymentStatus status,
+            @RequestParam(required = false) Payment.PaymentMethod method,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PAYMENTS)) {
+            return null;
+        }
+        return paymentService.getPaymentsPage(cursor, size, sort, direction, orderId, status, method);
+    }
+
+    // Payment history as a streamed download (format=ndjson|csv, gzip=true for a .gz file)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long orderId,
+            @RequestParam(required = false) Payment.PaymentStatus status,
+            @RequestParam(required = false) Payment.PaymentMethod method,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        FileFormat fileFormat = FileFormat.resolve(format, null);
+        StreamingResponseBody body = out -> exportService.exportPayments(out, fileFormat, gzip, orderId, status,
+                method, from, to);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : fileFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + exportService.fileName("payments", fileFormat, gzip) + "\"")
+                .body(body);
+    }
+
     @GetMapping("/order/{orderId}")
-    public List<Payment> getPaymentsByOrder(@PathVariable Long orderId) {
+    public List<Payment> getPaymentsByOrder(@PathVariable Long orderId, NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PAYMENTS, TableVersions.Table.ORDERS,
+                TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
         return paymentService.getPaymentsByOrder(orderId);
     }
 
     @GetMapping("/order/{orderId}/summary")
-    public ResponseEntity<Map<String, BigDecimal>> getPaymentSummary(@PathVariable Long orderId) {
-        Map<String, BigDecimal> summary = new HashMap<>();
-        summary.put("totalPaid", paymentService.getTotalPaid(orderId));
-        summary.put("outstanding", paymentService.getOutstandingBalance(orderId));
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<Map<String, BigDecimal>> getPaymentSummary(@PathVariable Long orderId,
+                                                                     NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.ORDERS)) {
+            return null;
+        }
+        return ResponseEntity.ok(paymentService.getPaymentSummary(orderId));
     }
 
     @PostMapping
@@ -42,8 +109,46 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.createPayment(payment));
     }
 
+    // Asynchronous intake (bank settlement callbacks): 202 + Location of the status resource.
+    // transactionReference is required; a replayed one gets 409 with the original's status, a full queue 503.
+    @PostMapping("/ingest")
+    public ResponseEntity<PaymentIngestionStatus> ingestPayment(@RequestBody Payment payment) {
+        PaymentIngestionStatus status = paymentIngestionService.submit(payment);
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromPath("/api/payments/ingest/{reference}")
+                        .buildAndExpand(status.getTransactionReference()).encode().toUri())
+                .body(status);
+    }
+
+    @GetMapping("/ingest/{transactionReference}")
+    public ResponseEntity<PaymentIngestionStatus> getIngestionStatus(@PathVariable String transactionReference) {
+        return ResponseEntity.ok(paymentIngestionService.getStatus(transactionReference));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Payment> getPayment(@PathVariable Long id) {
+    public ResponseEntity<Payment> getPayment(@PathVariable Long id, NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PAYMENTS, TableVersions.Table.ORDERS,
+                TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
         return ResponseEntity.ok(paymentService.getPaymentById(id));
     }
+
+    @PostMapping("/{id}/status")
+    public ResponseEntity<Payment> updatePaymentStatus(@PathVariable Long id,
+                                                       @RequestBody PaymentStatusRequest request) {
+        return ResponseEntity.ok(paymentService.updatePaymentStatus(id, request.getStatus()));
+    }
+
+    public static class PaymentStatusRequest {
+        private Payment.PaymentStatus status;
+
+        public Payment.PaymentStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(Payment.PaymentStatus status) {
+            this.status = status;
+        }
+    }
 }
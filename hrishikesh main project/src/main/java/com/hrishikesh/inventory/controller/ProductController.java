@@ -1,13 +1,19 @@
 package com.hrishikesh.inventory.controller;
 
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.ProductSearchResult;
 import com.hrishikesh.inventory.entity.Product;
 import com.hrishikesh.inventory.service.ProductService;
+import com.hrishikesh.inventory.service.TableVersions;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -17,18 +23,72 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     @GetMapping
-    public List<Product> getAllProducts() {
+    public List<Product> getAllProducts(NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
         return productService.getAllProducts();
     }
 
+    @GetMapping("/page")
+    public CursorPage<Product> getProductsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Integer minStock,
+            @RequestParam(required = false) Integer maxStock,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
+        return productService.getProductsPage(cursor, size, sort, direction, search, minStock, maxStock);
+    }
+
+    // Ranked name/SKU/description search with stock and price facets, served from the in-memory index
+    @GetMapping("/search")
+    public ProductSearchResult searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer minStock,
+            @RequestParam(required = false) Integer maxStock,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer limit,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
+        return productService.searchProducts(q, minStock, maxStock, minPrice, maxPrice, limit);
+    }
+
+    @GetMapping("/search/stats")
+    public Map<String, Object> getSearchStats() {
+        return productService.getSearchStats();
+    }
+
     @PostMapping
     public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
         return ResponseEntity.ok(productService.createProduct(product));
     }
 
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return productService.getCacheStats();
+    }
+
+    // Validated against the product itself (served from the catalog cache): version and lastUpdated
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, NativeWebRequest request) {
+        Product product = productService.getProductById(id);
+        String etag = "W/\"" + product.getId() + "-" + product.getVersion() + "\"";
+        if (conditionalGet.notModified(request, etag, product.getLastUpdated())) {
+            return null;
+        }
+        return ResponseEntity.ok(product);
     }
 }
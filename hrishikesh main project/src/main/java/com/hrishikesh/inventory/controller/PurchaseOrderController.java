@@ -1,11 +1,24 @@
 package com.hrishikesh.inventory.controller;
 
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.DeliveryNote;
+import com.hrishikesh.inventory.dto.DeliveryReceipt;
+import com.hrishikesh.inventory.dto.OrderSummary;
 import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.service.ExportService;
+import com.hrishikesh.inventory.service.FileFormat;
 import com.hrishikesh.inventory.service.PurchaseOrderService;
+import com.hrishikesh.inventory.service.TableVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,11 +29,64 @@ public class PurchaseOrderController {
     @Autowired
     private PurchaseOrderService poService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
+    @Autowired
+    private ExportService exportService;
+
+    // Full orders embed their items' products, so product changes count too
     @GetMapping
-    public List<PurchaseOrder> getAllOrders() {
+    public List<PurchaseOrder> getAllOrders(NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.ORDERS, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
         return poService.getAllOrders();
     }
 
+    @GetMapping("/page")
+    public CursorPage<OrderSummary> getOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) PurchaseOrder.OrderStatus status,
+            @RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.ORDERS)) {
+            return null;
+        }
+        return poService.getOrdersPage(cursor, size, sort, direction, status, vendorId, from, to);
+    }
+
+    // Full order history as a streamed download (format=ndjson|csv, gzip=true for a .gz file)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) PurchaseOrder.OrderStatus status,
+            @RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        FileFormat fileFormat = FileFormat.resolve(format, null);
+        StreamingResponseBody body = out -> exportService.exportOrders(out, fileFormat, gzip, status, vendorId, from, to);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : fileFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + exportService.fileName("orders", fileFormat, gzip) + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PurchaseOrder> getOrderById(@PathVariable Long id, NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.ORDERS, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
+        return ResponseEntity.ok(poService.getOrderById(id));
+    }
+
     @PostMapping
     public ResponseEntity<PurchaseOrder> createOrder(@RequestBody PurchaseOrder order) {
         return ResponseEntity.ok(poService.createOrder(order));
@@ -48,6 +114,15 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(poService.receivePartialGoods(orderId, request.getItemId(), request.getQuantity()));
     }
 
+    // A whole delivery note at once; 201 when it was recorded, 200 when the reference was already received
+    @PostMapping("/{orderId}/deliveries")
+    public ResponseEntity<DeliveryReceipt> receiveDelivery(
+            @PathVariable Long orderId,
+            @RequestBody DeliveryNote note) {
+        DeliveryReceipt receipt = poService.receiveDelivery(orderId, note);
+        return ResponseEntity.status(receipt.isReplayed() ? HttpStatus.OK : HttpStatus.CREATED).body(receipt);
+    }
+
     // Inner class for partial receipt request
     public static class PartialReceiptRequest {
         private Long itemId;
@@ -0,0 +1,28 @@
+package com.hrishikesh.inventory.controller;
+
+import com.hrishikesh.inventory.dto.ReplenishmentReport;
+import com.hrishikesh.inventory.service.ReplenishmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/replenishment")
+@CrossOrigin(origins = "*")
+public class ReplenishmentController {
+
+    @Autowired
+    private ReplenishmentService replenishmentService;
+
+    // What a run would order right now, without creating anything
+    @GetMapping("/suggestions")
+    public ReplenishmentReport getSuggestions() {
+        return replenishmentService.run(true);
+    }
+
+    // Creates the suggested orders as PENDING drafts, one per vendor
+    @PostMapping("/run")
+    public ResponseEntity<ReplenishmentReport> run() {
+        return ResponseEntity.ok(replenishmentService.run(false));
+    }
+}
@@ -0,0 +1,123 @@
+package com.hrishikesh.inventory.controller;
+
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.StockMovement;
+import com.hrishikesh.inventory.service.StockLedgerService;
+import com.hrishikesh.inventory.service.TableVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stock")
+@CrossOrigin(origins = "*")
+public class StockController {
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ConditionalGet conditionalGet;
+
+    // Inventory value (stock x unit price) over all products
+    @GetMapping("/valuation")
+    public Map<String, Object> getValuation(NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
+        return stockLedgerService.getValuation();
+    }
+
+    // Products below their low-stock threshold, in id order
+    @GetMapping("/low-stock")
+    public Map<String, Object> getLowStock(
+            @RequestParam(required = false) Integer limit,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
+        return stockLedgerService.getLowStock(limit);
+    }
+
+    // Product counts per stock range
+    @GetMapping("/distribution")
+    public Map<String, Object> getDistribution(NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.PRODUCTS)) {
+            return null;
+        }
+        return stockLedgerService.getDistribution();
+    }
+
+    @GetMapping("/columns/stats")
+    public Map<String, Object> getColumnStats() {
+        return stockLedgerService.getColumnStats();
+    }
+
+    @GetMapping("/{productId}/movements")
+    public CursorPage<StockMovement> getMovements(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return stockLedgerService.getMovements(productId, cursor, size);
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<Map<String, Object>> getStockAt(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("productId", productId);
+        result.put("at", at);
+        result.put("stock", stockLedgerService.getStockAt(productId, at));
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{productId}/adjustments")
+    public ResponseEntity<StockMovement> adjustStock(
+            @PathVariable Long productId,
+            @RequestBody StockAdjustmentRequest request) {
+        return ResponseEntity.ok(stockLedgerService.adjustStock(productId, request.getQuantity(), request.getNote()));
+    }
+
+    @PostMapping("/movements/{movementId}/reverse")
+    public ResponseEntity<StockMovement> reverseMovement(
+            @PathVariable Long movementId,
+            @RequestBody(required = false) StockAdjustmentRequest request) {
+        String note = request != null ? request.getNote() : null;
+        return ResponseEntity.ok(stockLedgerService.reverseMovement(movementId, note));
+    }
+
+    @PostMapping("/{productId}/rebuild")
+    public ResponseEntity<Product> rebuildCurrentStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(stockLedgerService.rebuildCurrentStock(productId));
+    }
+
+    // Inner class for adjustment / reversal requests
+    public static class StockAdjustmentRequest {
+        private Integer quantity;
+        private String note;
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.hrishikesh.inventory.controller;
 
+import com.hrishikesh.inventory.dto.CursorPage;
 import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.service.TableVersions;
 import com.hrishikesh.inventory.service.VendorService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.util.List;
 
@@ -17,18 +20,41 @@ public class VendorController {
     @Autowired
     private VendorService vendorService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     @GetMapping
-    public List<Vendor> getAllVendors() {
+    public List<Vendor> getAllVendors(NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.VENDORS)) {
+            return null;
+        }
         return vendorService.getAllVendors();
     }
 
+    @GetMapping("/page")
+    public CursorPage<Vendor> getVendorsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String name,
+            NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.VENDORS)) {
+            return null;
+        }
+        return vendorService.getVendorsPage(cursor, size, sort, direction, name);
+    }
+
     @PostMapping
     public ResponseEntity<Vendor> createVendor(@Valid @RequestBody Vendor vendor) {
         return ResponseEntity.ok(vendorService.createVendor(vendor));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Vendor> getVendorById(@PathVariable Long id) {
+    public ResponseEntity<Vendor> getVendorById(@PathVariable Long id, NativeWebRequest request) {
+        if (conditionalGet.notModified(request, TableVersions.Table.VENDORS)) {
+            return null;
+        }
         return ResponseEntity.ok(vendorService.getVendorById(id));
     }
 }
@@ -0,0 +1,47 @@
+package com.hrishikesh.inventory.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset listing. Pass nextCursor back as ?cursor= to fetch the next page: the last id when
+// sorted by id, an opaque token for other sort keys.
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Rows are fetched with one extra element so we know whether another page exists
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idExtractor) {
+        return withCursor(rows, size, row -> Long.toString(idExtractor.apply(row)));
+    }
+
+    public static <T> CursorPage<T> withCursor(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public int getSize() {
+        return items.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hrishikesh.inventory.dto;
+
+import java.time.LocalDateTime;
+
+public class DashboardStats {
+
+    private final long totalVendors;
+    private final long totalProducts;
+    private final long pendingOrders;
+    private final long lowStockProducts;
+    private final LocalDateTime lastReconciledAt;
+
+    public DashboardStats(long totalVendors, long totalProducts, long pendingOrders, long lowStockProducts,
+                          LocalDateTime lastReconciledAt) {
+        this.totalVendors = totalVendors;
+        this.totalProducts = totalProducts;
+        this.pendingOrders = pendingOrders;
+        this.lowStockProducts = lowStockProducts;
+        this.lastReconciledAt = lastReconciledAt;
+    }
+
+    public long getTotalVendors() {
+        return totalVendors;
+    }
+
+    public long getTotalProducts() {
+        return totalProducts;
+    }
+
+    public long getPendingOrders() {
+        return pendingOrders;
+    }
+
+    public long getLowStockProducts() {
+        return lowStockProducts;
+    }
+
+    public LocalDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.hrishikesh.inventory.dto;
+
+import java.util.List;
+
+// Request body of POST /api/orders/{id}/deliveries: everything that arrived with one delivery note
+public class DeliveryNote {
+
+    private String deliveryReference;
+    private List<Line> lines;
+
+    public String getDeliveryReference() {
+        return deliveryReference;
+    }
+
+    public void setDeliveryReference(String deliveryReference) {
+        this.deliveryReference = deliveryReference;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<Line> lines) {
+        this.lines = lines;
+    }
+
+    public static class Line {
+        private Long itemId;
+        private Integer quantity;
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        public void setItemId(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
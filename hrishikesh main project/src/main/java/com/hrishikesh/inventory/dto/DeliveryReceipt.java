@@ -0,0 +1,65 @@
+package com.hrishikesh.inventory.dto;
+
+import com.hrishikesh.inventory.entity.GoodsDelivery;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+
+import java.time.LocalDateTime;
+
+// Result of receiving a delivery note. replayed is true when the reference had already been received
+// (nothing was changed this time) and the original receipt is returned.
+public class DeliveryReceipt {
+
+    private final String deliveryReference;
+    private final Long orderId;
+    private final PurchaseOrder.OrderStatus orderStatus;
+    private final int lineCount;
+    private final int totalQuantity;
+    private final LocalDateTime receivedAt;
+    private final boolean replayed;
+
+    private DeliveryReceipt(GoodsDelivery delivery, PurchaseOrder.OrderStatus orderStatus, boolean replayed) {
+        this.deliveryReference = delivery.getDeliveryReference();
+        this.orderId = delivery.getPurchaseOrderId();
+        this.orderStatus = orderStatus;
+        this.lineCount = delivery.getLineCount();
+        this.totalQuantity = delivery.getTotalQuantity();
+        this.receivedAt = delivery.getReceivedAt();
+        this.replayed = replayed;
+    }
+
+    public static DeliveryReceipt recorded(GoodsDelivery delivery, PurchaseOrder.OrderStatus orderStatus) {
+        return new DeliveryReceipt(delivery, orderStatus, false);
+    }
+
+    public static DeliveryReceipt replayed(GoodsDelivery delivery, PurchaseOrder.OrderStatus orderStatus) {
+        return new DeliveryReceipt(delivery, orderStatus, true);
+    }
+
+    public String getDeliveryReference() {
+        return deliveryReference;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public PurchaseOrder.OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
+    }
+}
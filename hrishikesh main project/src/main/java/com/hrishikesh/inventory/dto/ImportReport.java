@@ -0,0 +1,98 @@
+package com.hrishikesh.inventory.dto;
+
+import java.util.List;
+
+public class ImportReport {
+
+    private final String resource;
+    private final String format;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsFailed;
+    private final long recordsCreated;
+    private final boolean aborted;
+    private final long elapsedMs;
+    private final List<RowError> errors;
+    private final long errorsOmitted;
+
+    public ImportReport(String resource, String format, long rowsRead, long rowsImported, long rowsFailed,
+                        long recordsCreated, boolean aborted, long elapsedMs, List<RowError> errors,
+                        long errorsOmitted) {
+        this.resource = resource;
+        this.format = format;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsFailed = rowsFailed;
+        this.recordsCreated = recordsCreated;
+        this.aborted = aborted;
+        this.elapsedMs = elapsedMs;
+        this.errors = errors;
+        this.errorsOmitted = errorsOmitted;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    // Products/vendors: one per imported row. Orders: one per order (several rows each).
+    public long getRecordsCreated() {
+        return recordsCreated;
+    }
+
+    // True when the upload could not be read to the end (malformed file); earlier chunks stay imported
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMs > 0 ? rowsRead * 1000.0 / elapsedMs : rowsRead;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    // Errors beyond inventory.import.max-errors are only counted
+    public long getErrorsOmitted() {
+        return errorsOmitted;
+    }
+
+    public static class RowError {
+
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.hrishikesh.inventory.dto;
+
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of the order export: the list view columns plus the running payment totals
+public class OrderExportRow {
+
+    private final Long id;
+    private final Long vendorId;
+    private final String vendorName;
+    private final LocalDateTime orderDate;
+    private final PurchaseOrder.OrderStatus status;
+    private final BigDecimal totalAmount;
+    private final BigDecimal paidAmount;
+    private final BigDecimal outstandingAmount;
+
+    public OrderExportRow(Long id, Long vendorId, String vendorName, LocalDateTime orderDate,
+                          PurchaseOrder.OrderStatus status, BigDecimal totalAmount, BigDecimal paidAmount,
+                          BigDecimal outstandingAmount) {
+        this.id = id;
+        this.vendorId = vendorId;
+        this.vendorName = vendorName;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.paidAmount = paidAmount;
+        this.outstandingAmount = outstandingAmount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public PurchaseOrder.OrderStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public BigDecimal getPaidAmount() {
+        return paidAmount;
+    }
+
+    public BigDecimal getOutstandingAmount() {
+        return outstandingAmount;
+    }
+}
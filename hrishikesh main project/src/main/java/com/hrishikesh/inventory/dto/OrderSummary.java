@@ -0,0 +1,51 @@
+package com.hrishikesh.inventory.dto;
+
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat read model for order list views, built by a single JPQL constructor query
+public class OrderSummary {
+
+    private final Long id;
+    private final Long vendorId;
+    private final String vendorName;
+    private final LocalDateTime orderDate;
+    private final PurchaseOrder.OrderStatus status;
+    private final BigDecimal totalAmount;
+
+    public OrderSummary(Long id, Long vendorId, String vendorName, LocalDateTime orderDate,
+                        PurchaseOrder.OrderStatus status, BigDecimal totalAmount) {
+        this.id = id;
+        this.vendorId = vendorId;
+        this.vendorName = vendorName;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public PurchaseOrder.OrderStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
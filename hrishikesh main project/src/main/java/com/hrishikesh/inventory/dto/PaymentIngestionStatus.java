@@ -0,0 +1,102 @@
+package com.hrishikesh.inventory.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Outcome of a payment submitted to /api/payments/ingest, polled by its transaction reference
+public class PaymentIngestionStatus {
+
+    public enum State {
+        // Waiting in the ingestion queue
+        QUEUED,
+        // Recorded; paymentId is set
+        APPLIED,
+        // Not recorded; message says why (unknown order, amount exceeds outstanding, ...)
+        REJECTED,
+        // The transaction reference had already been recorded earlier
+        DUPLICATE
+    }
+
+    private final String transactionReference;
+    private final Long orderId;
+    private final BigDecimal amount;
+    private final State state;
+    private final Long paymentId;
+    private final String message;
+    private final LocalDateTime acceptedAt;
+    private final LocalDateTime completedAt;
+
+    private PaymentIngestionStatus(String transactionReference, Long orderId, BigDecimal amount, State state,
+                                   Long paymentId, String message, LocalDateTime acceptedAt,
+                                   LocalDateTime completedAt) {
+        this.transactionReference = transactionReference;
+        this.orderId = orderId;
+        this.amount = amount;
+        this.state = state;
+        this.paymentId = paymentId;
+        this.message = message;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+    }
+
+    public static PaymentIngestionStatus queued(String transactionReference, Long orderId, BigDecimal amount) {
+        return new PaymentIngestionStatus(transactionReference, orderId, amount, State.QUEUED, null, null,
+                LocalDateTime.now(), null);
+    }
+
+    // A payment recorded before this process started tracking it (found in the database)
+    public static PaymentIngestionStatus recorded(String transactionReference, Long orderId, BigDecimal amount,
+                                                  Long paymentId, LocalDateTime recordedAt) {
+        return new PaymentIngestionStatus(transactionReference, orderId, amount, State.APPLIED, paymentId, null,
+                recordedAt, recordedAt);
+    }
+
+    public PaymentIngestionStatus applied(Long paymentId) {
+        return complete(State.APPLIED, paymentId, null);
+    }
+
+    public PaymentIngestionStatus rejected(String message) {
+        return complete(State.REJECTED, null, message);
+    }
+
+    public PaymentIngestionStatus duplicate() {
+        return complete(State.DUPLICATE, null, "Transaction reference " + transactionReference + " was already recorded");
+    }
+
+    private PaymentIngestionStatus complete(State state, Long paymentId, String message) {
+        return new PaymentIngestionStatus(transactionReference, orderId, amount, state, paymentId, message,
+                acceptedAt, LocalDateTime.now());
+    }
+
+    public String getTransactionReference() {
+        return transactionReference;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hrishikesh.inventory.dto;
+
+import java.math.BigDecimal;
+
+// Payment count and amount for one method and status ("UNSPECIFIED" when no method was recorded)
+public class PaymentMethodTotal {
+
+    private final String method;
+    private final String status;
+    private final long paymentCount;
+    private final BigDecimal amount;
+
+    public PaymentMethodTotal(String method, String status, long paymentCount, BigDecimal amount) {
+        this.method = method;
+        this.status = status;
+        this.paymentCount = paymentCount;
+        this.amount = amount;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hrishikesh.inventory.dto;
+
+import com.hrishikesh.inventory.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat read model for payment list views, built by a single JPQL constructor query
+public class PaymentSummary {
+
+    private final Long id;
+    private final Long orderId;
+    private final String vendorName;
+    private final BigDecimal amount;
+    private final LocalDateTime paymentDate;
+    private final Payment.PaymentMethod paymentMethod;
+    private final Payment.PaymentStatus status;
+    private final String transactionReference;
+
+    public PaymentSummary(Long id, Long orderId, String vendorName, BigDecimal amount, LocalDateTime paymentDate,
+                          Payment.PaymentMethod paymentMethod, Payment.PaymentStatus status,
+                          String transactionReference) {
+        this.id = id;
+        this.orderId = orderId;
+        this.vendorName = vendorName;
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.transactionReference = transactionReference;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+
+    public Payment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public Payment.PaymentStatus getStatus() {
+        return status;
+    }
+
+    public String getTransactionReference() {
+        return transactionReference;
+    }
+}
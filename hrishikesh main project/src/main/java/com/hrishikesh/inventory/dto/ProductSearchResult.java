@@ -0,0 +1,102 @@
+package com.hrishikesh.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Response of GET /api/products/search: the top hits, how many products matched in total, and facet
+// counts (facet name -> bucket -> products). A facet's counts ignore that facet's own filter, so the
+// UI can show how many products each other bucket would give.
+public class ProductSearchResult {
+
+    private final String query;
+    private final long total;
+    private final List<Hit> hits;
+    private final Map<String, Map<String, Long>> facets;
+    private final long tookMicros;
+
+    public ProductSearchResult(String query, long total, List<Hit> hits, Map<String, Map<String, Long>> facets,
+                               long tookMicros) {
+        this.query = query;
+        this.total = total;
+        this.hits = hits;
+        this.facets = facets;
+        this.tookMicros = tookMicros;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    public long getTookMicros() {
+        return tookMicros;
+    }
+
+    public static class Hit {
+
+        private final Long id;
+        private final String name;
+        private final String sku;
+        private final String description;
+        private final BigDecimal unitPrice;
+        private final Integer currentStock;
+        private final Integer lowStockThreshold;
+        private final double score;
+
+        public Hit(Long id, String name, String sku, String description, BigDecimal unitPrice,
+                   Integer currentStock, Integer lowStockThreshold, double score) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.description = description;
+            this.unitPrice = unitPrice;
+            this.currentStock = currentStock;
+            this.lowStockThreshold = lowStockThreshold;
+            this.score = score;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+
+        public Integer getCurrentStock() {
+            return currentStock;
+        }
+
+        public Integer getLowStockThreshold() {
+            return lowStockThreshold;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.hrishikesh.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Outcome of a replenishment run: one draft per vendor (orderId is null on a dry run or when creating
+// it failed, see errors) and the short products that have no vendor to order from
+public class ReplenishmentReport {
+
+    private final boolean dryRun;
+    private final int partitions;
+    private final long candidates;
+    private final long shortfalls;
+    private final long elapsedMs;
+    private final List<DraftOrder> orders;
+    private final List<Long> unassignedProductIds;
+    private final List<String> errors;
+
+    public ReplenishmentReport(boolean dryRun, int partitions, long candidates, long shortfalls, long elapsedMs,
+                               List<DraftOrder> orders, List<Long> unassignedProductIds, List<String> errors) {
+        this.dryRun = dryRun;
+        this.partitions = partitions;
+        this.candidates = candidates;
+        this.shortfalls = shortfalls;
+        this.elapsedMs = elapsedMs;
+        this.orders = orders;
+        this.unassignedProductIds = unassignedProductIds;
+        this.errors = errors;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public long getCandidates() {
+        return candidates;
+    }
+
+    public long getShortfalls() {
+        return shortfalls;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public List<DraftOrder> getOrders() {
+        return orders;
+    }
+
+    public List<Long> getUnassignedProductIds() {
+        return unassignedProductIds;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public static class DraftOrder {
+
+        private final Long vendorId;
+        private final String vendorName;
+        private final Long orderId;
+        private final BigDecimal totalAmount;
+        private final List<Line> lines;
+
+        public DraftOrder(Long vendorId, String vendorName, Long orderId, BigDecimal totalAmount, List<Line> lines) {
+            this.vendorId = vendorId;
+            this.vendorName = vendorName;
+            this.orderId = orderId;
+            this.totalAmount = totalAmount;
+            this.lines = lines;
+        }
+
+        public Long getVendorId() {
+            return vendorId;
+        }
+
+        public String getVendorName() {
+            return vendorName;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public BigDecimal getTotalAmount() {
+            return totalAmount;
+        }
+
+        public List<Line> getLines() {
+            return lines;
+        }
+    }
+
+    public static class Line {
+
+        private final Long productId;
+        private final String sku;
+        private final int currentStock;
+        private final long onOrder;
+        private final int reorderPoint;
+        private final int maxStockLevel;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+
+        public Line(Long productId, String sku, int currentStock, long onOrder, int reorderPoint, int maxStockLevel,
+                    int quantity, BigDecimal unitPrice) {
+            this.productId = productId;
+            this.sku = sku;
+            this.currentStock = currentStock;
+            this.onOrder = onOrder;
+            this.reorderPoint = reorderPoint;
+            this.maxStockLevel = maxStockLevel;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public int getCurrentStock() {
+            return currentStock;
+        }
+
+        public long getOnOrder() {
+            return onOrder;
+        }
+
+        public int getReorderPoint() {
+            return reorderPoint;
+        }
+
+        public int getMaxStockLevel() {
+            return maxStockLevel;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hrishikesh.inventory.dto;
+
+import java.util.Map;
+
+// How much of what was ordered from a vendor has arrived. Quantities cover APPROVED and RECEIVED orders
+// only (pending orders were never sent, cancelled ones won't arrive); fillRate is null when nothing counts.
+public class VendorFillRate {
+
+    private final Long vendorId;
+    private final String vendorName;
+    private final Map<String, Long> ordersByStatus;
+    private final long orderedQuantity;
+    private final long receivedQuantity;
+    private final Double fillRate;
+
+    public VendorFillRate(Long vendorId, String vendorName, Map<String, Long> ordersByStatus,
+                          long orderedQuantity, long receivedQuantity) {
+        this.vendorId = vendorId;
+        this.vendorName = vendorName;
+        this.ordersByStatus = ordersByStatus;
+        this.orderedQuantity = orderedQuantity;
+        this.receivedQuantity = receivedQuantity;
+        this.fillRate = orderedQuantity > 0 ? (double) receivedQuantity / orderedQuantity : null;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    public Map<String, Long> getOrdersByStatus() {
+        return ordersByStatus;
+    }
+
+    public long getOrderedQuantity() {
+        return orderedQuantity;
+    }
+
+    public long getReceivedQuantity() {
+        return receivedQuantity;
+    }
+
+    public Double getFillRate() {
+        return fillRate;
+    }
+}
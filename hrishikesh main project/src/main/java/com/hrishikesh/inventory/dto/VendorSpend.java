@@ -0,0 +1,54 @@
+package com.hrishikesh.inventory.dto;
+
+import java.math.BigDecimal;
+
+// One vendor's orders (cancelled excluded) and completed payments in one calendar month ("2026-03")
+public class VendorSpend {
+
+    private final Long vendorId;
+    private final String vendorName;
+    private final String month;
+    private final long orderCount;
+    private final BigDecimal orderedAmount;
+    private final long paymentCount;
+    private final BigDecimal paidAmount;
+
+    public VendorSpend(Long vendorId, String vendorName, String month, long orderCount, BigDecimal orderedAmount,
+                       long paymentCount, BigDecimal paidAmount) {
+        this.vendorId = vendorId;
+        this.vendorName = vendorName;
+        this.month = month;
+        this.orderCount = orderCount;
+        this.orderedAmount = orderedAmount;
+        this.paymentCount = paymentCount;
+        this.paidAmount = paidAmount;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getOrderedAmount() {
+        return orderedAmount;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public BigDecimal getPaidAmount() {
+        return paidAmount;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hrishikesh.inventory.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// A delivery note received against a purchase order in one call. The reference is unique, so the
+// same note sent twice (client retry, duplicate scan) is recognised instead of received again.
+// The per-line detail lives in the stock ledger (RECEIPT movements noted with the reference).
+@Entity
+@Immutable
+@EntityListeners(AuditingEntityListener.class)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_goods_delivery_reference", columnNames = "delivery_reference"))
+public class GoodsDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "goods_delivery_id")
+    @TableGenerator(name = "goods_delivery_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "goods_delivery",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "delivery_reference", nullable = false, length = 100)
+    private String deliveryReference;
+
+    // Plain id like StockMovement: recording a delivery never needs the order entity graph
+    @Column(name = "purchase_order_id", nullable = false)
+    private Long purchaseOrderId;
+
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Integer totalQuantity;
+
+    @CreatedDate
+    @Column(name = "received_at", updatable = false)
+    private LocalDateTime receivedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDeliveryReference() {
+        return deliveryReference;
+    }
+
+    public void setDeliveryReference(String deliveryReference) {
+        this.deliveryReference = deliveryReference;
+    }
+
+    public Long getPurchaseOrderId() {
+        return purchaseOrderId;
+    }
+
+    public void setPurchaseOrderId(Long purchaseOrderId) {
+        this.purchaseOrderId = purchaseOrderId;
+    }
+
+    public Integer getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(Integer lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public Integer getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(Integer totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+}
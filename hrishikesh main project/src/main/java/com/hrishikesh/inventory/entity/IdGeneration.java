@@ -0,0 +1,17 @@
+package com.hrishikesh.inventory.entity;
+
+// Shared settings for the @TableGenerator on every entity id.
+// MySQL has no sequences, so ids come from one row per table in id_generator (db/migration V3).
+// Hibernate reserves ALLOCATION_SIZE ids per round trip (pooled-lo: next_val is the first unreserved id)
+// and, because the id is known before the INSERT, can send inserts as JDBC batches.
+// JDBC bulk inserts reserve their ids from the same rows through IdBlockAllocator.
+public final class IdGeneration {
+
+    public static final String TABLE = "id_generator";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGeneration() {
+    }
+}
@@ -6,10 +6,14 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = @Index(name = "idx_order_item_order_product", columnList = "purchase_order_id, product_id"))
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id")
+    @TableGenerator(name = "order_item_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "order_item",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
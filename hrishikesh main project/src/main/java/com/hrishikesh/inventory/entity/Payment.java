@@ -11,10 +11,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "idx_payment_order_status", columnList = "purchase_order_id, status"),
+        @Index(name = "idx_payment_status", columnList = "status"),
+        @Index(name = "idx_payment_date", columnList = "payment_date"),
+        @Index(name = "idx_payment_transaction_reference", columnList = "transaction_reference")
+})
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_id")
+    @TableGenerator(name = "payment_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "payment",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -27,20 +36,29 @@ public class Payment {
     private BigDecimal amount;
 
     @CreatedDate
-    @Column(updatable = false)
+    @Column(name = "payment_date", updatable = false)
     private LocalDateTime paymentDate;
 
     @Enumerated(EnumType.STRING)
     @NotNull(message = "Payment method is required")
+    @Column(length = 32)
     private PaymentMethod paymentMethod;
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 32)
     private PaymentStatus status = PaymentStatus.COMPLETED;
 
+    // Idempotency key for /api/payments/ingest (required there, optional for manual payments)
+    @Column(name = "transaction_reference")
     private String transactionReference;
 
     private String notes;
 
+    // Guards status changes, which move the order's running totals
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     public enum PaymentMethod {
         CASH,
         BANK_TRANSFER,
@@ -122,4 +140,12 @@ public class Payment {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,5 +1,6 @@
 package com.hrishikesh.inventory.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -11,10 +12,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+// Order lines reference products by proxy (PurchaseOrderService.createOrder); skip the proxy's internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "product",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -32,9 +38,25 @@ public class Product {
     @Min(value = 0, message = "Stock cannot be negative")
     private Integer currentStock;
 
+    // Null means "use inventory.low-stock.default-threshold"
+    @Min(value = 0, message = "Low stock threshold cannot be negative")
+    private Integer lowStockThreshold;
+
+    // Replenishment tops stock up to this level (null: twice the reorder point, see ReplenishmentService)
+    @Min(value = 0, message = "Max stock level cannot be negative")
+    private Integer maxStockLevel;
+
+    // Vendor replenishment orders go to; null means the vendor the product was last ordered from
+    private Long preferredVendorId;
+
     @LastModifiedDate
     private LocalDateTime lastUpdated;
 
+    // Optimistic lock; stock increments done in SQL bump it as well
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -83,6 +105,30 @@ public class Product {
         this.currentStock = currentStock;
     }
 
+    public Integer getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Integer getMaxStockLevel() {
+        return maxStockLevel;
+    }
+
+    public void setMaxStockLevel(Integer maxStockLevel) {
+        this.maxStockLevel = maxStockLevel;
+    }
+
+    public Long getPreferredVendorId() {
+        return preferredVendorId;
+    }
+
+    public void setPreferredVendorId(Long preferredVendorId) {
+        this.preferredVendorId = preferredVendorId;
+    }
+
     public LocalDateTime getLastUpdated() {
         return lastUpdated;
     }
@@ -90,4 +136,12 @@ public class Product {
     public void setLastUpdated(LocalDateTime lastUpdated) {
         this.lastUpdated = lastUpdated;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
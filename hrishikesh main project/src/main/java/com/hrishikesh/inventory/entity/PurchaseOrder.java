@@ -11,10 +11,19 @@ import java.util.List;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+// Mirrors db/migration/V2__query_pattern_indexes.sql (migrations own the schema; ddl-auto is off)
+@Table(indexes = {
+        @Index(name = "idx_purchase_order_status", columnList = "status"),
+        @Index(name = "idx_purchase_order_vendor_status", columnList = "vendor_id, status"),
+        @Index(name = "idx_purchase_order_date", columnList = "order_date")
+})
 public class PurchaseOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "purchase_order_id")
+    @TableGenerator(name = "purchase_order_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "purchase_order",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -22,14 +31,25 @@ public class PurchaseOrder {
     private Vendor vendor;
 
     @CreatedDate
-    @Column(updatable = false)
+    @Column(name = "order_date", updatable = false)
     private LocalDateTime orderDate;
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 32)
     private OrderStatus status = OrderStatus.PENDING;
 
     private BigDecimal totalAmount;
 
+    // Running totals of COMPLETED payments, maintained by PaymentService (null on legacy rows until first use)
+    private BigDecimal paidAmount;
+
+    private BigDecimal outstandingAmount;
+
+    // Optimistic lock: guards status transitions and receipts against concurrent requests
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "purchaseOrder", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -80,6 +100,30 @@ public class PurchaseOrder {
         this.totalAmount = totalAmount;
     }
 
+    public BigDecimal getPaidAmount() {
+        return paidAmount;
+    }
+
+    public void setPaidAmount(BigDecimal paidAmount) {
+        this.paidAmount = paidAmount;
+    }
+
+    public BigDecimal getOutstandingAmount() {
+        return outstandingAmount;
+    }
+
+    public void setOutstandingAmount(BigDecimal outstandingAmount) {
+        this.outstandingAmount = outstandingAmount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -0,0 +1,141 @@
+package com.hrishikesh.inventory.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// Append-only stock ledger. Rows are never updated; corrections are new REVERSAL/ADJUSTMENT rows.
+@Entity
+@Immutable
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = @Index(name = "idx_stock_movement_product_created", columnList = "product_id, created_at"))
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_movement_id")
+    @TableGenerator(name = "stock_movement_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "stock_movement",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
+    private Long id;
+
+    // Plain id instead of @ManyToOne: appending a movement never needs to load the product
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MovementType type;
+
+    // Signed: positive adds stock, negative removes it
+    @Column(nullable = false)
+    private Integer quantity;
+
+    private Long purchaseOrderId;
+
+    private Long orderItemId;
+
+    // Set on REVERSAL rows: the movement being cancelled out (unique: a movement is reversed at most once)
+    @Column(unique = true)
+    private Long reversedMovementId;
+
+    // Set on opening-balance rows to the product id (unique: a product gets at most one opening balance)
+    @JsonIgnore
+    @Column(unique = true)
+    private Long openingBalanceOf;
+
+    private String note;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum MovementType {
+        RECEIPT,
+        ADJUSTMENT,
+        REVERSAL
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public MovementType getType() {
+        return type;
+    }
+
+    public void setType(MovementType type) {
+        this.type = type;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getPurchaseOrderId() {
+        return purchaseOrderId;
+    }
+
+    public void setPurchaseOrderId(Long purchaseOrderId) {
+        this.purchaseOrderId = purchaseOrderId;
+    }
+
+    public Long getOrderItemId() {
+        return orderItemId;
+    }
+
+    public void setOrderItemId(Long orderItemId) {
+        this.orderItemId = orderItemId;
+    }
+
+    public Long getReversedMovementId() {
+        return reversedMovementId;
+    }
+
+    public void setReversedMovementId(Long reversedMovementId) {
+        this.reversedMovementId = reversedMovementId;
+    }
+
+    public Long getOpeningBalanceOf() {
+        return openingBalanceOf;
+    }
+
+    public void setOpeningBalanceOf(Long openingBalanceOf) {
+        this.openingBalanceOf = openingBalanceOf;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
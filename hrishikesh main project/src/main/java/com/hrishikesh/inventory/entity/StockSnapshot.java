@@ -0,0 +1,62 @@
+package com.hrishikesh.inventory.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Stock level of one product at a point in time, including every movement created up to asOf.
+// Stock at time T = latest snapshot with asOf <= T + movements in (asOf, T].
+@Entity
+@Immutable
+@Table(indexes = @Index(name = "idx_stock_snapshot_product_as_of", columnList = "product_id, as_of"))
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_snapshot_id")
+    @TableGenerator(name = "stock_snapshot_id", table = IdGeneration.TABLE, pkColumnName = IdGeneration.SEGMENT_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "stock_snapshot",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hrishikesh.inventory.exception;
+
+import com.hrishikesh.inventory.dto.PaymentIngestionStatus;
+
+// A replayed transaction reference; answered with 409 and the status of the original submission
+public class DuplicatePaymentException extends RuntimeException {
+
+    private final PaymentIngestionStatus original;
+
+    public DuplicatePaymentException(PaymentIngestionStatus original) {
+        super("Transaction reference " + original.getTransactionReference() + " was already submitted");
+        this.original = original;
+    }
+
+    public PaymentIngestionStatus getOriginal() {
+        return original;
+    }
+}
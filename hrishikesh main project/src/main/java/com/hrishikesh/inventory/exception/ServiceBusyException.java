@@ -0,0 +1,16 @@
+package com.hrishikesh.inventory.exception;
+
+// Work that could not be accepted right now (e.g. a full ingestion queue); answered with 503 + Retry-After
+public class ServiceBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
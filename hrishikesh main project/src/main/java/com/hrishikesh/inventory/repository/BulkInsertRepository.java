@@ -0,0 +1,69 @@
+package com.hrishikesh.inventory.repository;
+
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.StockMovement;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Multi-row inserts for bulk import through JdbcTemplate.batchUpdate, skipping the persistence context
+// entirely (one round trip per batch; rewriteBatchedStatements=true in the MySQL URL has the driver send
+// each batch as a single multi-row INSERT). Ids are reserved up front from the entity id generator rows,
+// and audit columns and @Version are not handled by JPA here, so all of them are set explicitly.
+@Repository
+public class BulkInsertRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+
+    // Assigns the new ids to the given products
+    public void insertProducts(List<Product> products) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long id = idBlockAllocator.allocate("product", products.size());
+        List<Object[]> rows = new ArrayList<>(products.size());
+        for (Product p : products) {
+            p.setId(id++);
+            rows.add(new Object[]{p.getId(), p.getName(), p.getSku(), p.getDescription(), p.getUnitPrice(),
+                    p.getCurrentStock(), p.getLowStockThreshold(), p.getMaxStockLevel(), p.getPreferredVendorId(), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, name, sku, description, unit_price, current_stock, "
+                + "low_stock_threshold, max_stock_level, preferred_vendor_id, last_updated, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", rows);
+    }
+
+    // Assigns the new ids to the given vendors
+    public void insertVendors(List<Vendor> vendors) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long id = idBlockAllocator.allocate("vendor", vendors.size());
+        List<Object[]> rows = new ArrayList<>(vendors.size());
+        for (Vendor v : vendors) {
+            v.setId(id++);
+            rows.add(new Object[]{v.getId(), v.getName(), v.getContactNumber(), v.getEmail(), v.getAddress(), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO vendor (id, name, contact_number, email, address, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // ADJUSTMENT rows marked as the products' opening balances
+    public void insertOpeningBalances(Map<Long, Integer> stockByProductId, String note) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long id = idBlockAllocator.allocate("stock_movement", stockByProductId.size());
+        List<Object[]> rows = new ArrayList<>(stockByProductId.size());
+        for (Map.Entry<Long, Integer> entry : stockByProductId.entrySet()) {
+            rows.add(new Object[]{id++, entry.getKey(), StockMovement.MovementType.ADJUSTMENT.name(), entry.getValue(),
+                    note, entry.getKey(), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movement (id, product_id, type, quantity, note, "
+                + "opening_balance_of, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
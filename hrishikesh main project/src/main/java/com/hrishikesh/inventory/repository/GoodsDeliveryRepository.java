@@ -0,0 +1,13 @@
+package com.hrishikesh.inventory.repository;
+
+import com.hrishikesh.inventory.entity.GoodsDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GoodsDeliveryRepository extends JpaRepository<GoodsDelivery, Long> {
+
+    Optional<GoodsDelivery> findByDeliveryReference(String deliveryReference);
+}
@@ -0,0 +1,41 @@
+package com.hrishikesh.inventory.repository;
+
+import com.hrishikesh.inventory.entity.IdGeneration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Reserves a contiguous id range from the entity id generator rows for inserts that bypass Hibernate
+// (BulkInsertRepository). Same protocol as Hibernate's pooled-lo table generator: lock the row, hand out
+// [next_val, next_val + count) and move next_val past it.
+// Runs in its own short transaction so the row lock is not held while the caller's chunk is written.
+@Repository
+public class IdBlockAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public IdBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // First id of the reserved block; the caller owns ids first .. first + count - 1
+    public long allocate(String segment, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        Long first = newTransaction.execute(status -> {
+            Long next = jdbcTemplate.queryForObject("SELECT " + IdGeneration.VALUE_COLUMN + " FROM "
+                            + IdGeneration.TABLE + " WHERE " + IdGeneration.SEGMENT_COLUMN + " = ? FOR UPDATE",
+                    Long.class, segment);
+            jdbcTemplate.update("UPDATE " + IdGeneration.TABLE + " SET " + IdGeneration.VALUE_COLUMN + " = ? WHERE "
+                    + IdGeneration.SEGMENT_COLUMN + " = ?", next + count, segment);
+            return next;
+        });
+        return first;
+    }
+}
@@ -0,0 +1,182 @@
+package com.hrishikesh.inventory.repository;
+
+import com.hrishikesh.inventory.dto.OrderSummary;
+import com.hrishikesh.inventory.dto.PaymentSummary;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keyset pages for the /api/*/page listings. The sort column is chosen per request (SortKey), so the
+// JPQL is assembled here rather than declared with @Query; only the filters that were given are added.
+// Rows after the cursor are found with "(sort > :value OR (sort = :value AND id > :id))", which
+// costs the same on deep pages as on the first one, unlike OFFSET.
+@Repository
+public class KeysetPageRepository {
+
+    // LIKE patterns come from CursorPaging.likePattern, which escapes % and _ with a backslash
+    private static final String LIKE_ESCAPE = " ESCAPE '\\'";
+
+    // Stands in for a NULL order/payment date in the date sort keys, in the query and in the cursor alike;
+    // rows without a date sort before every dated row
+    private static final LocalDateTime NO_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String NO_DATE_LITERAL = "{ts '1970-01-01 00:00:00'}";
+
+    public static final Map<String, SortKey<Product>> PRODUCT_SORTS = sorts(
+            SortKey.of("name", "p.name", text -> text, Product::getName),
+            SortKey.of("sku", "p.sku", text -> text, Product::getSku),
+            SortKey.of("currentStock", "COALESCE(p.currentStock, 0)", Integer::valueOf,
+                    p -> p.getCurrentStock() != null ? p.getCurrentStock() : 0),
+            SortKey.of("unitPrice", "COALESCE(p.unitPrice, 0)", BigDecimal::new,
+                    p -> p.getUnitPrice() != null ? p.getUnitPrice() : BigDecimal.ZERO));
+
+    public static final Map<String, SortKey<Vendor>> VENDOR_SORTS = sorts(
+            SortKey.of("name", "v.name", text -> text, Vendor::getName));
+
+    public static final Map<String, SortKey<OrderSummary>> ORDER_SORTS = sorts(
+            SortKey.of("orderDate", "COALESCE(o.orderDate, " + NO_DATE_LITERAL + ")", LocalDateTime::parse,
+                    o -> o.getOrderDate() != null ? o.getOrderDate() : NO_DATE),
+            SortKey.of("totalAmount", "COALESCE(o.totalAmount, 0)", BigDecimal::new,
+                    o -> o.getTotalAmount() != null ? o.getTotalAmount() : BigDecimal.ZERO));
+
+    public static final Map<String, SortKey<PaymentSummary>> PAYMENT_SORTS = sorts(
+            SortKey.of("paymentDate", "COALESCE(p.paymentDate, " + NO_DATE_LITERAL + ")", LocalDateTime::parse,
+                    p -> p.getPaymentDate() != null ? p.getPaymentDate() : NO_DATE),
+            SortKey.of("amount", "p.amount", BigDecimal::new, PaymentSummary::getAmount));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<Product> findProducts(String search, Integer minStock, Integer maxStock,
+                                      SortKey<Product> sort, Keyset after, boolean descending, Pageable pageable) {
+        Filters filters = new Filters();
+        if (search != null) {
+            filters.add("(LOWER(p.name) LIKE :search" + LIKE_ESCAPE + " OR LOWER(p.sku) LIKE :search" + LIKE_ESCAPE + ")",
+                    "search", search);
+        }
+        if (minStock != null) {
+            filters.add("p.currentStock >= :minStock", "minStock", minStock);
+        }
+        if (maxStock != null) {
+            filters.add("p.currentStock <= :maxStock", "maxStock", maxStock);
+        }
+        return page("SELECT p FROM Product p", "p.id", filters, sort, after, descending, pageable, Product.class);
+    }
+
+    public List<Vendor> findVendors(String name, SortKey<Vendor> sort, Keyset after, boolean descending,
+                                    Pageable pageable) {
+        Filters filters = new Filters();
+        if (name != null) {
+            filters.add("LOWER(v.name) LIKE :name" + LIKE_ESCAPE, "name", name);
+        }
+        return page("SELECT v FROM Vendor v", "v.id", filters, sort, after, descending, pageable, Vendor.class);
+    }
+
+    public List<OrderSummary> findOrders(PurchaseOrder.OrderStatus status, Long vendorId,
+                                         LocalDateTime from, LocalDateTime to,
+                                         SortKey<OrderSummary> sort, Keyset after, boolean descending,
+                                         Pageable pageable) {
+        Filters filters = new Filters();
+        if (status != null) {
+            filters.add("o.status = :status", "status", status);
+        }
+        if (vendorId != null) {
+            filters.add("v.id = :vendorId", "vendorId", vendorId);
+        }
+        if (from != null) {
+            filters.add("o.orderDate >= :from", "from", from);
+        }
+        if (to != null) {
+            filters.add("o.orderDate < :to", "to", to);
+        }
+        return page("SELECT new com.hrishikesh.inventory.dto.OrderSummary(o.id, v.id, v.name, o.orderDate, " +
+                        "o.status, o.totalAmount) FROM PurchaseOrder o JOIN o.vendor v",
+                "o.id", filters, sort, after, descending, pageable, OrderSummary.class);
+    }
+
+    public List<PaymentSummary> findPayments(Long orderId, Payment.PaymentStatus status, Payment.PaymentMethod method,
+                                             SortKey<PaymentSummary> sort, Keyset after, boolean descending,
+                                             Pageable pageable) {
+        Filters filters = new Filters();
+        if (orderId != null) {
+            filters.add("o.id = :orderId", "orderId", orderId);
+        }
+        if (status != null) {
+            filters.add("p.status = :status", "status", status);
+        }
+        if (method != null) {
+            filters.add("p.paymentMethod = :method", "method", method);
+        }
+        return page("SELECT new com.hrishikesh.inventory.dto.PaymentSummary(p.id, o.id, v.name, p.amount, " +
+                        "p.paymentDate, p.paymentMethod, p.status, p.transactionReference) " +
+                        "FROM Payment p JOIN p.purchaseOrder o JOIN o.vendor v",
+                "p.id", filters, sort, after, descending, pageable, PaymentSummary.class);
+    }
+
+    private <T> List<T> page(String select, String idPath, Filters filters, SortKey<T> sort, Keyset after,
+                             boolean descending, Pageable pageable, Class<T> type) {
+        String comparison = descending ? " < " : " > ";
+        String direction = descending ? " DESC" : " ASC";
+        if (after != null) {
+            if (sort.isId()) {
+                filters.add(idPath + comparison + ":afterId", "afterId", after.id());
+            } else {
+                filters.add("(" + sort.getPath() + comparison + ":afterValue OR (" + sort.getPath()
+                        + " = :afterValue AND " + idPath + comparison + ":afterId))", "afterValue", after.value());
+                filters.parameters.put("afterId", after.id());
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder(select);
+        for (int i = 0; i < filters.conditions.size(); i++) {
+            jpql.append(i == 0 ? " WHERE " : " AND ").append(filters.conditions.get(i));
+        }
+        jpql.append(" ORDER BY ");
+        if (!sort.isId()) {
+            jpql.append(sort.getPath()).append(direction).append(", ");
+        }
+        jpql.append(idPath).append(direction);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        filters.parameters.forEach(query::setParameter);
+        return query.setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    @SafeVarargs
+    private static <T> Map<String, SortKey<T>> sorts(SortKey<T>... keys) {
+        Map<String, SortKey<T>> sorts = new LinkedHashMap<>();
+        SortKey<T> id = SortKey.id();
+        sorts.put(id.getName(), id);
+        for (SortKey<T> key : keys) {
+            sorts.put(key.getName(), key);
+        }
+        return sorts;
+    }
+
+    // Position of the last row of the previous page; value is null when sorting by id
+    public record Keyset(Object value, long id) {
+    }
+
+    private static final class Filters {
+
+        private final List<String> conditions = new ArrayList<>();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+        private void add(String condition, String parameter, Object value) {
+            conditions.add(condition);
+            parameters.put(parameter, value);
+        }
+    }
+}
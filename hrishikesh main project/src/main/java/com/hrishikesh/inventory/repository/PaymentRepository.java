@@ -1,15 +1,70 @@
 package com.hrishikesh.inventory.repository;
 
+import com.hrishikesh.inventory.dto.PaymentSummary;
 import com.hrishikesh.inventory.entity.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
+    // Payments serialize their order (vendor + items), so fetch that graph up front
+    @EntityGraph(attributePaths = {"purchaseOrder", "purchaseOrder.vendor", "purchaseOrder.items",
+            "purchaseOrder.items.product"})
     List<Payment> findByPurchaseOrderId(Long purchaseOrderId);
 
     List<Payment> findByStatus(Payment.PaymentStatus status);
+
+    // Payment ingestion: replay check for a whole micro-batch in one query, and status lookups
+    @Query("SELECT p.transactionReference FROM Payment p WHERE p.transactionReference IN :references")
+    List<String> findExistingTransactionReferences(@Param("references") Collection<String> references);
+
+    Optional<Payment> findFirstByTransactionReference(String transactionReference);
+
+    // Database-side totals (fallback / reconciliation for PurchaseOrder.paidAmount)
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.purchaseOrder.id = :orderId AND p.status = :status")
+    BigDecimal sumAmountByOrder(@Param("orderId") Long orderId, @Param("status") Payment.PaymentStatus status);
+
+    @Query("SELECT p.purchaseOrder.id, SUM(p.amount) FROM Payment p " +
+            "WHERE p.status = :status AND p.purchaseOrder.id IN :orderIds GROUP BY p.purchaseOrder.id")
+    List<Object[]> sumAmountByOrders(@Param("status") Payment.PaymentStatus status,
+                                     @Param("orderIds") Collection<Long> orderIds);
+
+    @EntityGraph(attributePaths = {"purchaseOrder", "purchaseOrder.vendor", "purchaseOrder.items",
+            "purchaseOrder.items.product"})
+    @Query("SELECT p FROM Payment p")
+    List<Payment> findAllWithDetails();
+
+    // Export: see PurchaseOrderRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.hrishikesh.inventory.dto.PaymentSummary(p.id, o.id, v.name, p.amount, p.paymentDate, " +
+            "p.paymentMethod, p.status, p.transactionReference) " +
+            "FROM Payment p JOIN p.purchaseOrder o JOIN o.vendor v " +
+            "WHERE (:orderId IS NULL OR o.id = :orderId) " +
+            "AND (:status IS NULL OR p.status = :status) " +
+            "AND (:method IS NULL OR p.paymentMethod = :method) " +
+            "AND (:from IS NULL OR p.paymentDate >= :from) " +
+            "AND (:to IS NULL OR p.paymentDate < :to) " +
+            "ORDER BY p.id ASC")
+    Stream<PaymentSummary> streamForExport(@Param("orderId") Long orderId,
+                                           @Param("status") Payment.PaymentStatus status,
+                                           @Param("method") Payment.PaymentMethod method,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
 }
@@ -1,12 +1,49 @@
 package com.hrishikesh.inventory.repository;
 
 import com.hrishikesh.inventory.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySku(String sku);
+
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // Bulk import: one set query per chunk instead of a findBySku per row
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    // Product search index refresh: only the indexed columns, in id order, a page at a time
+    @Query("SELECT p.id, p.name, p.sku, p.description, p.unitPrice, p.currentStock, p.lowStockThreshold " +
+            "FROM Product p WHERE p.id > :cursor ORDER BY p.id ASC")
+    List<Object[]> findSearchRowsAfter(@Param("cursor") long cursor, Pageable pageable);
+
+    // Stock column store refresh: id, stock, threshold and price only, in id order, a page at a time
+    @Query("SELECT p.id, p.currentStock, p.lowStockThreshold, p.unitPrice " +
+            "FROM Product p WHERE p.id > :cursor ORDER BY p.id ASC")
+    List<Object[]> findStockColumnsAfter(@Param("cursor") long cursor, Pageable pageable);
+
+    @Query("SELECT MIN(p.id), MAX(p.id) FROM Product p")
+    List<Object[]> findIdRange();
+
+    // Replenishment scan of one id range. A product with at least its reorder point on hand can't be short
+    // whatever is on order, so only the rest are read.
+    @Query("SELECT p.id, p.sku, p.currentStock, p.lowStockThreshold, p.maxStockLevel, p.preferredVendorId, " +
+            "p.unitPrice FROM Product p WHERE p.id >= :fromId AND p.id < :toId " +
+            "AND COALESCE(p.currentStock, 0) < COALESCE(p.lowStockThreshold, :defaultThreshold)")
+    List<Object[]> findReplenishmentCandidates(@Param("fromId") long fromId, @Param("toId") long toId,
+                                               @Param("defaultThreshold") int defaultThreshold);
+
+    // NULL stock counts as 0, as in DashboardStatsCache.isLowStock, the replenishment scan and StockColumns
+    @Query("SELECT COUNT(p) FROM Product p " +
+            "WHERE COALESCE(p.currentStock, 0) < COALESCE(p.lowStockThreshold, :defaultThreshold)")
+    long countLowStock(@Param("defaultThreshold") int defaultThreshold);
 }
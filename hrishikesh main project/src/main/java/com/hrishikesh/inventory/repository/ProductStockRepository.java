@@ -0,0 +1,99 @@
+package com.hrishikesh.inventory.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Set-based stock updates. Runs on the same connection/transaction as JPA, but bypasses the
+// entity read-modify-write cycle so receiving N products is one statement instead of 2N.
+@Repository
+public class ProductStockRepository {
+
+    // Keeps the statement (2 params per product + ids) well under driver parameter limits
+    private static final int MAX_PRODUCTS_PER_STATEMENT = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void incrementStock(Map<Long, Integer> quantityByProductId) {
+        if (quantityByProductId.isEmpty()) {
+            return;
+        }
+        // Sorted ids => every transaction locks product rows in the same order (no deadlocks)
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(new TreeMap<>(quantityByProductId).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < entries.size(); from += MAX_PRODUCTS_PER_STATEMENT) {
+            List<Map.Entry<Long, Integer>> chunk =
+                    entries.subList(from, Math.min(from + MAX_PRODUCTS_PER_STATEMENT, entries.size()));
+            jdbcTemplate.update(buildIncrementSql(chunk.size()), buildIncrementArgs(chunk, now));
+        }
+    }
+
+    // current_stock after incrementStock, read back in the same transaction: the rows stay locked by the
+    // UPDATE until commit, so these are the values this transaction committed, not a stale entity copy
+    public Map<Long, Integer> findStock(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Map<Long, Integer> stockById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_PRODUCTS_PER_STATEMENT) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_PRODUCTS_PER_STATEMENT, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, COALESCE(current_stock, 0) FROM product WHERE id IN (" + placeholders + ")",
+                    rs -> {
+                        stockById.put(rs.getLong(1), rs.getInt(2));
+                    }, chunk.toArray());
+        }
+        return stockById;
+    }
+
+    // Row lock held until commit; false when the product doesn't exist
+    public boolean lockProduct(Long productId) {
+        return !jdbcTemplate.queryForList("SELECT id FROM product WHERE id = ? FOR UPDATE", Long.class, productId)
+                .isEmpty();
+    }
+
+    // Used when rebuilding the projection from the ledger
+    public void setStock(Long productId, int stock) {
+        jdbcTemplate.update("UPDATE product SET current_stock = ?, version = COALESCE(version, 0) + 1, "
+                + "last_updated = ? WHERE id = ?", stock, Timestamp.valueOf(LocalDateTime.now()), productId);
+    }
+
+    // UPDATE product SET current_stock = COALESCE(current_stock, 0) + CASE id WHEN ? THEN ? ... END,
+    // version = version + 1, ... WHERE id IN (?, ...)
+    private String buildIncrementSql(int products) {
+        StringBuilder sql = new StringBuilder("UPDATE product SET current_stock = COALESCE(current_stock, 0) + CASE id");
+        for (int i = 0; i < products; i++) {
+            sql.append(" WHEN ? THEN ?");
+        }
+        // Bump the optimistic version too, so a stale entity save can't overwrite this increment
+        sql.append(" ELSE 0 END, version = COALESCE(version, 0) + 1, last_updated = ? WHERE id IN (");
+        for (int i = 0; i < products; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
+    }
+
+    private Object[] buildIncrementArgs(List<Map.Entry<Long, Integer>> chunk, Timestamp now) {
+        Object[] args = new Object[chunk.size() * 3 + 1];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : chunk) {
+            args[i++] = entry.getKey();
+            args[i++] = entry.getValue();
+        }
+        args[i++] = now;
+        for (Map.Entry<Long, Integer> entry : chunk) {
+            args[i++] = entry.getKey();
+        }
+        return args;
+    }
+}
@@ -1,9 +1,93 @@
 package com.hrishikesh.inventory.repository;
 
+import com.hrishikesh.inventory.dto.OrderExportRow;
 import com.hrishikesh.inventory.entity.PurchaseOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
+
+    long countByStatus(PurchaseOrder.OrderStatus status);
+
+    // Books a (possibly negative) payment amount in one statement. The WHERE clause rejects overpayment
+    // atomically, so concurrent payments for the same order can't both pass a stale balance check.
+    @Modifying
+    @Query("UPDATE PurchaseOrder o SET o.paidAmount = o.paidAmount + :amount, " +
+            "o.outstandingAmount = o.outstandingAmount - :amount, o.version = COALESCE(o.version, 0) + 1 " +
+            "WHERE o.id = :orderId AND o.outstandingAmount >= :amount")
+    int applyPayment(@Param("orderId") Long orderId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE PurchaseOrder o SET o.paidAmount = :paid, " +
+            "o.outstandingAmount = COALESCE(o.totalAmount, 0) - :paid, o.version = COALESCE(o.version, 0) + 1 " +
+            "WHERE o.id = :orderId AND (o.paidAmount IS NULL OR o.outstandingAmount IS NULL)")
+    int initializeRunningTotals(@Param("orderId") Long orderId, @Param("paid") BigDecimal paid);
+
+    // [id, totalAmount, paidAmount, outstandingAmount, version]
+    @Query("SELECT o.id, o.totalAmount, o.paidAmount, o.outstandingAmount, o.version FROM PurchaseOrder o " +
+            "WHERE o.id > :cursor ORDER BY o.id ASC")
+    List<Object[]> findRunningTotalsPage(@Param("cursor") long cursor, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PurchaseOrder o SET o.paidAmount = :paid, o.outstandingAmount = :outstanding, " +
+            "o.version = o.version + 1 WHERE o.id = :orderId AND o.version = :version")
+    int correctRunningTotals(@Param("orderId") Long orderId, @Param("version") Long version,
+                             @Param("paid") BigDecimal paid, @Param("outstanding") BigDecimal outstanding);
+
+    // Whole order graph (vendor, items, item products) in one statement instead of one query per row
+    @EntityGraph(attributePaths = {"vendor", "items", "items.product"})
+    @Query("SELECT o FROM PurchaseOrder o")
+    List<PurchaseOrder> findAllWithDetails();
+
+    @EntityGraph(attributePaths = {"vendor", "items", "items.product"})
+    @Query("SELECT o FROM PurchaseOrder o WHERE o.id = :id")
+    Optional<PurchaseOrder> findWithDetailsById(@Param("id") Long id);
+
+    // Export: rows are pulled from an open cursor in fetch-size batches (MySQL needs useCursorFetch=true),
+    // so the caller must consume the stream inside a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.hrishikesh.inventory.dto.OrderExportRow(o.id, v.id, v.name, o.orderDate, o.status, " +
+            "o.totalAmount, o.paidAmount, o.outstandingAmount) " +
+            "FROM PurchaseOrder o JOIN o.vendor v WHERE (:status IS NULL OR o.status = :status) " +
+            "AND (:vendorId IS NULL OR v.id = :vendorId) " +
+            "AND (:from IS NULL OR o.orderDate >= :from) " +
+            "AND (:to IS NULL OR o.orderDate < :to) " +
+            "ORDER BY o.id ASC")
+    Stream<OrderExportRow> streamForExport(@Param("status") PurchaseOrder.OrderStatus status,
+                                           @Param("vendorId") Long vendorId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // Replenishment: quantity still to arrive per product on orders in the given statuses, for one product id range
+    @Query("SELECT i.product.id, SUM(i.quantity - COALESCE(i.receivedQuantity, 0)) FROM OrderItem i " +
+            "WHERE i.purchaseOrder.status IN :statuses AND i.product.id >= :fromId AND i.product.id < :toId " +
+            "GROUP BY i.product.id")
+    List<Object[]> sumOpenQuantityByProduct(@Param("statuses") Collection<PurchaseOrder.OrderStatus> statuses,
+                                            @Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Replenishment: vendor of the latest non-cancelled order for each product (products never ordered are absent)
+    @Query("SELECT i.product.id, o.vendor.id FROM OrderItem i JOIN i.purchaseOrder o " +
+            "WHERE i.product.id IN :productIds AND o.id = (SELECT MAX(i2.purchaseOrder.id) FROM OrderItem i2 " +
+            "WHERE i2.product.id = i.product.id AND i2.purchaseOrder.status <> :cancelled)")
+    List<Object[]> findLastVendorByProduct(@Param("productIds") Collection<Long> productIds,
+                                           @Param("cancelled") PurchaseOrder.OrderStatus cancelled);
 }
@@ -0,0 +1,157 @@
+package com.hrishikesh.inventory.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// The analytics rollup tables (db/migration/V7__analytics_rollups.sql): delta upserts from
+// RollupRecorder, per-date-range rebuilds from the base tables, and the grouped reads behind
+// /api/analytics. Plain JDBC: the rows are counters keyed by (vendor, day, ...), not entities.
+@Repository
+public class RollupRepository {
+
+    private static final String ORDER_SELECT =
+            "SELECT o.vendor_id, CAST(o.order_date AS DATE), COALESCE(o.status, 'PENDING'), COUNT(*), "
+            + "COALESCE(SUM(o.total_amount), 0), COALESCE(SUM(q.ordered_quantity), 0), "
+            + "COALESCE(SUM(q.received_quantity), 0) "
+            + "FROM purchase_order o "
+            + "LEFT JOIN (SELECT i.purchase_order_id, SUM(i.quantity) AS ordered_quantity, "
+            + "SUM(COALESCE(i.received_quantity, 0)) AS received_quantity "
+            + "FROM order_item i JOIN purchase_order po ON po.id = i.purchase_order_id "
+            + "WHERE po.order_date >= ? AND po.order_date < ? "
+            + "GROUP BY i.purchase_order_id) q ON q.purchase_order_id = o.id "
+            + "WHERE o.order_date >= ? AND o.order_date < ? "
+            + "GROUP BY o.vendor_id, CAST(o.order_date AS DATE), COALESCE(o.status, 'PENDING')";
+
+    private static final String PAYMENT_SELECT =
+            "SELECT o.vendor_id, CAST(p.payment_date AS DATE), COALESCE(p.payment_method, 'UNSPECIFIED'), "
+            + "COALESCE(p.status, 'COMPLETED'), COUNT(*), COALESCE(SUM(p.amount), 0) "
+            + "FROM payment p JOIN purchase_order o ON o.id = p.purchase_order_id "
+            + "WHERE p.payment_date >= ? AND p.payment_date < ? "
+            + "GROUP BY o.vendor_id, CAST(p.payment_date AS DATE), COALESCE(p.payment_method, 'UNSPECIFIED'), "
+            + "COALESCE(p.status, 'COMPLETED')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows: vendor_id, rollup_date, status, order_count, total_amount, ordered_quantity, received_quantity
+    public void addOrderDeltas(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO order_daily_rollup (vendor_id, rollup_date, status, order_count, "
+                + "total_amount, ordered_quantity, received_quantity) VALUES (?, ?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+                + "total_amount = total_amount + VALUES(total_amount), "
+                + "ordered_quantity = ordered_quantity + VALUES(ordered_quantity), "
+                + "received_quantity = received_quantity + VALUES(received_quantity)", rows);
+    }
+
+    // Rows: vendor_id, rollup_date, payment_method, status, payment_count, amount
+    public void addPaymentDeltas(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO payment_daily_rollup (vendor_id, rollup_date, payment_method, status, "
+                + "payment_count, amount) VALUES (?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE payment_count = payment_count + VALUES(payment_count), "
+                + "amount = amount + VALUES(amount)", rows);
+    }
+
+    // Recomputes [from, to) of both rollups from the base tables; returns the rollup rows written
+    public int rebuild(LocalDate from, LocalDate to) {
+        Date fromDate = Date.valueOf(from);
+        Date toDate = Date.valueOf(to);
+        Timestamp fromTime = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTime = Timestamp.valueOf(to.atStartOfDay());
+
+        jdbcTemplate.update("DELETE FROM order_daily_rollup WHERE rollup_date >= ? AND rollup_date < ?", fromDate, toDate);
+        jdbcTemplate.update("DELETE FROM payment_daily_rollup WHERE rollup_date >= ? AND rollup_date < ?", fromDate, toDate);
+        int rows = jdbcTemplate.update("INSERT INTO order_daily_rollup (vendor_id, rollup_date, status, order_count, "
+                + "total_amount, ordered_quantity, received_quantity) " + ORDER_SELECT, fromTime, toTime, fromTime, toTime);
+        rows += jdbcTemplate.update("INSERT INTO payment_daily_rollup (vendor_id, rollup_date, payment_method, status, "
+                + "payment_count, amount) " + PAYMENT_SELECT, fromTime, toTime);
+        return rows;
+    }
+
+    // Earliest and latest order or payment day, or null when there are none
+    public LocalDate[] findActivityRange() {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT "
+                + "(SELECT MIN(order_date) FROM purchase_order) AS first_order, "
+                + "(SELECT MAX(order_date) FROM purchase_order) AS last_order, "
+                + "(SELECT MIN(payment_date) FROM payment) AS first_payment, "
+                + "(SELECT MAX(payment_date) FROM payment) AS last_payment");
+        LocalDate first = earliest(day(row.get("first_order")), day(row.get("first_payment")));
+        LocalDate last = latest(day(row.get("last_order")), day(row.get("last_payment")));
+        return first != null ? new LocalDate[]{first, last} : null;
+    }
+
+    // Rows: vendor_id, vendor name, year, month, order_count, total_amount (cancelled orders excluded)
+    public List<Object[]> sumOrdersByVendorMonth(LocalDate from, LocalDate to, Long vendorId) {
+        return query("SELECT r.vendor_id, v.name, YEAR(r.rollup_date), MONTH(r.rollup_date), SUM(r.order_count), "
+                        + "SUM(r.total_amount) FROM order_daily_rollup r JOIN vendor v ON v.id = r.vendor_id "
+                        + "WHERE r.rollup_date >= ? AND r.rollup_date < ? AND r.status <> 'CANCELLED'",
+                "GROUP BY r.vendor_id, v.name, YEAR(r.rollup_date), MONTH(r.rollup_date)", from, to, vendorId, 6);
+    }
+
+    // Rows: vendor_id, vendor name, year, month, payment_count, amount (completed payments only)
+    public List<Object[]> sumPaymentsByVendorMonth(LocalDate from, LocalDate to, Long vendorId) {
+        return query("SELECT r.vendor_id, v.name, YEAR(r.rollup_date), MONTH(r.rollup_date), SUM(r.payment_count), "
+                        + "SUM(r.amount) FROM payment_daily_rollup r JOIN vendor v ON v.id = r.vendor_id "
+                        + "WHERE r.rollup_date >= ? AND r.rollup_date < ? AND r.status = 'COMPLETED'",
+                "GROUP BY r.vendor_id, v.name, YEAR(r.rollup_date), MONTH(r.rollup_date)", from, to, vendorId, 6);
+    }
+
+    // Rows: vendor_id, vendor name, status, order_count, ordered_quantity, received_quantity
+    public List<Object[]> sumOrdersByVendorStatus(LocalDate from, LocalDate to, Long vendorId) {
+        return query("SELECT r.vendor_id, v.name, r.status, SUM(r.order_count), SUM(r.ordered_quantity), "
+                        + "SUM(r.received_quantity) FROM order_daily_rollup r JOIN vendor v ON v.id = r.vendor_id "
+                        + "WHERE r.rollup_date >= ? AND r.rollup_date < ?",
+                "GROUP BY r.vendor_id, v.name, r.status", from, to, vendorId, 6);
+    }
+
+    // Rows: payment_method, status, payment_count, amount
+    public List<Object[]> sumPaymentsByMethodStatus(LocalDate from, LocalDate to, Long vendorId) {
+        return query("SELECT r.payment_method, r.status, SUM(r.payment_count), SUM(r.amount) "
+                        + "FROM payment_daily_rollup r WHERE r.rollup_date >= ? AND r.rollup_date < ?",
+                "GROUP BY r.payment_method, r.status", from, to, vendorId, 4);
+    }
+
+    // The optional vendor filter is added to the SQL rather than bound as "? IS NULL", which H2 can't type
+    private List<Object[]> query(String select, String groupBy, LocalDate from, LocalDate to, Long vendorId,
+                                 int columns) {
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        String sql = select;
+        if (vendorId != null) {
+            sql += " AND r.vendor_id = ?";
+            args.add(vendorId);
+        }
+        return jdbcTemplate.query(sql + " " + groupBy, (rs, rowNum) -> {
+            Object[] row = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        }, args.toArray());
+    }
+
+    private static LocalDate day(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        return null;
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+}
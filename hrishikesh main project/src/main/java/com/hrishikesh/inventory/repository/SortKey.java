@@ -0,0 +1,53 @@
+package com.hrishikesh.inventory.repository;
+
+import java.util.function.Function;
+
+// A sort column a keyset page can be ordered by (?sort=). Rows are ordered by the column and then by id,
+// so the cursor is the (value, id) pair of the last row. The expression must never be NULL (nullable
+// columns are wrapped in COALESCE), or rows with NULL would drop out of the "greater than" predicate.
+public final class SortKey<T> {
+
+    private final String name;
+    private final String path;
+    private final Function<String, Object> parser;
+    private final Function<T, Object> reader;
+
+    private SortKey(String name, String path, Function<String, Object> parser, Function<T, Object> reader) {
+        this.name = name;
+        this.path = path;
+        this.parser = parser;
+        this.reader = reader;
+    }
+
+    // The default: the id alone, which keeps the plain numeric cursor
+    public static <T> SortKey<T> id() {
+        return new SortKey<>("id", null, null, null);
+    }
+
+    public static <T> SortKey<T> of(String name, String path, Function<String, Object> parser,
+                                    Function<T, Object> reader) {
+        return new SortKey<>(name, path, parser, reader);
+    }
+
+    public boolean isId() {
+        return path == null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // Cursor text -> query parameter
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    // Row -> cursor value
+    public Object read(T row) {
+        return reader.apply(row);
+    }
+}
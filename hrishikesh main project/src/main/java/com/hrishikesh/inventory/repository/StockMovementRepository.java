@@ -0,0 +1,36 @@
+package com.hrishikesh.inventory.repository;
+
+import com.hrishikesh.inventory.entity.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Newest first, keyset on id
+    List<StockMovement> findByProductIdAndIdLessThanOrderByIdDesc(Long productId, Long cursor, Pageable pageable);
+
+    boolean existsByReversedMovementId(Long reversedMovementId);
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m " +
+            "WHERE m.productId = :productId AND m.createdAt > :after AND m.createdAt <= :until")
+    long sumQuantity(@Param("productId") Long productId,
+                     @Param("after") LocalDateTime after,
+                     @Param("until") LocalDateTime until);
+
+    // [productId, SUM(quantity)] for every product that moved inside the window
+    @Query("SELECT m.productId, SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.createdAt > :after AND m.createdAt <= :until GROUP BY m.productId")
+    List<Object[]> sumQuantityByProduct(@Param("after") LocalDateTime after, @Param("until") LocalDateTime until);
+
+    // [productId, currentStock] for products created before the ledger existed
+    @Query("SELECT p.id, p.currentStock FROM Product p WHERE p.currentStock IS NOT NULL AND p.currentStock <> 0 " +
+            "AND NOT EXISTS (SELECT m.id FROM StockMovement m WHERE m.productId = p.id)")
+    List<Object[]> findProductsWithoutMovements();
+}
@@ -0,0 +1,26 @@
+package com.hrishikesh.inventory.repository;
+
+import com.hrishikesh.inventory.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    Optional<StockSnapshot> findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(Long productId,
+                                                                                  LocalDateTime at);
+
+    @Query("SELECT MAX(s.asOf) FROM StockSnapshot s")
+    LocalDateTime findLatestAsOf();
+
+    @Query("SELECT s FROM StockSnapshot s WHERE s.productId IN :productIds " +
+            "AND s.asOf = (SELECT MAX(s2.asOf) FROM StockSnapshot s2 WHERE s2.productId = s.productId)")
+    List<StockSnapshot> findLatestForProducts(@Param("productIds") Collection<Long> productIds);
+}
@@ -0,0 +1,217 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.dto.PaymentMethodTotal;
+import com.hrishikesh.inventory.dto.VendorFillRate;
+import com.hrishikesh.inventory.dto.VendorSpend;
+import com.hrishikesh.inventory.exception.ServiceBusyException;
+import com.hrishikesh.inventory.repository.RollupRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reporting over the daily rollups (order_daily_rollup, payment_daily_rollup) that RollupRecorder keeps
+// current. A query reads at most vendors x days rollup rows for its range, however many orders and
+// payments those days hold, and never touches the order or payment tables.
+//
+// rebuildRollups recomputes the rollups from the base tables: after a bulk data fix, or to repair drift.
+// The order/payment date range is cut into chunks of rebuild-chunk-days, each rebuilt in its own
+// transaction (delete the chunk, re-aggregate it) on a small dedicated pool. Writes that land in a
+// chunk while it is rebuilt wait on its row locks, so a rebuild is best run at a quiet time.
+@Service
+@Timed(value = "inventory.service", histogram = true)
+public class AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private static final int DEFAULT_MONTHS = 12;
+
+    private final RollupRepository rollupRepository;
+    private final TableVersions tableVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkDays;
+    private final ExecutorService rebuildPool;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public AnalyticsService(RollupRepository rollupRepository,
+                            TableVersions tableVersions,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${inventory.analytics.rebuild-chunk-days:31}") int rebuildChunkDays,
+                            @Value("${inventory.analytics.rebuild-parallelism:4}") int rebuildParallelism) {
+        this.rollupRepository = rollupRepository;
+        this.tableVersions = tableVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildChunkDays = Math.max(1, rebuildChunkDays);
+        AtomicInteger threads = new AtomicInteger();
+        this.rebuildPool = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism), runnable -> {
+            Thread thread = new Thread(runnable, "rollup-rebuild-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Per vendor and month: orders placed (cancelled excluded) and payments completed
+    public List<VendorSpend> getVendorSpend(LocalDate from, LocalDate to, Long vendorId) {
+        LocalDate start = start(from, to);
+        LocalDate end = end(to);
+        Map<String, Object[]> byVendorMonth = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumOrdersByVendorMonth(start, end, vendorId)) {
+            Object[] totals = byVendorMonth.computeIfAbsent(vendorMonthKey(row), key -> emptySpend(row));
+            totals[3] = toLong(row[4]);
+            totals[4] = toAmount(row[5]);
+        }
+        for (Object[] row : rollupRepository.sumPaymentsByVendorMonth(start, end, vendorId)) {
+            Object[] totals = byVendorMonth.computeIfAbsent(vendorMonthKey(row), key -> emptySpend(row));
+            totals[5] = toLong(row[4]);
+            totals[6] = toAmount(row[5]);
+        }
+        List<VendorSpend> result = new ArrayList<>(byVendorMonth.size());
+        for (Object[] totals : byVendorMonth.values()) {
+            result.add(new VendorSpend((Long) totals[0], (String) totals[1], (String) totals[2], (Long) totals[3],
+                    (BigDecimal) totals[4], (Long) totals[5], (BigDecimal) totals[6]));
+        }
+        return result;
+    }
+
+    // Per vendor: orders by status and how much of the approved/received quantity has arrived
+    public List<VendorFillRate> getFillRates(LocalDate from, LocalDate to, Long vendorId) {
+        Map<Long, String> names = new TreeMap<>();
+        Map<Long, Map<String, Long>> statusCounts = new TreeMap<>();
+        Map<Long, long[]> quantities = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumOrdersByVendorStatus(start(from, to), end(to), vendorId)) {
+            Long id = toLong(row[0]);
+            String status = (String) row[2];
+            names.put(id, (String) row[1]);
+            statusCounts.computeIfAbsent(id, key -> new TreeMap<>()).put(status, toLong(row[3]));
+            long[] totals = quantities.computeIfAbsent(id, key -> new long[2]);
+            if ("APPROVED".equals(status) || "RECEIVED".equals(status)) {
+                totals[0] += toLong(row[4]);
+                totals[1] += toLong(row[5]);
+            }
+        }
+        List<VendorFillRate> result = new ArrayList<>(names.size());
+        names.forEach((id, name) -> result.add(new VendorFillRate(id, name, statusCounts.get(id),
+                quantities.get(id)[0], quantities.get(id)[1])));
+        return result;
+    }
+
+    public List<PaymentMethodTotal> getPaymentMethods(LocalDate from, LocalDate to, Long vendorId) {
+        List<PaymentMethodTotal> result = new ArrayList<>();
+        for (Object[] row : rollupRepository.sumPaymentsByMethodStatus(start(from, to), end(to), vendorId)) {
+            result.add(new PaymentMethodTotal((String) row[0], (String) row[1], toLong(row[2]), toAmount(row[3])));
+        }
+        return result;
+    }
+
+    // Recomputes both rollups over every day that has orders or payments
+    public Map<String, Object> rebuildRollups() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ServiceBusyException("A rollup rebuild is already in progress. Please retry shortly.", 30);
+        }
+        try {
+            return doRebuild();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildPool.shutdownNow();
+    }
+
+    private Map<String, Object> doRebuild() {
+        long started = System.nanoTime();
+        LocalDate[] range = rollupRepository.findActivityRange();
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        if (range != null) {
+            LocalDate end = range[1].plusDays(1);
+            for (LocalDate chunkStart = range[0]; chunkStart.isBefore(end); chunkStart = chunkStart.plusDays(rebuildChunkDays)) {
+                LocalDate from = chunkStart;
+                LocalDate to = chunkStart.plusDays(rebuildChunkDays).isBefore(end) ? chunkStart.plusDays(rebuildChunkDays) : end;
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> rollupRepository.rebuild(from, to)), rebuildPool));
+            }
+        }
+
+        int rows = 0;
+        List<String> errors = new ArrayList<>();
+        for (CompletableFuture<Integer> chunk : chunks) {
+            try {
+                Integer written = chunk.join();
+                rows += written != null ? written : 0;
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                errors.add(cause.getMessage());
+            }
+        }
+        tableVersions.changed(TableVersions.Table.ORDERS, TableVersions.Table.PAYMENTS);
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Rebuilt analytics rollups: {} chunks, {} rows, {} failed chunks in {} ms",
+                chunks.size(), rows, errors.size(), elapsedMs);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", range != null ? range[0] : null);
+        report.put("to", range != null ? range[1] : null);
+        report.put("chunks", chunks.size());
+        report.put("rows", rows);
+        report.put("elapsedMs", elapsedMs);
+        report.put("errors", errors);
+        return report;
+    }
+
+    // Default range: the last twelve whole months up to today
+    private static LocalDate start(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(DEFAULT_MONTHS).withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        return start;
+    }
+
+    // 'to' is inclusive; the rollup queries take an exclusive upper bound
+    private static LocalDate end(LocalDate to) {
+        return (to != null ? to : LocalDate.now()).plusDays(1);
+    }
+
+    // Row: vendor_id, name, year, month, ...; sorts by vendor, then month
+    private static String vendorMonthKey(Object[] row) {
+        return String.format("%019d-%04d-%02d", toLong(row[0]), toLong(row[2]), toLong(row[3]));
+    }
+
+    private static Object[] emptySpend(Object[] row) {
+        String month = String.format("%04d-%02d", toLong(row[2]), toLong(row[3]));
+        return new Object[]{toLong(row[0]), row[1], month, 0L, BigDecimal.ZERO, 0L, BigDecimal.ZERO};
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static BigDecimal toAmount(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal amount ? amount : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,605 @@
+package com.hrishikesh.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrishikesh.inventory.dto.ImportReport;
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.repository.BulkInsertRepository;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.repository.VendorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Streaming bulk import. Records are pulled from the upload one at a time and committed in chunks of
+// inventory.import.chunk-size, each in its own transaction: one set query for lookups/duplicates, one
+// JDBC batch for the inserts. Bad rows are reported and skipped; a chunk the database rejects fails
+// as a whole without affecting earlier chunks. Memory use depends on the chunk size, not the file size.
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    // Default VARCHAR length of the text columns
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    @Value("${inventory.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${inventory.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private BulkInsertRepository bulkInsertRepository;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private StockColumns stockColumns;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private RollupRecorder rollupRecorder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public BulkImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Columns: name, sku, description, unitPrice, currentStock, lowStockThreshold, maxStockLevel, preferredVendorId
+    public ImportReport importProducts(InputStream in, FileFormat format) {
+        return run("products", in, format, this::importProductChunk, null);
+    }
+
+    // Columns: name, contactNumber, email, address
+    public ImportReport importVendors(InputStream in, FileFormat format) {
+        return run("vendors", in, format, this::importVendorChunk, null);
+    }
+
+    // One row per order line. Columns: orderRef, vendorId, sku, quantity, unitPrice (defaults to the
+    // product price). Consecutive rows with the same orderRef form one PENDING order and are never split
+    // across chunks; an invalid row rejects its whole order.
+    public ImportReport importOrders(InputStream in, FileFormat format) {
+        return run("orders", in, format, this::importOrderChunk, record -> record.get("orderRef"));
+    }
+
+    private ImportReport run(String resource, InputStream in, FileFormat format,
+                             ChunkImporter importer, Function<ImportRecordReader.Record, String> groupKey) {
+        ImportProgress progress = new ImportProgress(resource, format, maxErrors);
+        List<ImportRecordReader.Record> chunk = new ArrayList<>(chunkSize);
+
+        try (ImportRecordReader reader = new ImportRecordReader(in, format, objectMapper)) {
+            ImportRecordReader.Record record;
+            while ((record = reader.next()) != null) {
+                progress.rowsRead++;
+                if (chunk.size() >= chunkSize && !sameGroup(groupKey, chunk.get(chunk.size() - 1), record)) {
+                    importChunk(importer, chunk, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+                chunk.add(record);
+            }
+            importChunk(importer, chunk, progress);
+        } catch (ImportRecordReader.RecordFormatException e) {
+            progress.abort(e.getLine(), e.getMessage(), chunk.size());
+        } catch (IOException e) {
+            progress.abort(0, "Upload could not be read: " + e.getMessage(), chunk.size());
+        }
+
+        ImportReport report = progress.toReport();
+        if (report.getRecordsCreated() > 0) {
+            // One reload hint instead of an event per imported row
+            changeFeedService.resync(resource);
+        }
+        log.info("Imported {}: {} of {} rows in {} ms ({} failed{})", resource, report.getRowsImported(),
+                report.getRowsRead(), report.getElapsedMs(), report.getRowsFailed(),
+                report.isAborted() ? ", aborted" : "");
+        return report;
+    }
+
+    private boolean sameGroup(Function<ImportRecordReader.Record, String> groupKey,
+                              ImportRecordReader.Record previous, ImportRecordReader.Record next) {
+        if (groupKey == null) {
+            return false;
+        }
+        String key = groupKey.apply(next);
+        return key != null && key.equals(groupKey.apply(previous));
+    }
+
+    private void importChunk(ChunkImporter importer, List<ImportRecordReader.Record> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ChunkResult result = new ChunkResult();
+        try {
+            importer.importChunk(chunk, result);
+            progress.add(result);
+        } catch (RuntimeException e) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Import chunk at line {} rejected: {}", chunk.get(0).getLine(), reason);
+            result.imported = 0;
+            result.created = 0;
+            progress.add(result);
+            progress.failChunk(chunk, chunk.size() - result.errors.size(), reason);
+        } finally {
+            // The request-scoped persistence context would otherwise keep every imported entity
+            entityManager.clear();
+        }
+    }
+
+    private void importProductChunk(List<ImportRecordReader.Record> records, ChunkResult result) {
+        Map<String, Product> productsBySku = new LinkedHashMap<>();
+        Map<String, Long> lineBySku = new HashMap<>();
+        for (ImportRecordReader.Record record : records) {
+            try {
+                Product product = toProduct(record);
+                // MySQL's default collation compares SKUs case-insensitively, so duplicates do too
+                String key = product.getSku().toLowerCase(Locale.ROOT);
+                if (productsBySku.containsKey(key)) {
+                    throw new RowException("Duplicate SKU " + product.getSku() + " (also on line " + lineBySku.get(key) + ")");
+                }
+                productsBySku.put(key, product);
+                lineBySku.put(key, record.getLine());
+            } catch (RowException e) {
+                result.fail(record.getLine(), e.getMessage());
+            }
+        }
+        if (productsBySku.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String sku : productRepository.findExistingSkus(skus(productsBySku.values()))) {
+                String key = sku.toLowerCase(Locale.ROOT);
+                if (productsBySku.remove(key) != null) {
+                    result.fail(lineBySku.get(key), "Product with SKU " + sku + " already exists");
+                }
+            }
+            rejectUnknownPreferredVendors(productsBySku, lineBySku, result);
+            if (productsBySku.isEmpty()) {
+                return;
+            }
+            List<Product> products = new ArrayList<>(productsBySku.values());
+            bulkInsertRepository.insertProducts(products);
+
+            Map<Long, Integer> openingStock = new LinkedHashMap<>();
+            for (Product product : products) {
+                openingStock.put(product.getId(), product.getCurrentStock());
+                dashboardStatsCache.productCreated(product);
+            }
+            stockLedgerService.recordOpeningBalances(openingStock);
+            productSearchIndex.productsSaved(products);
+            stockColumns.productsSaved(products);
+            tableVersions.changed(TableVersions.Table.PRODUCTS);
+        });
+        result.imported = productsBySku.size();
+        result.created = productsBySku.size();
+    }
+
+    // One IN query per chunk; rows naming a vendor that does not exist fail instead of the whole insert
+    private void rejectUnknownPreferredVendors(Map<String, Product> productsBySku, Map<String, Long> lineBySku,
+                                               ChunkResult result) {
+        Set<Long> vendorIds = productsBySku.values().stream()
+                .map(Product::getPreferredVendorId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        if (vendorIds.isEmpty()) {
+            return;
+        }
+        Set<Long> known = vendorRepository.findAllById(vendorIds).stream()
+                .map(Vendor::getId)
+                .collect(Collectors.toSet());
+        productsBySku.entrySet().removeIf(entry -> {
+            Long vendorId = entry.getValue().getPreferredVendorId();
+            if (vendorId == null || known.contains(vendorId)) {
+                return false;
+            }
+            result.fail(lineBySku.get(entry.getKey()), "Vendor not found with id: " + vendorId);
+            return true;
+        });
+    }
+
+    private void importVendorChunk(List<ImportRecordReader.Record> records, ChunkResult result) {
+        List<Vendor> vendors = new ArrayList<>(records.size());
+        for (ImportRecordReader.Record record : records) {
+            try {
+                vendors.add(toVendor(record));
+            } catch (RowException e) {
+                result.fail(record.getLine(), e.getMessage());
+            }
+        }
+        if (vendors.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bulkInsertRepository.insertVendors(vendors);
+            vendors.forEach(vendor -> dashboardStatsCache.vendorCreated());
+            tableVersions.changed(TableVersions.Table.VENDORS);
+        });
+        result.imported = vendors.size();
+        result.created = vendors.size();
+    }
+
+    private void importOrderChunk(List<ImportRecordReader.Record> records, ChunkResult result) {
+        List<OrderRows> orders = new ArrayList<>();
+        for (ImportRecordReader.Record record : records) {
+            String orderRef = record.get("orderRef");
+            if (record.getError() != null || orderRef == null) {
+                result.fail(record.getLine(), record.getError() != null ? record.getError() : "orderRef is required");
+                continue;
+            }
+            OrderRows order = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+            if (order == null || !order.orderRef.equals(orderRef)) {
+                order = new OrderRows(orderRef);
+                orders.add(order);
+            }
+            order.records.add(record);
+            try {
+                order.lines.add(toOrderLine(record));
+            } catch (RowException e) {
+                order.reject(record.getLine(), e.getMessage());
+            }
+        }
+
+        Set<Long> vendorIds = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (OrderRows order : orders) {
+            for (OrderLine line : order.lines) {
+                vendorIds.add(line.vendorId);
+                skus.add(line.sku);
+            }
+        }
+
+        if (!vendorIds.isEmpty()) {
+            Long created = transactionTemplate.execute(status -> {
+                Map<Long, Vendor> vendors = vendorRepository.findAllById(vendorIds).stream()
+                        .collect(Collectors.toMap(Vendor::getId, Function.identity()));
+                Map<String, Product> products = new HashMap<>();
+                for (Product product : productRepository.findBySkuIn(skus)) {
+                    products.put(product.getSku().toLowerCase(Locale.ROOT), product);
+                }
+
+                long count = 0;
+                for (OrderRows rows : orders) {
+                    if (rows.errorLine != null) {
+                        continue;
+                    }
+                    PurchaseOrder order = buildOrder(rows, vendors, products);
+                    if (order != null) {
+                        entityManager.persist(order);
+                        dashboardStatsCache.orderStatusChanged(null, order.getStatus());
+                        rollupRecorder.orderChanged(null, order);
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    tableVersions.changed(TableVersions.Table.ORDERS);
+                }
+                return count;
+            });
+            result.created = created != null ? created : 0;
+        }
+
+        for (OrderRows order : orders) {
+            if (order.errorLine == null) {
+                result.imported += order.records.size();
+                continue;
+            }
+            for (ImportRecordReader.Record record : order.records) {
+                result.fail(record.getLine(), record.getLine() == order.errorLine ? order.error
+                        : "Order " + order.orderRef + " not created: line " + order.errorLine + " is invalid");
+            }
+        }
+    }
+
+    // Null (and the order marked rejected) when a line refers to an unknown vendor/product
+    private PurchaseOrder buildOrder(OrderRows rows, Map<Long, Vendor> vendors, Map<String, Product> products) {
+        PurchaseOrder order = new PurchaseOrder();
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderLine line : rows.lines) {
+            Vendor vendor = vendors.get(line.vendorId);
+            Product product = products.get(line.sku.toLowerCase(Locale.ROOT));
+            if (vendor == null) {
+                rows.reject(line.line, "Vendor not found: " + line.vendorId);
+            } else if (order.getVendor() != null && !order.getVendor().getId().equals(vendor.getId())) {
+                rows.reject(line.line, "All rows of order " + rows.orderRef + " must have the same vendorId");
+            } else if (product == null) {
+                rows.reject(line.line, "Product not found: " + line.sku);
+            } else if (line.unitPrice == null && product.getUnitPrice() == null) {
+                rows.reject(line.line, "unitPrice is required (product " + line.sku + " has no price)");
+            }
+            if (rows.errorLine != null) {
+                return null;
+            }
+
+            BigDecimal unitPrice = line.unitPrice != null ? line.unitPrice : product.getUnitPrice();
+            OrderItem item = new OrderItem();
+            item.setPurchaseOrder(order);
+            item.setProduct(product);
+            item.setQuantity(line.quantity);
+            item.setUnitPrice(unitPrice);
+            order.getItems().add(item);
+            order.setVendor(vendor);
+            total = total.add(unitPrice.multiply(BigDecimal.valueOf(line.quantity)));
+        }
+        order.setTotalAmount(total);
+        order.setPaidAmount(BigDecimal.ZERO);
+        order.setOutstandingAmount(total);
+        return order;
+    }
+
+    private Product toProduct(ImportRecordReader.Record record) {
+        rejectUnreadable(record);
+        Product product = new Product();
+        product.setName(text(record, "name"));
+        product.setSku(text(record, "sku"));
+        product.setDescription(text(record, "description"));
+        product.setUnitPrice(decimal(record, "unitPrice"));
+        Integer stock = integer(record, "currentStock");
+        product.setCurrentStock(stock != null ? stock : 0);
+        product.setLowStockThreshold(integer(record, "lowStockThreshold"));
+        product.setMaxStockLevel(integer(record, "maxStockLevel"));
+        product.setPreferredVendorId(number(record, "preferredVendorId"));
+        validate(product);
+        return product;
+    }
+
+    private Vendor toVendor(ImportRecordReader.Record record) {
+        rejectUnreadable(record);
+        Vendor vendor = new Vendor();
+        vendor.setName(text(record, "name"));
+        vendor.setContactNumber(text(record, "contactNumber"));
+        vendor.setEmail(text(record, "email"));
+        vendor.setAddress(text(record, "address"));
+        validate(vendor);
+        return vendor;
+    }
+
+    private OrderLine toOrderLine(ImportRecordReader.Record record) {
+        Long vendorId = required("vendorId", number(record, "vendorId"));
+        String sku = required("sku", text(record, "sku"));
+        Integer quantity = required("quantity", integer(record, "quantity"));
+        if (quantity <= 0) {
+            throw new RowException("quantity must be positive");
+        }
+        BigDecimal unitPrice = decimal(record, "unitPrice");
+        if (unitPrice != null && unitPrice.signum() < 0) {
+            throw new RowException("unitPrice cannot be negative");
+        }
+        return new OrderLine(record.getLine(), vendorId, sku, quantity, unitPrice);
+    }
+
+    private void rejectUnreadable(ImportRecordReader.Record record) {
+        if (record.getError() != null) {
+            throw new RowException(record.getError());
+        }
+    }
+
+    private void validate(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            throw new RowException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private String text(ImportRecordReader.Record record, String column) {
+        String value = record.get(column);
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new RowException(column + " exceeds " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private BigDecimal decimal(ImportRecordReader.Record record, String column) {
+        String value = record.get(column);
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private Integer integer(ImportRecordReader.Record record, String column) {
+        String value = record.get(column);
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private Long number(ImportRecordReader.Record record, String column) {
+        String value = record.get(column);
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private <T> T required(String column, T value) {
+        if (value == null) {
+            throw new RowException(column + " is required");
+        }
+        return value;
+    }
+
+    private List<String> skus(Iterable<Product> products) {
+        List<String> skus = new ArrayList<>();
+        products.forEach(product -> skus.add(product.getSku()));
+        return skus;
+    }
+
+    @FunctionalInterface
+    private interface ChunkImporter {
+        void importChunk(List<ImportRecordReader.Record> records, ChunkResult result);
+    }
+
+    // Outcome of one chunk; each failed row has exactly one error entry
+    private static class ChunkResult {
+        long imported;
+        long created;
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            errors.add(new ImportReport.RowError(line, message));
+        }
+    }
+
+    private static class ImportProgress {
+        private final String resource;
+        private final FileFormat format;
+        private final int maxErrors;
+        private final long startNanos = System.nanoTime();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsFailed;
+        private long recordsCreated;
+        private long errorsOmitted;
+        private boolean aborted;
+
+        ImportProgress(String resource, FileFormat format, int maxErrors) {
+            this.resource = resource;
+            this.format = format;
+            this.maxErrors = maxErrors;
+        }
+
+        void add(ChunkResult result) {
+            rowsImported += result.imported;
+            recordsCreated += result.created;
+            rowsFailed += result.errors.size();
+            result.errors.forEach(this::error);
+        }
+
+        // Rows not already reported individually are reported with one entry for the chunk
+        void failChunk(List<ImportRecordReader.Record> chunk, long rows, String reason) {
+            if (rows <= 0) {
+                return;
+            }
+            rowsFailed += rows;
+            error(new ImportReport.RowError(chunk.get(0).getLine(), "Rows on lines " + chunk.get(0).getLine()
+                    + "-" + chunk.get(chunk.size() - 1).getLine() + " not imported: " + reason));
+        }
+
+        // The chunk being collected when reading failed is discarded
+        void abort(long line, String message, int pendingRows) {
+            aborted = true;
+            rowsFailed += pendingRows;
+            error(new ImportReport.RowError(line, "Import stopped: " + message
+                    + (pendingRows > 0 ? " (" + pendingRows + " pending rows discarded)" : "")));
+        }
+
+        private void error(ImportReport.RowError error) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            } else {
+                errorsOmitted++;
+            }
+        }
+
+        ImportReport toReport() {
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            return new ImportReport(resource, format.name().toLowerCase(Locale.ROOT), rowsRead, rowsImported,
+                    rowsFailed, recordsCreated, aborted, elapsedMs, errors, errorsOmitted);
+        }
+    }
+
+    private static class OrderRows {
+        final String orderRef;
+        final List<ImportRecordReader.Record> records = new ArrayList<>();
+        final List<OrderLine> lines = new ArrayList<>();
+        Long errorLine;
+        String error;
+
+        OrderRows(String orderRef) {
+            this.orderRef = orderRef;
+        }
+
+        void reject(long line, String message) {
+            if (errorLine == null) {
+                errorLine = line;
+                error = message;
+            }
+        }
+    }
+
+    private static class OrderLine {
+        final long line;
+        final Long vendorId;
+        final String sku;
+        final int quantity;
+        final BigDecimal unitPrice;
+
+        OrderLine(long line, Long vendorId, String sku, int quantity, BigDecimal unitPrice) {
+            this.line = line;
+            this.vendorId = vendorId;
+            this.sku = sku;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+        }
+    }
+
+    private static class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.hrishikesh.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrishikesh.inventory.dto.OrderSummary;
+import com.hrishikesh.inventory.dto.PaymentSummary;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Server-sent change events for the UI (/api/changes), so pages patch the affected row instead of
+// re-fetching whole tables after every action. Services publish a delta when they change data; it is
+// serialized right away (a snapshot of the state being committed) and only delivered once the
+// transaction commits, so rolled-back work never shows up.
+//
+// Event types (SSE event name -> data):
+//   order   - OrderSummary, on create and every status change
+//   payment - PaymentSummary, on create and every status change
+//   product - the new Product
+//   stock   - {productId, currentStock, lowStockThreshold}, whenever the stock projection changes
+//   vendor  - the new Vendor
+//   resync  - {resource}: too much changed (bulk import) or events were missed; reload that resource
+//
+// Numbering, replay and subscription all run on one sender thread, which gives every subscriber the
+// same order without locks. The sender only queues events per subscriber; delivery threads write them
+// out, one at a time per subscriber, so a client that reads slowly holds up nobody else. A subscriber
+// with more than max-pending-events queued, or stuck in one send for longer than send-timeout-ms, is
+// dropped; its EventSource reconnects and catches up through replay.
+// The last replay-size events are kept so a reconnecting EventSource (Last-Event-ID header) gets what it
+// missed; if they are gone it gets a resync instead.
+//
+// The feed is per instance: event ids are "<instance>-<sequence>", and an id from another instance
+// (a reconnect that a load balancer sent elsewhere, or a restart) is answered with a resync.
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private static final String RESYNC_ALL = "all";
+
+    private final ObjectMapper objectMapper;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long subscriberTimeoutMs;
+    private final int maxPendingEvents;
+    private final long sendTimeoutMs;
+
+    // Prefix of every event id, new on each start
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Writes to the emitters; at most one thread per subscriber at a time
+    private final AtomicInteger deliveryThreads = new AtomicInteger();
+    private final ExecutorService delivery = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-send-" + deliveryThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the sender thread
+    private long lastEventId;
+    private final Deque<ChangeEvent> recent = new ArrayDeque<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final Counter publishedCount;
+    private final Counter droppedSubscriberCount;
+
+    public ChangeFeedService(ObjectMapper objectMapper,
+                             @Value("${inventory.changes.replay-size:1000}") int replaySize,
+                             @Value("${inventory.changes.max-subscribers:200}") int maxSubscribers,
+                             @Value("${inventory.changes.subscriber-timeout-ms:1800000}") long subscriberTimeoutMs,
+                             @Value("${inventory.changes.max-pending-events:1000}") int maxPendingEvents,
+                             @Value("${inventory.changes.send-timeout-ms:10000}") long sendTimeoutMs,
+                             MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberTimeoutMs = subscriberTimeoutMs;
+        this.maxPendingEvents = maxPendingEvents;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        this.publishedCount = Counter.builder("inventory.changes.published")
+                .description("Change events delivered to the feed")
+                .register(meterRegistry);
+        this.droppedSubscriberCount = Counter.builder("inventory.changes.dropped.subscribers")
+                .description("Change feed subscribers dropped because a send failed, fell behind or stalled")
+                .register(meterRegistry);
+        Gauge.builder("inventory.changes.subscribers", subscribers, List::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String lastSeenEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Too many open change feeds. Please retry shortly.", 5);
+        }
+        return subscribe(lastSeenEventId, new SseEmitter(subscriberTimeoutMs));
+    }
+
+    // Package-private so tests can pass an emitter that records or stalls its sends
+    SseEmitter subscribe(String lastSeenEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Replay and registration happen on the sender thread, so no event can slip in between them
+        execute(() -> {
+            replay(subscriber, lastSeenEventId);
+            subscribers.add(subscriber);
+        });
+        return emitter;
+    }
+
+    public void orderChanged(PurchaseOrder order) {
+        Vendor vendor = order.getVendor();
+        publish("order", new OrderSummary(order.getId(), vendor.getId(), vendor.getName(), order.getOrderDate(),
+                order.getStatus(), order.getTotalAmount()));
+    }
+
+    public void paymentChanged(Payment payment) {
+        PurchaseOrder order = payment.getPurchaseOrder();
+        publish("payment", new PaymentSummary(payment.getId(), order.getId(), order.getVendor().getName(),
+                payment.getAmount(), payment.getPaymentDate(), payment.getPaymentMethod(), payment.getStatus(),
+                payment.getTransactionReference()));
+    }
+
+    public void productCreated(Product product) {
+        publish("product", product);
+    }
+
+    public void stockChanged(Product product) {
+        Map<String, Object> stock = new HashMap<>();
+        stock.put("productId", product.getId());
+        stock.put("currentStock", product.getCurrentStock());
+        stock.put("lowStockThreshold", product.getLowStockThreshold());
+        publish("stock", stock);
+    }
+
+    public void vendorCreated(Vendor vendor) {
+        publish("vendor", vendor);
+    }
+
+    // For changes too large to send row by row (bulk imports): clients reload the resource
+    public void resync(String resource) {
+        publish("resync", Map.of("resource", resource));
+    }
+
+    // Keeps idle connections from being closed by proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${inventory.changes.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            execute(() -> broadcast(() -> SseEmitter.event().comment("ping")));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+        try {
+            sender.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscribers.forEach(Subscriber::close);
+        delivery.shutdown();
+    }
+
+    private void publish(String type, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize '{}' change event: {}", type, e.getMessage());
+            return;
+        }
+        AfterCommit.run(() -> execute(() -> deliver(type, json)));
+    }
+
+    private void deliver(String type, String json) {
+        ChangeEvent event = new ChangeEvent(instanceId + "-" + ++lastEventId, lastEventId, type, json);
+        recent.addLast(event);
+        if (recent.size() > replaySize) {
+            recent.removeFirst();
+        }
+        publishedCount.increment();
+        broadcast(event::toSse);
+    }
+
+    // Only queues: never waits for a client. A builder can only be sent once, so each subscriber gets a
+    // fresh one.
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event, now)) {
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void replay(Subscriber subscriber, String lastSeenEventId) {
+        if (lastSeenEventId == null) {
+            return;
+        }
+        Long lastSeen = sequenceOf(lastSeenEventId);
+        long oldestKept = recent.isEmpty() ? lastEventId + 1 : recent.peekFirst().sequence;
+        if (lastSeen == null || lastSeen > lastEventId || lastSeen + 1 < oldestKept
+                || lastEventId - lastSeen > maxPendingEvents) {
+            ChangeEvent resync = new ChangeEvent(instanceId + "-" + lastEventId, lastEventId, "resync",
+                    "{\"resource\":\"" + RESYNC_ALL + "\"}");
+            subscriber.offer(resync::toSse, System.currentTimeMillis());
+            return;
+        }
+        for (ChangeEvent event : recent) {
+            if (event.sequence > lastSeen) {
+                subscriber.offer(event::toSse, System.currentTimeMillis());
+            }
+        }
+    }
+
+    // The sequence number of an id this instance handed out; null for another instance's (or a malformed) id
+    private Long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(instanceId)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // The emitter is completed by its own delivery thread: send and complete lock the emitter, and a
+    // stalled send would otherwise block the caller as well
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedSubscriberCount.increment();
+        }
+        subscriber.close();
+    }
+
+    private void execute(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; clients reconnect and resync against the next process
+            log.debug("Change feed is shut down, dropping event");
+        }
+    }
+
+    // One open feed: the events queued for it and the state of its delivery
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // All guarded by this
+        private final Deque<Supplier<SseEmitter.SseEventBuilder>> pending = new ArrayDeque<>();
+        private boolean draining;
+        private long sendStartedAt;
+        private boolean closed;
+        private boolean completed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // false if the subscriber has fallen too far behind or is stuck in a send, and should be dropped
+        private synchronized boolean offer(Supplier<SseEmitter.SseEventBuilder> event, long now) {
+            if (closed) {
+                return true;
+            }
+            if (pending.size() >= maxPendingEvents || (sendStartedAt > 0 && now - sendStartedAt > sendTimeoutMs)) {
+                return false;
+            }
+            pending.addLast(event);
+            startDraining();
+            return true;
+        }
+
+        // Discards whatever is still queued; the delivery thread completes the emitter after its current send
+        private synchronized void close() {
+            closed = true;
+            pending.clear();
+            startDraining();
+        }
+
+        private void startDraining() {
+            if (draining || completed) {
+                return;
+            }
+            draining = true;
+            try {
+                delivery.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the container closes the connection
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        sendStartedAt = 0;
+                        if (!closed || completed) {
+                            return;
+                        }
+                        completed = true;
+                    } else {
+                        sendStartedAt = System.currentTimeMillis();
+                    }
+                }
+                if (event == null) {
+                    emitter.complete();
+                    return;
+                }
+                try {
+                    emitter.send(event.get());
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the container completes the emitter, we just stop sending to it
+                    synchronized (this) {
+                        closed = true;
+                        completed = true;
+                        pending.clear();
+                        draining = false;
+                        sendStartedAt = 0;
+                    }
+                    if (subscribers.remove(this)) {
+                        droppedSubscriberCount.increment();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class ChangeEvent {
+
+        private final String id;
+        private final long sequence;
+        private final String type;
+        private final String json;
+
+        private ChangeEvent(String id, long sequence, String type, String json) {
+            this.id = id;
+            this.sequence = sequence;
+            this.type = type;
+            this.json = json;
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().id(id).name(type).data(json);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.repository.KeysetPageRepository.Keyset;
+import com.hrishikesh.inventory.repository.SortKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class CursorPaging {
+
+    @Value("${inventory.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${inventory.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    public int resolveSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    // Always offset 0: the cursor predicate does the skipping, so deep pages cost the same as the first
+    public Pageable limit(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    public boolean isDescending(String direction) {
+        if (direction == null || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new RuntimeException("Invalid sort direction: " + direction + " (expected asc or desc)");
+    }
+
+    public long startCursor(Long cursor, boolean descending) {
+        if (cursor != null) {
+            return cursor;
+        }
+        return descending ? Long.MAX_VALUE : 0L;
+    }
+
+    public <T> SortKey<T> resolveSort(String requested, Map<String, SortKey<T>> sorts) {
+        if (requested == null || requested.isBlank()) {
+            return sorts.get("id");
+        }
+        SortKey<T> sort = sorts.get(requested);
+        if (sort == null) {
+            throw new RuntimeException("Invalid sort key: " + requested + " (expected one of " + sorts.keySet() + ")");
+        }
+        return sort;
+    }
+
+    // Cursor of the row a page ends with. Sorted by id it is the plain id; otherwise the sort value and
+    // id, base64url-encoded so the client can pass it back untouched.
+    public <T> String encodeCursor(T row, SortKey<T> sort, long id) {
+        if (sort.isId()) {
+            return Long.toString(id);
+        }
+        String text = id + ":" + sort.read(row);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public <T> CursorPage<T> page(List<T> rows, int size, SortKey<T> sort, Function<T, Long> idOf) {
+        return CursorPage.withCursor(rows, size, row -> encodeCursor(row, sort, idOf.apply(row)));
+    }
+
+    // null (first page) stays null
+    public Keyset decodeCursor(String cursor, SortKey<?> sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            if (sort.isId()) {
+                return new Keyset(null, Long.parseLong(cursor));
+            }
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = text.indexOf(':');
+            return new Keyset(sort.parse(text.substring(separator + 1)), Long.parseLong(text.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor for sort '" + sort.getName() + "': " + cursor);
+        }
+    }
+
+    // Substring match; % and _ typed by the user are matched literally (queries use ESCAPE '\')
+    public String likePattern(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String escaped = text.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,114 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.dto.DashboardStats;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
+import com.hrishikesh.inventory.repository.VendorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory dashboard counters. Services push deltas on every write; a periodic job
+// re-counts from the database to correct any drift (e.g. rows changed outside the app).
+@Component
+public class DashboardStatsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsCache.class);
+
+    private final AtomicLong vendorCount = new AtomicLong();
+    private final AtomicLong productCount = new AtomicLong();
+    private final AtomicLong pendingOrderCount = new AtomicLong();
+    private final AtomicLong lowStockCount = new AtomicLong();
+    private volatile LocalDateTime lastReconciledAt;
+
+    @Value("${inventory.low-stock.default-threshold:10}")
+    private int defaultLowStockThreshold;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PurchaseOrderRepository poRepository;
+
+    public DashboardStats getStats() {
+        return new DashboardStats(vendorCount.get(), productCount.get(), pendingOrderCount.get(),
+                lowStockCount.get(), lastReconciledAt);
+    }
+
+    // NULL stock counts as 0; ProductRepository.countLowStock, which the reconcile compares against, does the same
+    public boolean isLowStock(Integer stock, Integer threshold) {
+        int limit = threshold != null ? threshold : defaultLowStockThreshold;
+        return (stock != null ? stock : 0) < limit;
+    }
+
+    public void vendorCreated() {
+        AfterCommit.run(vendorCount::incrementAndGet);
+    }
+
+    public void productCreated(Product product) {
+        boolean low = isLowStock(product.getCurrentStock(), product.getLowStockThreshold());
+        AfterCommit.run(() -> {
+            productCount.incrementAndGet();
+            if (low) {
+                lowStockCount.incrementAndGet();
+            }
+        });
+    }
+
+    // from is null when the order has just been created
+    public void orderStatusChanged(PurchaseOrder.OrderStatus from, PurchaseOrder.OrderStatus to) {
+        int delta = 0;
+        if (from == PurchaseOrder.OrderStatus.PENDING) {
+            delta--;
+        }
+        if (to == PurchaseOrder.OrderStatus.PENDING) {
+            delta++;
+        }
+        if (delta != 0) {
+            int change = delta;
+            AfterCommit.run(() -> pendingOrderCount.addAndGet(change));
+        }
+    }
+
+    public void stockChanged(Product product, int oldStock, int newStock) {
+        boolean wasLow = isLowStock(oldStock, product.getLowStockThreshold());
+        boolean isLow = isLowStock(newStock, product.getLowStockThreshold());
+        if (wasLow && !isLow) {
+            AfterCommit.run(lowStockCount::decrementAndGet);
+        } else if (!wasLow && isLow) {
+            AfterCommit.run(lowStockCount::incrementAndGet);
+        }
+    }
+
+    // Runs once at startup (initial delay 0) to seed the counters, then on the configured interval
+    @Scheduled(fixedDelayString = "${inventory.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long vendors = vendorRepository.count();
+        long products = productRepository.count();
+        long pending = poRepository.countByStatus(PurchaseOrder.OrderStatus.PENDING);
+        long lowStock = productRepository.countLowStock(defaultLowStockThreshold);
+
+        logDrift("vendors", vendorCount.getAndSet(vendors), vendors);
+        logDrift("products", productCount.getAndSet(products), products);
+        logDrift("pendingOrders", pendingOrderCount.getAndSet(pending), pending);
+        logDrift("lowStock", lowStockCount.getAndSet(lowStock), lowStock);
+        lastReconciledAt = LocalDateTime.now();
+    }
+
+    private void logDrift(String counter, long cached, long actual) {
+        if (lastReconciledAt != null && cached != actual) {
+            log.info("Dashboard counter '{}' drifted: cached={}, database={}", counter, cached, actual);
+        }
+    }
+}
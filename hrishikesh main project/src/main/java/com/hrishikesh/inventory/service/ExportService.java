@@ -0,0 +1,150 @@
+package com.hrishikesh.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hrishikesh.inventory.dto.OrderExportRow;
+import com.hrishikesh.inventory.dto.PaymentSummary;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.repository.PaymentRepository;
+import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Streams export rows from a database cursor straight to the response body: one row is in memory at a
+// time, whatever the size of the export. Runs in one read-only transaction per export.
+@Service
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> ORDER_COLUMNS = List.of("id", "vendorId", "vendorName", "orderDate",
+            "status", "totalAmount", "paidAmount", "outstandingAmount");
+
+    private static final List<String> PAYMENT_COLUMNS = List.of("id", "orderId", "vendorName", "amount",
+            "paymentDate", "paymentMethod", "status", "transactionReference");
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public ExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Date filters are inclusive days, as on the list endpoints
+    public void exportOrders(OutputStream out, FileFormat format, boolean gzip, PurchaseOrder.OrderStatus status,
+                             Long vendorId, LocalDate from, LocalDate to) throws IOException {
+        write(out, format, gzip, ORDER_COLUMNS,
+                () -> purchaseOrderRepository.streamForExport(status, vendorId, startOf(from), endOf(to)),
+                row -> new Object[]{row.getId(), row.getVendorId(), row.getVendorName(), row.getOrderDate(),
+                        row.getStatus(), row.getTotalAmount(), row.getPaidAmount(), row.getOutstandingAmount()});
+    }
+
+    public void exportPayments(OutputStream out, FileFormat format, boolean gzip, Long orderId,
+                               Payment.PaymentStatus status, Payment.PaymentMethod method,
+                               LocalDate from, LocalDate to) throws IOException {
+        write(out, format, gzip, PAYMENT_COLUMNS,
+                () -> paymentRepository.streamForExport(orderId, status, method, startOf(from), endOf(to)),
+                row -> new Object[]{row.getId(), row.getOrderId(), row.getVendorName(), row.getAmount(),
+                        row.getPaymentDate(), row.getPaymentMethod(), row.getStatus(), row.getTransactionReference()});
+    }
+
+    public String fileName(String resource, FileFormat format, boolean gzip) {
+        return resource + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    private <T> void write(OutputStream response, FileFormat format, boolean gzip, List<String> columns,
+                           Supplier<Stream<T>> query, Function<T, Object[]> csvValues) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(response, BUFFER_SIZE) : response;
+        OutputStream out = new BufferedOutputStream(target, BUFFER_SIZE);
+        ObjectWriter jsonWriter = objectMapper.writer();
+
+        if (format == FileFormat.CSV) {
+            writeCsvLine(out, columns.toArray());
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    rows.forEach(row -> {
+                        try {
+                            if (format == FileFormat.CSV) {
+                                writeCsvLine(out, csvValues.apply(row));
+                            } else {
+                                out.write(jsonWriter.writeValueAsBytes(row));
+                                out.write('\n');
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+
+        out.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        response.flush();
+    }
+
+    private void writeCsvLine(OutputStream out, Object[] values) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(csvField(values[i]));
+        }
+        line.append("\r\n");
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    private LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+}
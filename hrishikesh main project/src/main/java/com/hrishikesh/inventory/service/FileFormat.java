@@ -0,0 +1,40 @@
+package com.hrishikesh.inventory.service;
+
+import java.util.Locale;
+
+// Bulk import/export file formats: CSV with a header row, or NDJSON (one JSON object per line)
+public enum FileFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    FileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Explicit ?format= wins; otherwise JSON-ish content types mean NDJSON and everything else CSV
+    public static FileFormat resolve(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return FileFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported format: " + format + " (use csv or ndjson)");
+            }
+        }
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
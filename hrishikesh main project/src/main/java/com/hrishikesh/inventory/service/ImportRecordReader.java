@@ -0,0 +1,282 @@
+package com.hrishikesh.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Pull-based reader for bulk uploads (CSV with a header row, or one JSON object per line).
+// Only the current record is held in memory, so an upload of any size is read with flat memory.
+// Column/field names are matched loosely: "current_stock", "currentStock" and "Current Stock" are the same.
+public class ImportRecordReader implements Closeable {
+
+    // A record longer than this is treated as a malformed file (e.g. an unterminated CSV quote)
+    private static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    public static class Record {
+
+        private final long line;
+        private final Map<String, String> values;
+        private final String error;
+
+        Record(long line, Map<String, String> values) {
+            this(line, values, null);
+        }
+
+        private Record(long line, Map<String, String> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+
+        // A row that could be delimited but not parsed; reading continues with the next one
+        static Record invalid(long line, String error) {
+            return new Record(line, Map.of(), error);
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        // Trimmed value, or null when the column is missing or blank
+        public String get(String name) {
+            String value = values.get(normalizeName(name));
+            if (value == null) {
+                return null;
+            }
+            value = value.trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    private final FileFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long line;
+    private int pending = -2;
+
+    public ImportRecordReader(InputStream in, FileFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    public FileFormat getFormat() {
+        return format;
+    }
+
+    // Next record, or null at end of input. Blank lines are skipped.
+    public Record next() throws IOException {
+        return format == FileFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Record nextCsv() throws IOException {
+        if (header == null) {
+            List<String> names = readCsvRecord();
+            if (names == null) {
+                return null;
+            }
+            header = new ArrayList<>(names.size());
+            for (String name : names) {
+                header.add(normalizeName(name));
+            }
+        }
+
+        List<String> fields;
+        long start;
+        do {
+            start = line + 1;
+            fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        if (fields.size() > header.size()) {
+            return Record.invalid(start, "Row has " + fields.size() + " columns, header has " + header.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            values.put(header.get(i), fields.get(i));
+        }
+        return new Record(start, values);
+    }
+
+    // RFC 4180: comma separated, double-quoted fields may contain commas, quotes ("") and line breaks
+    private List<String> readCsvRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        line++;
+        long start = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new RecordFormatException(start, "Unterminated quoted field");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > MAX_RECORD_CHARS) {
+                throw new RecordFormatException(start, "Row exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    int nextChar = read();
+                    if (nextChar == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = nextChar;
+                        continue;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    int nextChar = read();
+                    if (nextChar != '\n') {
+                        unread(nextChar);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(ch);
+            }
+            c = read();
+        }
+    }
+
+    private Record nextJson() throws IOException {
+        String text;
+        do {
+            text = readLine();
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            return Record.invalid(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            return Record.invalid(line, "Each line must be a JSON object");
+        }
+
+        Map<String, String> values = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isContainerNode()) {
+                return Record.invalid(line, "Field '" + field.getKey() + "' must be a plain value");
+            }
+            values.put(normalizeName(field.getKey()), value.isNull() ? null : value.asText());
+        }
+        return new Record(line, values);
+    }
+
+    private String readLine() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        line++;
+        StringBuilder text = new StringBuilder();
+        while (c != -1 && c != '\n') {
+            if (text.length() >= MAX_RECORD_CHARS) {
+                throw new RecordFormatException(line, "Line exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+            if (c != '\r') {
+                text.append((char) c);
+            }
+            c = read();
+        }
+        return text.toString();
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        int c = reader.read();
+        // Drop a UTF-8 byte order mark at the very start
+        if (c == '\uFEFF' && line == 0) {
+            c = reader.read();
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+
+    static String normalizeName(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                normalized.append(Character.toLowerCase(ch));
+            }
+        }
+        return normalized.toString();
+    }
+
+    // The upload cannot be read past this point
+    public static class RecordFormatException extends RuntimeException {
+
+        private final long line;
+
+        public RecordFormatException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+
+        public long getLine() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.hrishikesh.inventory.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Runs a unit of work in its own transaction and re-runs it (bounded) when a @Version check fails
+// at commit, i.e. another request changed the same order/product in the meantime.
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    @Value("${inventory.concurrency.max-attempts:3}")
+    private int maxAttempts;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                log.debug("Concurrent update during {} (attempt {}/{}), retrying", operation, attempt, maxAttempts);
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Small jittered pause so competing writers don't collide again immediately
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying concurrent update", e);
+        }
+    }
+}
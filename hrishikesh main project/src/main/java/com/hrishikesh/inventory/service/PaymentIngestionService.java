@@ -0,0 +1,362 @@
+package com.hrishikesh.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hrishikesh.inventory.dto.PaymentIngestionStatus;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.exception.DuplicatePaymentException;
+import com.hrishikesh.inventory.exception.ServiceBusyException;
+import com.hrishikesh.inventory.repository.PaymentRepository;
+import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Asynchronous payment intake for bursts of bank settlement callbacks (/api/payments/ingest).
+// Requests only validate, de-duplicate and enqueue; a periodic flush applies the queue in micro-batches:
+// one transaction per batch, payments coalesced per purchase order so each order's running totals take
+// one conditional UPDATE, and all payment rows inserted as JDBC batches.
+//
+// Idempotency is keyed by transactionReference and checked in memory: references still queued, plus
+// finished ones for the retention window. Older replays are caught when the batch is applied, by one
+// IN query per batch against recorded payments. The queue is in-process, so payments still queued when
+// the process dies are lost and must be resubmitted (their references are not recorded yet).
+@Service
+public class PaymentIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentIngestionService.class);
+
+    private final BlockingQueue<Payment> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final TransactionTemplate transactionTemplate;
+
+    // The flush runs every few milliseconds on a thread of its own, not on the shared @Scheduled pool, where
+    // it would wait behind reconciles, snapshots and refreshes while the queue fills up
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-ingest-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Submitted and not yet applied; bounded by the queue capacity
+    private final ConcurrentMap<String, PaymentIngestionStatus> inFlight = new ConcurrentHashMap<>();
+    // Applied, rejected or duplicate outcomes, kept for status polling and replay detection
+    private final Cache<String, PaymentIngestionStatus> completed;
+
+    private final Counter acceptedCount;
+    private final Counter replayedCount;
+    private final Counter queueFullCount;
+    private final Counter appliedCount;
+    private final Counter rejectedCount;
+    private final Counter duplicateCount;
+    private final DistributionSummary batchSizes;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private RollupRecorder rollupRecorder;
+
+    public PaymentIngestionService(@Value("${inventory.payments.ingest.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${inventory.payments.ingest.batch-size:200}") int batchSize,
+                                   @Value("${inventory.payments.ingest.flush-interval-ms:50}") long flushIntervalMs,
+                                   @Value("${inventory.payments.ingest.status-retention-minutes:1440}") long retentionMinutes,
+                                   @Value("${inventory.payments.ingest.status-max-entries:200000}") long maxEntries,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .maximumSize(maxEntries)
+                .build();
+
+        this.acceptedCount = outcomeCounter(meterRegistry, "accepted");
+        this.replayedCount = outcomeCounter(meterRegistry, "replayed");
+        this.queueFullCount = outcomeCounter(meterRegistry, "queue_full");
+        this.appliedCount = outcomeCounter(meterRegistry, "applied");
+        this.rejectedCount = outcomeCounter(meterRegistry, "rejected");
+        this.duplicateCount = outcomeCounter(meterRegistry, "duplicate");
+        this.batchSizes = DistributionSummary.builder("inventory.payments.ingest.batch.size")
+                .description("Payments applied per micro-batch")
+                .register(meterRegistry);
+        Gauge.builder("inventory.payments.ingest.queued", queue, BlockingQueue::size)
+                .description("Payments waiting to be applied")
+                .register(meterRegistry);
+    }
+
+    public PaymentIngestionStatus submit(Payment payment) {
+        String reference = payment.getTransactionReference() != null ? payment.getTransactionReference().trim() : "";
+        if (reference.isEmpty()) {
+            throw new RuntimeException("Transaction reference is required");
+        }
+        if (payment.getPurchaseOrder() == null || payment.getPurchaseOrder().getId() == null) {
+            throw new RuntimeException("Purchase order is required");
+        }
+        if (payment.getAmount() == null || payment.getAmount().signum() <= 0) {
+            throw new RuntimeException("Payment amount must be positive");
+        }
+        if (payment.getPaymentMethod() == null) {
+            throw new RuntimeException("Payment method is required");
+        }
+        payment.setTransactionReference(reference);
+        if (payment.getStatus() == null) {
+            payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        }
+        // Always a new row, whatever the caller sent
+        payment.setId(null);
+        payment.setVersion(null);
+
+        PaymentIngestionStatus previous = finished(reference);
+        if (previous == null) {
+            PaymentIngestionStatus queued = PaymentIngestionStatus.queued(reference,
+                    payment.getPurchaseOrder().getId(), payment.getAmount());
+            previous = inFlight.putIfAbsent(reference, queued);
+            if (previous == null) {
+                // The flush publishes to `completed` as it leaves `inFlight`; check again in case it just did
+                previous = finished(reference);
+                if (previous != null) {
+                    inFlight.remove(reference);
+                } else if (!queue.offer(payment)) {
+                    inFlight.remove(reference);
+                    queueFullCount.increment();
+                    throw new ServiceBusyException("Payment queue is full. Please retry shortly.", 1);
+                } else {
+                    acceptedCount.increment();
+                    return queued;
+                }
+            }
+        }
+        replayedCount.increment();
+        throw new DuplicatePaymentException(previous);
+    }
+
+    public PaymentIngestionStatus getStatus(String transactionReference) {
+        PaymentIngestionStatus status = inFlight.get(transactionReference);
+        if (status == null) {
+            status = completed.getIfPresent(transactionReference);
+        }
+        if (status == null) {
+            // Recorded before this process started (or before the retention window)
+            status = paymentRepository.findFirstByTransactionReference(transactionReference)
+                    .map(p -> PaymentIngestionStatus.recorded(transactionReference, p.getPurchaseOrder().getId(),
+                            p.getAmount(), p.getId(), p.getPaymentDate()))
+                    .orElseThrow(() -> new RuntimeException("No payment with transaction reference " + transactionReference));
+        }
+        return status;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    public void startFlushing() {
+        flusher.scheduleWithFixedDelay(() -> {
+            // An escaping exception would cancel every later run
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Payment ingest flush failed, retrying in {} ms", flushIntervalMs, e);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void flush() {
+        List<Payment> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            applyBatch(batch);
+            batch.clear();
+        }
+    }
+
+    // Apply what was accepted before the context goes away, once a running flush has finished
+    @PreDestroy
+    public void drainOnShutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.info("Applying {} queued payments before shutdown", queue.size());
+            flush();
+        }
+    }
+
+    private void applyBatch(List<Payment> batch) {
+        Map<Long, List<Payment>> byOrder = new LinkedHashMap<>();
+        for (Payment payment : batch) {
+            byOrder.computeIfAbsent(payment.getPurchaseOrder().getId(), id -> new ArrayList<>()).add(payment);
+        }
+
+        Map<String, PaymentIngestionStatus> results = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyOrders(byOrder, results));
+        } catch (RuntimeException e) {
+            // One failing order must not take the rest of the batch with it: redo order by order
+            log.warn("Payment batch of {} failed ({}), applying per order", batch.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            results.clear();
+            for (Map.Entry<Long, List<Payment>> entry : byOrder.entrySet()) {
+                // The rolled-back attempt may already have assigned ids/versions
+                for (Payment payment : entry.getValue()) {
+                    payment.setId(null);
+                    payment.setVersion(null);
+                }
+                Map<Long, List<Payment>> single = Map.of(entry.getKey(), entry.getValue());
+                Map<String, PaymentIngestionStatus> orderResults = new HashMap<>();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> applyOrders(single, orderResults));
+                    results.putAll(orderResults);
+                } catch (RuntimeException orderFailure) {
+                    String reason = NestedExceptionUtils.getMostSpecificCause(orderFailure).getMessage();
+                    for (Payment payment : entry.getValue()) {
+                        results.put(payment.getTransactionReference(),
+                                inFlight.get(payment.getTransactionReference()).rejected(reason));
+                    }
+                }
+            }
+        }
+
+        batchSizes.record(batch.size());
+        for (PaymentIngestionStatus result : results.values()) {
+            // Publish the outcome and drop the in-flight entry as one step: a resubmission's putIfAbsent on the
+            // same reference waits for it, then finds the outcome (a rejected payment is simply accepted again)
+            inFlight.computeIfPresent(result.getTransactionReference(), (reference, queued) -> {
+                completed.put(reference, result);
+                return null;
+            });
+            switch (result.getState()) {
+                case APPLIED -> appliedCount.increment();
+                case DUPLICATE -> duplicateCount.increment();
+                default -> rejectedCount.increment();
+            }
+        }
+    }
+
+    // Runs inside the batch transaction; fills results for every payment it was given
+    private void applyOrders(Map<Long, List<Payment>> byOrder, Map<String, PaymentIngestionStatus> results) {
+        List<String> references = new ArrayList<>();
+        byOrder.values().forEach(payments -> payments.forEach(p -> references.add(p.getTransactionReference())));
+        Set<String> recorded = new HashSet<>(paymentRepository.findExistingTransactionReferences(references));
+
+        Map<Long, PurchaseOrder> orders = new HashMap<>();
+        for (PurchaseOrder order : purchaseOrderRepository.findAllById(byOrder.keySet())) {
+            orders.put(order.getId(), order);
+        }
+
+        List<Payment> accepted = new ArrayList<>();
+        for (Map.Entry<Long, List<Payment>> entry : byOrder.entrySet()) {
+            PurchaseOrder order = orders.get(entry.getKey());
+            if (order == null) {
+                for (Payment payment : entry.getValue()) {
+                    reject(results, payment, "Purchase order not found: " + entry.getKey());
+                }
+                continue;
+            }
+            paymentService.ensureRunningTotals(order);
+
+            // Same rules as PaymentService.createPayment, applied to the payments in arrival order
+            BigDecimal outstanding = order.getOutstandingAmount();
+            BigDecimal booked = BigDecimal.ZERO;
+            for (Payment payment : entry.getValue()) {
+                String reference = payment.getTransactionReference();
+                if (recorded.contains(reference)) {
+                    results.put(reference, inFlight.get(reference).duplicate());
+                    continue;
+                }
+                boolean completes = payment.getStatus() == Payment.PaymentStatus.COMPLETED;
+                BigDecimal available = outstanding.subtract(booked);
+                if (payment.getAmount().compareTo(completes ? available : outstanding) > 0) {
+                    reject(results, payment, "Payment amount exceeds order total. Outstanding: " + available);
+                    continue;
+                }
+                if (completes) {
+                    booked = booked.add(payment.getAmount());
+                }
+                payment.setPurchaseOrder(order);
+                accepted.add(payment);
+            }
+
+            // One conditional UPDATE for the whole group. If a concurrent payment got there first this
+            // fails the batch, and the per-order retry re-reads the totals.
+            if (booked.signum() > 0 && purchaseOrderRepository.applyPayment(order.getId(), booked) == 0) {
+                throw new IllegalStateException("Outstanding balance of order " + order.getId()
+                        + " changed while applying payments");
+            }
+        }
+
+        paymentRepository.saveAll(accepted);
+        if (!accepted.isEmpty()) {
+            tableVersions.changed(TableVersions.Table.PAYMENTS, TableVersions.Table.ORDERS);
+        }
+        for (Payment payment : accepted) {
+            changeFeedService.paymentChanged(payment);
+            rollupRecorder.paymentCreated(payment);
+            results.put(payment.getTransactionReference(),
+                    inFlight.get(payment.getTransactionReference()).applied(payment.getId()));
+        }
+    }
+
+    // Outcome that blocks a resubmission; a rejected payment was never recorded and may be sent again
+    private PaymentIngestionStatus finished(String reference) {
+        PaymentIngestionStatus status = completed.getIfPresent(reference);
+        return status != null && status.getState() != PaymentIngestionStatus.State.REJECTED ? status : null;
+    }
+
+    private void reject(Map<String, PaymentIngestionStatus> results, Payment payment, String message) {
+        results.put(payment.getTransactionReference(), inFlight.get(payment.getTransactionReference()).rejected(message));
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.payments.ingest")
+                .description("Ingested payments by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,71 +1,276 @@
 package com.hrishikesh.inventory.service;
 
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.PaymentSummary;
 import com.hrishikesh.inventory.entity.Payment;
 import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.repository.KeysetPageRepository;
 import com.hrishikesh.inventory.repository.PaymentRepository;
 import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
-import jakarta.transaction.Transactional;
+import com.hrishikesh.inventory.repository.SortKey;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+// Every public method is timed as inventory.service{class,method}
 @Service
+@Timed(value = "inventory.service", histogram = true)
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+    private static final int RECONCILE_PAGE_SIZE = 1000;
+
     @Autowired
     private PaymentRepository paymentRepository;
 
     @Autowired
     private PurchaseOrderRepository purchaseOrderRepository;
 
+    @Autowired
+    private CursorPaging cursorPaging;
+
+    @Autowired
+    private KeysetPageRepository keysetPageRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private RollupRecorder rollupRecorder;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PaymentService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
     public List<Payment> getAllPayments() {
-        return paymentRepository.findAll();
+        return paymentRepository.findAllWithDetails();
+    }
+
+    public CursorPage<PaymentSummary> getPaymentsPage(String cursor, Integer size, String sort, String direction,
+                                                      Long orderId, Payment.PaymentStatus status,
+                                                      Payment.PaymentMethod method) {
+        int pageSize = cursorPaging.resolveSize(size);
+        SortKey<PaymentSummary> sortKey = cursorPaging.resolveSort(sort, KeysetPageRepository.PAYMENT_SORTS);
+        boolean descending = cursorPaging.isDescending(direction);
+
+        List<PaymentSummary> rows = keysetPageRepository.findPayments(orderId, status, method, sortKey,
+                cursorPaging.decodeCursor(cursor, sortKey), descending, cursorPaging.limit(pageSize));
+        return cursorPaging.page(rows, pageSize, sortKey, PaymentSummary::getId);
     }
 
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByOrder(Long orderId) {
         return paymentRepository.findByPurchaseOrderId(orderId);
     }
 
     @Transactional
     public Payment createPayment(Payment payment) {
-        // Validate purchase order exists
-        PurchaseOrder order = purchaseOrderRepository.findById(payment.getPurchaseOrder().getId())
-                .orElseThrow(
-                        () -> new RuntimeException("Purchase order not found: " + payment.getPurchaseOrder().getId()));
+        if (payment.getPurchaseOrder() == null || payment.getPurchaseOrder().getId() == null) {
+            throw new RuntimeException("Purchase order is required");
+        }
+        if (payment.getAmount() == null || payment.getAmount().signum() <= 0) {
+            throw new RuntimeException("Payment amount must be positive");
+        }
 
-        // Validate payment amount doesn't exceed order total
-        BigDecimal totalPaid = getTotalPaid(order.getId());
-        BigDecimal newTotal = totalPaid.add(payment.getAmount());
+        // Validate purchase order exists
+        Long orderId = payment.getPurchaseOrder().getId();
+        PurchaseOrder order = loadOrderWithRunningTotals(orderId);
 
-        if (newTotal.compareTo(order.getTotalAmount()) > 0) {
-            throw new RuntimeException("Payment amount exceeds order total. Outstanding: " +
-                    getOutstandingBalance(order.getId()));
+        if (payment.getStatus() == Payment.PaymentStatus.COMPLETED) {
+            // Validate and book the amount in one atomic statement, so concurrent payments can't overpay
+            applyToRunningTotals(order, payment.getAmount());
+        } else if (payment.getAmount().compareTo(order.getOutstandingAmount()) > 0) {
+            throw new RuntimeException("Payment amount exceeds order total. Outstanding: " + order.getOutstandingAmount());
         }
 
         payment.setPurchaseOrder(order);
-        return paymentRepository.save(payment);
+        Payment saved = paymentRepository.save(payment);
+        tableVersions.changed(TableVersions.Table.PAYMENTS, TableVersions.Table.ORDERS);
+        changeFeedService.paymentChanged(saved);
+        rollupRecorder.paymentCreated(saved);
+        return saved;
+    }
+
+    // Only COMPLETED payments count towards the order's paid amount
+    @Transactional
+    public Payment updatePaymentStatus(Long paymentId, Payment.PaymentStatus newStatus) {
+        if (newStatus == null) {
+            throw new RuntimeException("Payment status is required");
+        }
+        Payment payment = getPaymentById(paymentId);
+        Payment.PaymentStatus oldStatus = payment.getStatus();
+        if (oldStatus == newStatus) {
+            return payment;
+        }
+
+        boolean wasCompleted = oldStatus == Payment.PaymentStatus.COMPLETED;
+        boolean isCompleted = newStatus == Payment.PaymentStatus.COMPLETED;
+        if (wasCompleted != isCompleted) {
+            PurchaseOrder order = loadOrderWithRunningTotals(payment.getPurchaseOrder().getId());
+            applyToRunningTotals(order, isCompleted ? payment.getAmount() : payment.getAmount().negate());
+        }
+
+        payment.setStatus(newStatus);
+        Payment saved = paymentRepository.save(payment);
+        tableVersions.changed(TableVersions.Table.PAYMENTS, TableVersions.Table.ORDERS);
+        changeFeedService.paymentChanged(saved);
+        rollupRecorder.paymentStatusChanged(saved, oldStatus);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal getTotalPaid(Long orderId) {
-        List<Payment> payments = paymentRepository.findByPurchaseOrderId(orderId);
-        return payments.stream()
-                .filter(p -> p.getStatus() == Payment.PaymentStatus.COMPLETED)
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return readRunningTotals(orderId).paid();
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal getOutstandingBalance(Long orderId) {
-        PurchaseOrder order = purchaseOrderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Purchase order not found: " + orderId));
+        return readRunningTotals(orderId).outstanding();
+    }
 
-        BigDecimal totalPaid = getTotalPaid(orderId);
-        return order.getTotalAmount().subtract(totalPaid);
+    // Single order lookup for both figures (the summary endpoint used to scan payments twice)
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getPaymentSummary(Long orderId) {
+        RunningTotals totals = readRunningTotals(orderId);
+        Map<String, BigDecimal> summary = new HashMap<>();
+        summary.put("totalPaid", totals.paid());
+        summary.put("outstanding", totals.outstanding());
+        return summary;
     }
 
     public Payment getPaymentById(Long id) {
         return paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found: " + id));
     }
+
+    // Recomputes paid/outstanding with a database-side SUM and fixes any order that drifted.
+    // Corrections are conditional on the version read here, so a payment booked meanwhile always wins.
+    // Each page commits on its own: locks and undo are held for one page, not for the whole table.
+    @Scheduled(fixedDelayString = "${inventory.payments.reconcile-interval-ms:900000}")
+    public void reconcileRunningTotals() {
+        int corrected = 0;
+        long cursor = 0L;
+        ReconciledPage page;
+        while ((page = reconcilePage(cursor)) != null) {
+            corrected += page.corrected();
+            cursor = page.lastOrderId();
+        }
+        if (corrected > 0) {
+            log.info("Reconciled payment totals on {} purchase orders", corrected);
+        }
+    }
+
+    // null once there are no orders after the cursor
+    private ReconciledPage reconcilePage(long cursor) {
+        return transactionTemplate.execute(status -> {
+            List<Object[]> orders = purchaseOrderRepository.findRunningTotalsPage(cursor,
+                    PageRequest.of(0, RECONCILE_PAGE_SIZE));
+            if (orders.isEmpty()) {
+                return null;
+            }
+
+            List<Long> orderIds = new ArrayList<>();
+            for (Object[] row : orders) {
+                orderIds.add((Long) row[0]);
+            }
+            Map<Long, BigDecimal> paidByOrder = new HashMap<>();
+            for (Object[] row : paymentRepository.sumAmountByOrders(Payment.PaymentStatus.COMPLETED, orderIds)) {
+                paidByOrder.put((Long) row[0], (BigDecimal) row[1]);
+            }
+
+            int corrected = 0;
+            for (Object[] row : orders) {
+                Long orderId = (Long) row[0];
+                BigDecimal total = row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+                BigDecimal paid = paidByOrder.getOrDefault(orderId, BigDecimal.ZERO);
+                BigDecimal outstanding = total.subtract(paid);
+                if (!sameAmount((BigDecimal) row[2], paid) || !sameAmount((BigDecimal) row[3], outstanding)) {
+                    corrected += purchaseOrderRepository.correctRunningTotals(orderId, (Long) row[4], paid,
+                            outstanding);
+                }
+            }
+            if (corrected > 0) {
+                tableVersions.changed(TableVersions.Table.ORDERS);
+            }
+            return new ReconciledPage(corrected, orderIds.get(orderIds.size() - 1));
+        });
+    }
+
+    // Orders created before running totals existed: seed them once from the payments table.
+    // Must run inside the caller's transaction (the order is refreshed in its persistence context).
+    public void ensureRunningTotals(PurchaseOrder order) {
+        if (order.getPaidAmount() == null || order.getOutstandingAmount() == null) {
+            BigDecimal paid = paymentRepository.sumAmountByOrder(order.getId(), Payment.PaymentStatus.COMPLETED);
+            purchaseOrderRepository.initializeRunningTotals(order.getId(), paid);
+            tableVersions.changed(TableVersions.Table.ORDERS);
+            entityManager.refresh(order);
+        }
+    }
+
+    // Never writes, so it may run on a replica: an order without running totals yet is summed on the
+    // fly instead of seeded here (the reconcile job or the next payment seeds it)
+    private RunningTotals readRunningTotals(Long orderId) {
+        PurchaseOrder order = purchaseOrderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Purchase order not found: " + orderId));
+        BigDecimal paid = order.getPaidAmount();
+        BigDecimal outstanding = order.getOutstandingAmount();
+        if (paid == null || outstanding == null) {
+            paid = paymentRepository.sumAmountByOrder(orderId, Payment.PaymentStatus.COMPLETED);
+            BigDecimal total = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+            outstanding = total.subtract(paid);
+        }
+        return new RunningTotals(paid, outstanding);
+    }
+
+    private PurchaseOrder loadOrderWithRunningTotals(Long orderId) {
+        PurchaseOrder order = purchaseOrderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Purchase order not found: " + orderId));
+        ensureRunningTotals(order);
+        return order;
+    }
+
+    // amount may be negative (a completed payment being reversed)
+    private void applyToRunningTotals(PurchaseOrder order, BigDecimal amount) {
+        int updated = purchaseOrderRepository.applyPayment(order.getId(), amount);
+        entityManager.refresh(order);
+        if (updated == 0) {
+            throw new RuntimeException("Payment amount exceeds order total. Outstanding: " + order.getOutstandingAmount());
+        }
+    }
+
+    private boolean sameAmount(BigDecimal stored, BigDecimal expected) {
+        return stored != null && stored.compareTo(expected) == 0;
+    }
+
+    private record RunningTotals(BigDecimal paid, BigDecimal outstanding) {
+    }
+
+    private record ReconciledPage(int corrected, long lastOrderId) {
+    }
 }
@@ -0,0 +1,170 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through product cache keyed by id, plus a SKU -> id index (SKUs never change, so that one is
+// only bounded by size/TTL). Size, TTL and eviction policy come from spring.cache.caffeine.spec;
+// spring.cache.type=none turns caching off and every lookup goes to the database.
+// Cached products are shared detached copies: treat them as read-only. Stock changes evict them.
+@Component
+public class ProductCatalogCache {
+
+    static final String PRODUCTS = "products";
+    static final String PRODUCT_SKUS = "productSkus";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Bumped on every eviction. A load that raced with an eviction is returned but not cached, so a
+    // value read before a concurrent commit can't be put back after that commit evicted it.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public Optional<Product> findById(Long id) {
+        Cache products = cache(PRODUCTS);
+        Product cached = products != null ? products.get(id, Product.class) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        Optional<Product> loaded = productRepository.findById(id);
+        loaded.ifPresent(product -> put(product, generation));
+        return loaded;
+    }
+
+    public Optional<Product> findBySku(String sku) {
+        Cache skus = cache(PRODUCT_SKUS);
+        Long id = skus != null ? skus.get(sku, Long.class) : null;
+        if (id != null) {
+            Optional<Product> product = findById(id);
+            if (product.isPresent()) {
+                return product;
+            }
+        }
+        long generation = invalidations.get();
+        Optional<Product> loaded = productRepository.findBySku(sku);
+        loaded.ifPresent(product -> put(product, generation));
+        return loaded;
+    }
+
+    // Cache hits plus one IN query for the misses; unknown ids are simply absent from the result
+    public Map<Long, Product> findAllById(Collection<Long> ids) {
+        Map<Long, Product> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        Cache products = cache(PRODUCTS);
+        for (Long id : ids) {
+            Product cached = products != null ? products.get(id, Product.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = invalidations.get();
+            for (Product product : productRepository.findAllById(missing)) {
+                found.put(product.getId(), product);
+                put(product, generation);
+            }
+        }
+        return found;
+    }
+
+    // Applied once the surrounding transaction commits (immediately when there is none)
+    public void evict(Long productId) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            Cache products = cache(PRODUCTS);
+            if (products != null) {
+                products.evict(productId);
+            }
+        });
+    }
+
+    public void evictAll(Collection<Long> productIds) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            Cache products = cache(PRODUCTS);
+            if (products != null) {
+                productIds.forEach(products::evict);
+            }
+        });
+    }
+
+    // Hit/miss/eviction counters per cache (Caffeine only; other cache types report enabled=false)
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put(PRODUCTS, stats(cache(PRODUCTS)));
+        stats.put(PRODUCT_SKUS, stats(cache(PRODUCT_SKUS)));
+        return stats;
+    }
+
+    private Map<String, Object> stats(Cache cache) {
+        Map<String, Object> result = new HashMap<>();
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            result.put("enabled", false);
+            return result;
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+        com.github.benmanes.caffeine.cache.stats.CacheStats cacheStats = nativeCache.stats();
+        result.put("enabled", true);
+        result.put("size", nativeCache.estimatedSize());
+        result.put("hits", cacheStats.hitCount());
+        result.put("misses", cacheStats.missCount());
+        result.put("hitRate", cacheStats.hitRate());
+        result.put("evictions", cacheStats.evictionCount());
+        return result;
+    }
+
+    private void put(Product product, long generation) {
+        if (invalidations.get() != generation) {
+            return;
+        }
+        Cache products = cache(PRODUCTS);
+        Cache skus = cache(PRODUCT_SKUS);
+        if (products != null) {
+            products.put(product.getId(), copyOf(product));
+        }
+        if (skus != null && product.getSku() != null) {
+            skus.put(product.getSku(), product.getId());
+        }
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    // Loaded instances may be managed by the caller's persistence context; the cache keeps its own copy
+    private Product copyOf(Product product) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setName(product.getName());
+        copy.setSku(product.getSku());
+        copy.setDescription(product.getDescription());
+        copy.setUnitPrice(product.getUnitPrice());
+        copy.setCurrentStock(product.getCurrentStock());
+        copy.setLowStockThreshold(product.getLowStockThreshold());
+        copy.setMaxStockLevel(product.getMaxStockLevel());
+        copy.setPreferredVendorId(product.getPreferredVendorId());
+        copy.setLastUpdated(product.getLastUpdated());
+        copy.setVersion(product.getVersion());
+        return copy;
+    }
+}
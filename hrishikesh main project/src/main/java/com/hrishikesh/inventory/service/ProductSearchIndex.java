@@ -0,0 +1,767 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.dto.ProductSearchResult;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.exception.ServiceBusyException;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process search over product name, SKU and description (/api/products/search), so buyers no longer
+// download the whole catalog to filter it in the browser.
+//
+// Text is split into lower-case letter/digit terms. The term dictionary is sorted, so a prefix is a range
+// scan over it. Typo tolerance finds candidate terms through shared trigrams and confirms them with a
+// bounded edit distance (1 edit from 4 letters, 2 from 8; terms containing digits, i.e. most SKU parts,
+// only match exactly or by prefix). Each posting records which fields hold the term, so an SKU hit ranks
+// above a name hit, which ranks above a description hit. Every query term has to match.
+//
+// Products get dense ordinals as they are added. A text query collects the ordinals each of its terms
+// matches from the postings into sorted arrays and intersects them, so its facets and top hits are
+// computed over the matches only and it costs what it matches, not what the catalog holds; only a query
+// without text scans every product. Searches share a read lock; changes (new products, stock levels)
+// take the write lock once their transaction commits.
+//
+// The index is loaded at startup and refreshed on an interval by reading the products table a page at a
+// time, tokenizing each page in parallel while the next one is fetched. The refresh also corrects drift
+// (rows changed outside the app) but never overwrites an entry changed after its page was read. Until
+// the first load completes, searches are answered with 503. Products deleted outside the app stay
+// indexed until restart.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final byte SKU = 1;
+    private static final byte NAME = 2;
+    private static final byte DESCRIPTION = 4;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.75f;
+    private static final float ONE_EDIT = 0.5f;
+    private static final float TWO_EDITS = 0.3f;
+
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_TERM_LENGTH = 40;
+    // Expansions per query term: the first ones in dictionary order for a prefix, the closest for typos
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_FUZZY_EXPANSIONS = 16;
+
+    private final ProductRepository productRepository;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final int refreshPageSize;
+    private final int maxResults;
+    private final BigDecimal[] priceBounds;
+    private final String[] priceLabels;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Doc[] docs = new Doc[1024];
+    private int docCount;
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final Map<String, List<String>> termsByTrigram = new HashMap<>();
+
+    // Incremented by every incremental change; a refresh page only overwrites entries not changed since
+    // the page was read
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-search-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRefreshedAt;
+
+    private final Timer searchTimer;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              DashboardStatsCache dashboardStatsCache,
+                              @Value("${inventory.search.refresh-page-size:5000}") int refreshPageSize,
+                              @Value("${inventory.search.max-results:100}") int maxResults,
+                              @Value("${inventory.search.price-buckets:100,500,1000,5000}") BigDecimal[] priceBounds,
+                              MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.dashboardStatsCache = dashboardStatsCache;
+        this.refreshPageSize = refreshPageSize;
+        this.maxResults = maxResults;
+        this.priceBounds = priceBounds;
+        this.priceLabels = new String[priceBounds.length + 1];
+        BigDecimal lower = BigDecimal.ZERO;
+        for (int i = 0; i < priceBounds.length; i++) {
+            priceLabels[i] = lower.toPlainString() + "-" + priceBounds[i].toPlainString();
+            lower = priceBounds[i];
+        }
+        priceLabels[priceBounds.length] = lower.toPlainString() + "+";
+
+        this.searchTimer = Timer.builder("inventory.products.search")
+                .description("Product search index queries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("inventory.products.search.indexed", this, ProductSearchIndex::indexedCount)
+                .description("Products in the search index")
+                .register(meterRegistry);
+    }
+
+    public ProductSearchResult search(String query, Integer minStock, Integer maxStock,
+                                      BigDecimal minPrice, BigDecimal maxPrice, Integer limit) {
+        if (!ready) {
+            throw new ServiceBusyException("Product search index is still loading. Please retry shortly.", 5);
+        }
+        long started = System.nanoTime();
+        int size = limit == null || limit <= 0 ? 20 : Math.min(limit, maxResults);
+        List<String> queryTerms = new ArrayList<>(terms(query));
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        ProductSearchResult result;
+        lock.readLock().lock();
+        try {
+            result = collect(query, queryTerms, minStock, maxStock, minPrice, maxPrice, size, started);
+        } finally {
+            lock.readLock().unlock();
+        }
+        searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    // New products (single creates and bulk imports), indexed once their transaction commits
+    public void productsSaved(Collection<Product> products) {
+        List<Entry> entries = new ArrayList<>(products.size());
+        for (Product product : products) {
+            entries.add(Entry.of(new Doc(product.getId(), product.getName(), product.getSku(),
+                    product.getDescription(), product.getUnitPrice(), product.getCurrentStock(),
+                    product.getLowStockThreshold(), 0)));
+        }
+        AfterCommit.run(() -> apply(entries, Long.MAX_VALUE));
+    }
+
+    // New stock levels by product id, applied once the transaction commits
+    public void stockChanged(Map<Long, Integer> stockByProduct) {
+        Map<Long, Integer> levels = new HashMap<>(stockByProduct);
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+                    Integer ordinal = ordinalsById.get(level.getKey());
+                    if (ordinal != null) {
+                        docs[ordinal] = docs[ordinal].withStock(level.getValue(), changeSequence.incrementAndGet());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("products", docCount);
+            stats.put("terms", postingsByTerm.size());
+            stats.put("lastRefreshedAt", lastRefreshedAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        scheduleRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.search.refresh-interval-ms:3600000}",
+            initialDelayString = "${inventory.search.refresh-interval-ms:3600000}")
+    public void refreshPeriodically() {
+        scheduleRefresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    // Runs on its own thread so a long load never holds up the shared scheduler threads
+    private void scheduleRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(this::refresh);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private void refresh() {
+        long started = System.nanoTime();
+        int loaded = 0;
+        try {
+            long cursor = 0;
+            CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+            while (true) {
+                long readAt = changeSequence.get();
+                List<Object[]> rows = productRepository.findSearchRowsAfter(cursor, PageRequest.of(0, refreshPageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                // One page is tokenized (in parallel) and merged while the next one is read
+                inFlight.join();
+                inFlight = CompletableFuture.runAsync(() -> apply(rows.parallelStream()
+                        .map(row -> Entry.of(Doc.of(row, readAt)))
+                        .toList(), readAt));
+                loaded += rows.size();
+                cursor = (Long) rows.get(rows.size() - 1)[0];
+                if (rows.size() < refreshPageSize) {
+                    break;
+                }
+            }
+            inFlight.join();
+            ready = true;
+            lastRefreshedAt = LocalDateTime.now();
+            log.info("Product search index refreshed: {} products in {} ms", loaded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.warn("Product search index refresh failed after {} products: {}", loaded, e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    // snapshot is the change sequence the entries were read at (Long.MAX_VALUE for incremental changes)
+    private void apply(List<Entry> entries, long snapshot) {
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : entries) {
+                Doc doc = snapshot == Long.MAX_VALUE ? entry.doc.changedAt(changeSequence.incrementAndGet()) : entry.doc;
+                Integer ordinal = ordinalsById.get(doc.id);
+                if (ordinal == null) {
+                    ordinal = append(doc);
+                    addPostings(ordinal, entry.fieldsByTerm);
+                    continue;
+                }
+                Doc existing = docs[ordinal];
+                if (existing.changedAt > snapshot) {
+                    continue;
+                }
+                docs[ordinal] = doc;
+                if (!existing.sameText(doc)) {
+                    removePostings(ordinal, fieldsByTerm(existing));
+                    addPostings(ordinal, entry.fieldsByTerm);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(Doc doc) {
+        if (docCount == docs.length) {
+            Doc[] grown = new Doc[docs.length * 2];
+            System.arraycopy(docs, 0, grown, 0, docCount);
+            docs = grown;
+        }
+        docs[docCount] = doc;
+        ordinalsById.put(doc.id, docCount);
+        return docCount++;
+    }
+
+    private void addPostings(int ordinal, Map<String, Byte> fieldsByTerm) {
+        for (Map.Entry<String, Byte> term : fieldsByTerm.entrySet()) {
+            Postings postings = postingsByTerm.get(term.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTerm.put(term.getKey(), postings);
+                if (isFuzzyTerm(term.getKey())) {
+                    for (String trigram : trigrams(term.getKey())) {
+                        termsByTrigram.computeIfAbsent(trigram, key -> new ArrayList<>()).add(term.getKey());
+                    }
+                }
+            }
+            postings.add(ordinal, term.getValue());
+        }
+    }
+
+    private void removePostings(int ordinal, Map<String, Byte> fieldsByTerm) {
+        for (String term : fieldsByTerm.keySet()) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings == null || !postings.remove(ordinal) || postings.size > 0) {
+                continue;
+            }
+            postingsByTerm.remove(term);
+            if (isFuzzyTerm(term)) {
+                for (String trigram : trigrams(term)) {
+                    List<String> terms = termsByTrigram.get(trigram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    // Caller holds the read lock
+    private ProductSearchResult collect(String query, List<String> queryTerms, Integer minStock, Integer maxStock,
+                                        BigDecimal minPrice, BigDecimal maxPrice, int size, long started) {
+        // Without query text every product is a candidate: position i is ordinal i, and all scores are 0
+        Matches matches = queryTerms.isEmpty() ? null : match(queryTerms);
+        int candidates = matches != null ? matches.size : docCount;
+
+        // Positions of the best candidates so far, lowest-ranked on top
+        PriorityQueue<Integer> top = new PriorityQueue<>(size + 1, (a, b) -> {
+            float scoreA = matches != null ? matches.scores[a] : 0;
+            float scoreB = matches != null ? matches.scores[b] : 0;
+            if (scoreA != scoreB) {
+                return Float.compare(scoreA, scoreB);
+            }
+            return Long.compare(docs[ordinal(matches, b)].id, docs[ordinal(matches, a)].id);
+        });
+        long[] stockCounts = new long[3];
+        long[] priceCounts = new long[priceLabels.length + 1];
+        long total = 0;
+        for (int position = 0; position < candidates; position++) {
+            Doc doc = docs[ordinal(matches, position)];
+            boolean stockOk = inRange(doc.currentStock, minStock, maxStock);
+            boolean priceOk = inRange(doc.unitPrice, minPrice, maxPrice);
+            if (priceOk) {
+                stockCounts[stockBucket(doc)]++;
+            }
+            if (stockOk) {
+                priceCounts[priceBucket(doc)]++;
+            }
+            if (stockOk && priceOk) {
+                total++;
+                top.offer(position);
+                if (top.size() > size) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<ProductSearchResult.Hit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int position = top.poll();
+            Doc doc = docs[ordinal(matches, position)];
+            hits.add(0, new ProductSearchResult.Hit(doc.id, doc.name, doc.sku, doc.description, doc.unitPrice,
+                    doc.currentStock, doc.lowStockThreshold, matches != null ? matches.scores[position] : 0));
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        Map<String, Long> stock = new LinkedHashMap<>();
+        stock.put("outOfStock", stockCounts[0]);
+        stock.put("lowStock", stockCounts[1]);
+        stock.put("inStock", stockCounts[2]);
+        facets.put("stock", stock);
+        Map<String, Long> price = new LinkedHashMap<>();
+        for (int i = 0; i < priceLabels.length; i++) {
+            price.put(priceLabels[i], priceCounts[i]);
+        }
+        price.put("unpriced", priceCounts[priceLabels.length]);
+        facets.put("price", price);
+
+        long tookMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+        return new ProductSearchResult(query, total, hits, facets, tookMicros);
+    }
+
+    // Products matching every query term, each scored with the sum of its best weight per term
+    private Matches match(List<String> queryTerms) {
+        Matches matches = null;
+        for (String queryTerm : queryTerms) {
+            Matches termMatches = termMatches(queryTerm);
+            matches = matches == null ? termMatches : matches.intersect(termMatches);
+            if (matches.size == 0) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    // Products matching one query term through any of its expansions, with the best weight among them
+    private Matches termMatches(String queryTerm) {
+        Map<String, Float> expansions = expand(queryTerm);
+        int hits = 0;
+        for (String term : expansions.keySet()) {
+            hits += postingsByTerm.get(term).size;
+        }
+        // Ordinal in the high half, score bits in the low half: positive floats order like their bits,
+        // so after sorting, the last entry of each ordinal carries its best score
+        long[] keyed = new long[hits];
+        int n = 0;
+        for (Map.Entry<String, Float> expansion : expansions.entrySet()) {
+            Postings postings = postingsByTerm.get(expansion.getKey());
+            for (int i = 0; i < postings.size; i++) {
+                float score = expansion.getValue() * fieldWeight(postings.fields[i]);
+                keyed[n++] = (long) postings.ordinals[i] << 32 | (Float.floatToIntBits(score) & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(keyed);
+
+        Matches matches = new Matches(hits);
+        for (int i = 0; i < hits; i++) {
+            int ordinal = (int) (keyed[i] >>> 32);
+            if (i + 1 < hits && (int) (keyed[i + 1] >>> 32) == ordinal) {
+                continue;
+            }
+            matches.add(ordinal, Float.intBitsToFloat((int) keyed[i]));
+        }
+        return matches;
+    }
+
+    private static int ordinal(Matches matches, int position) {
+        return matches != null ? matches.ordinals[position] : position;
+    }
+
+    // Dictionary terms a query term stands for, with their match weight
+    private Map<String, Float> expand(String queryTerm) {
+        Map<String, Float> weights = new HashMap<>();
+        int expansions = 0;
+        for (String term : postingsByTerm.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).keySet()) {
+            if (term.length() == queryTerm.length()) {
+                weights.put(term, EXACT);
+            } else if (expansions++ < MAX_PREFIX_EXPANSIONS) {
+                weights.put(term, PREFIX);
+            } else {
+                break;
+            }
+        }
+        int maxEdits = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0 && isFuzzyTerm(queryTerm)) {
+            fuzzyMatches(queryTerm, maxEdits).forEach((term, edits) ->
+                    weights.putIfAbsent(term, edits == 1 ? ONE_EDIT : TWO_EDITS));
+        }
+        return weights;
+    }
+
+    private Map<String, Integer> fuzzyMatches(String queryTerm, int maxEdits) {
+        Set<String> trigrams = trigrams(queryTerm);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            for (String term : termsByTrigram.getOrDefault(trigram, List.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        // Every edit changes at most three trigrams
+        int needed = Math.max(1, trigrams.size() - 3 * maxEdits);
+        List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String term = candidate.getKey();
+            if (candidate.getValue() < needed || Math.abs(term.length() - queryTerm.length()) > maxEdits) {
+                continue;
+            }
+            int edits = editDistance(queryTerm, term, maxEdits);
+            if (edits > 0 && edits <= maxEdits) {
+                matches.add(Map.entry(term, edits));
+            }
+        }
+        matches.sort(Map.Entry.comparingByValue());
+        Map<String, Integer> closest = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> match : matches.subList(0, Math.min(matches.size(), MAX_FUZZY_EXPANSIONS))) {
+            closest.put(match.getKey(), match.getValue());
+        }
+        return closest;
+    }
+
+    // Optimal string alignment distance (a swap of neighbours is one edit); anything over max is max + 1
+    private static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private int stockBucket(Doc doc) {
+        int stock = doc.currentStock != null ? doc.currentStock : 0;
+        if (stock <= 0) {
+            return 0;
+        }
+        return dashboardStatsCache.isLowStock(stock, doc.lowStockThreshold) ? 1 : 2;
+    }
+
+    private int priceBucket(Doc doc) {
+        if (doc.unitPrice == null) {
+            return priceLabels.length;
+        }
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (doc.unitPrice.compareTo(priceBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.length;
+    }
+
+    private int indexedCount() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        int v = value != null ? value : 0;
+        return (min == null || v >= min) && (max == null || v <= max);
+    }
+
+    private static boolean inRange(BigDecimal value, BigDecimal min, BigDecimal max) {
+        if (value == null) {
+            return min == null && max == null;
+        }
+        return (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private static float fieldWeight(byte fields) {
+        if ((fields & SKU) != 0) {
+            return 3;
+        }
+        return (fields & NAME) != 0 ? 2 : 1;
+    }
+
+    // Digits rarely come from typos (and SKU numbers would swamp the trigram table), so only letters
+    private static boolean isFuzzyTerm(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isLetter(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Padded with word boundaries, so edits near the start or end of short words still share a trigram
+    private static Set<String> trigrams(String term) {
+        String padded = "^" + term + "$";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(c);
+                }
+            } else if (term.length() > 0) {
+                terms.add(term.toString().toLowerCase(Locale.ROOT));
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    private static Map<String, Byte> fieldsByTerm(Doc doc) {
+        Map<String, Byte> fields = new HashMap<>();
+        for (String term : terms(doc.sku)) {
+            fields.merge(term, SKU, (a, b) -> (byte) (a | b));
+        }
+        for (String term : terms(doc.name)) {
+            fields.merge(term, NAME, (a, b) -> (byte) (a | b));
+        }
+        for (String term : terms(doc.description)) {
+            fields.merge(term, DESCRIPTION, (a, b) -> (byte) (a | b));
+        }
+        return fields;
+    }
+
+    // Ordinals (with the fields holding the term) in insertion order; only touched under the write lock
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+        private byte[] fields = new byte[2];
+        private int size;
+
+        private void add(int ordinal, byte field) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ordinals[size] = ordinal;
+            fields[size] = field;
+            size++;
+        }
+
+        private boolean remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    fields[i] = fields[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Matching ordinals in ascending order, with their scores; local to one query
+    private static final class Matches {
+
+        private final int[] ordinals;
+        private final float[] scores;
+        private int size;
+
+        private Matches(int capacity) {
+            ordinals = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        private void add(int ordinal, float score) {
+            ordinals[size] = ordinal;
+            scores[size] = score;
+            size++;
+        }
+
+        // Ordinals present in both, scores added
+        private Matches intersect(Matches other) {
+            Matches both = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ordinals[i] < other.ordinals[j]) {
+                    i++;
+                } else if (ordinals[i] > other.ordinals[j]) {
+                    j++;
+                } else {
+                    both.add(ordinals[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return both;
+        }
+    }
+
+    // The indexed state of one product; replaced, never modified
+    private static final class Doc {
+
+        private final Long id;
+        private final String name;
+        private final String sku;
+        private final String description;
+        private final BigDecimal unitPrice;
+        private final Integer currentStock;
+        private final Integer lowStockThreshold;
+        private final long changedAt;
+
+        private Doc(Long id, String name, String sku, String description, BigDecimal unitPrice,
+                    Integer currentStock, Integer lowStockThreshold, long changedAt) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.description = description;
+            this.unitPrice = unitPrice;
+            this.currentStock = currentStock;
+            this.lowStockThreshold = lowStockThreshold;
+            this.changedAt = changedAt;
+        }
+
+        // Row of ProductRepository.findSearchRowsAfter
+        private static Doc of(Object[] row, long changedAt) {
+            return new Doc((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (BigDecimal) row[4],
+                    (Integer) row[5], (Integer) row[6], changedAt);
+        }
+
+        private Doc withStock(Integer stock, long changedAt) {
+            return new Doc(id, name, sku, description, unitPrice, stock, lowStockThreshold, changedAt);
+        }
+
+        private Doc changedAt(long sequence) {
+            return new Doc(id, name, sku, description, unitPrice, currentStock, lowStockThreshold, sequence);
+        }
+
+        private boolean sameText(Doc other) {
+            return Objects.equals(name, other.name) && Objects.equals(sku, other.sku)
+                    && Objects.equals(description, other.description);
+        }
+    }
+
+    // A document with its terms, tokenized before the write lock is taken
+    private static final class Entry {
+
+        private final Doc doc;
+        private final Map<String, Byte> fieldsByTerm;
+
+        private Entry(Doc doc, Map<String, Byte> fieldsByTerm) {
+            this.doc = doc;
+            this.fieldsByTerm = fieldsByTerm;
+        }
+
+        private static Entry of(Doc doc) {
+            return new Entry(doc, fieldsByTerm(doc));
+        }
+    }
+}
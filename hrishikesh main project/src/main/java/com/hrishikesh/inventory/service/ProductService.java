@@ -1,11 +1,19 @@
 package com.hrishikesh.inventory.service;
 
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.ProductSearchResult;
 import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.repository.KeysetPageRepository;
 import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.repository.SortKey;
+import com.hrishikesh.inventory.repository.VendorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProductService {
@@ -13,19 +21,87 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private CursorPaging cursorPaging;
+
+    @Autowired
+    private KeysetPageRepository keysetPageRepository;
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private StockColumns stockColumns;
+
+    public Map<String, Object> getCacheStats() {
+        return productCatalogCache.getStats();
+    }
+
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    public CursorPage<Product> getProductsPage(String cursor, Integer size, String sort, String direction,
+                                               String search, Integer minStock, Integer maxStock) {
+        int pageSize = cursorPaging.resolveSize(size);
+        SortKey<Product> sortKey = cursorPaging.resolveSort(sort, KeysetPageRepository.PRODUCT_SORTS);
+        boolean descending = cursorPaging.isDescending(direction);
+
+        List<Product> rows = keysetPageRepository.findProducts(cursorPaging.likePattern(search), minStock, maxStock,
+                sortKey, cursorPaging.decodeCursor(cursor, sortKey), descending, cursorPaging.limit(pageSize));
+        return cursorPaging.page(rows, pageSize, sortKey, Product::getId);
+    }
+
+    @Transactional
     public Product createProduct(Product product) {
-        if (productRepository.findBySku(product.getSku()).isPresent()) {
+        if (productCatalogCache.findBySku(product.getSku()).isPresent()) {
             throw new RuntimeException("Product with SKU " + product.getSku() + " already exists");
         }
-        return productRepository.save(product);
+        Long vendorId = product.getPreferredVendorId();
+        if (vendorId != null && !vendorRepository.existsById(vendorId)) {
+            throw new RuntimeException("Vendor not found with id: " + vendorId);
+        }
+        Product saved = productRepository.save(product);
+        stockLedgerService.recordOpeningBalance(saved);
+        dashboardStatsCache.productCreated(saved);
+        tableVersions.changed(TableVersions.Table.PRODUCTS);
+        changeFeedService.productCreated(saved);
+        productSearchIndex.productsSaved(List.of(saved));
+        stockColumns.productsSaved(List.of(saved));
+        return saved;
+    }
+
+    public ProductSearchResult searchProducts(String query, Integer minStock, Integer maxStock,
+                                              BigDecimal minPrice, BigDecimal maxPrice, Integer limit) {
+        return productSearchIndex.search(query, minStock, maxStock, minPrice, maxPrice, limit);
+    }
+
+    public Map<String, Object> getSearchStats() {
+        return productSearchIndex.getStats();
     }
 
+    // Served from the catalog cache; stock changes evict the entry once they commit
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
+        return productCatalogCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 }
@@ -1,46 +1,157 @@
 package com.hrishikesh.inventory.service;
 
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.DeliveryNote;
+import com.hrishikesh.inventory.dto.DeliveryReceipt;
+import com.hrishikesh.inventory.dto.OrderSummary;
+import com.hrishikesh.inventory.entity.GoodsDelivery;
 import com.hrishikesh.inventory.entity.OrderItem;
 import com.hrishikesh.inventory.entity.Product;
 import com.hrishikesh.inventory.entity.PurchaseOrder;
-import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.repository.GoodsDeliveryRepository;
+import com.hrishikesh.inventory.repository.KeysetPageRepository;
 import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
-import jakarta.transaction.Transactional;
+import com.hrishikesh.inventory.repository.SortKey;
+import com.hrishikesh.inventory.repository.VendorRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+// Every public method is timed as inventory.service{class,method}
 @Service
+@Timed(value = "inventory.service", histogram = true)
 public class PurchaseOrderService {
 
     @Autowired
     private PurchaseOrderRepository poRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private VendorRepository vendorRepository;
 
+    @Autowired
+    private GoodsDeliveryRepository goodsDeliveryRepository;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CursorPaging cursorPaging;
+
+    @Autowired
+    private KeysetPageRepository keysetPageRepository;
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private RollupRecorder rollupRecorder;
+
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getAllOrders() {
-        return poRepository.findAll();
+        return poRepository.findAllWithDetails();
+    }
+
+    public PurchaseOrder getOrderById(Long id) {
+        return poRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + id));
+    }
+
+    public CursorPage<OrderSummary> getOrdersPage(String cursor, Integer size, String sort, String direction,
+                                                   PurchaseOrder.OrderStatus status, Long vendorId,
+                                                   LocalDate from, LocalDate to) {
+        int pageSize = cursorPaging.resolveSize(size);
+        SortKey<OrderSummary> sortKey = cursorPaging.resolveSort(sort, KeysetPageRepository.ORDER_SORTS);
+        boolean descending = cursorPaging.isDescending(direction);
+        // Date filters are inclusive days: [from 00:00, to+1 00:00)
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        List<OrderSummary> rows = keysetPageRepository.findOrders(status, vendorId, fromTime, toTime, sortKey,
+                cursorPaging.decodeCursor(cursor, sortKey), descending, cursorPaging.limit(pageSize));
+        return cursorPaging.page(rows, pageSize, sortKey, OrderSummary::getId);
     }
 
     @Transactional
     public PurchaseOrder createOrder(PurchaseOrder order) {
+        if (order.getVendor() == null || order.getVendor().getId() == null) {
+            throw new RuntimeException("Vendor is required");
+        }
+        // The request only carries the vendor id; load it so the response and change event have its name
+        Long vendorId = order.getVendor().getId();
+        Vendor vendor = vendorRepository.findById(vendorId)
+                .orElseThrow(() -> new RuntimeException("Vendor not found with id: " + vendorId));
+        order.setVendor(vendor);
         // Link items to order
         if (order.getItems() != null) {
+            Set<Long> productIds = new HashSet<>();
+            for (OrderItem item : order.getItems()) {
+                productIds.add(item.getProduct().getId());
+            }
+            // All lines checked with cache hits plus at most one IN query, not one findById per line
+            Map<Long, Product> products = productCatalogCache.findAllById(productIds);
             for (OrderItem item : order.getItems()) {
                 item.setPurchaseOrder(order);
-                // Verify product exists
-                productRepository.findById(item.getProduct().getId())
-                        .orElseThrow(() -> new RuntimeException("Product not found: " + item.getProduct().getId()));
+                Long productId = item.getProduct().getId();
+                if (!products.containsKey(productId)) {
+                    throw new RuntimeException("Product not found: " + productId);
+                }
+                // The cached copies are shared and detached, so only validate with them; the line points at
+                // this persistence context's product (a reference, no extra query)
+                item.setProduct(entityManager.getReference(Product.class, productId));
             }
         }
-        return poRepository.save(order);
+        // Running payment totals start from the order total; PaymentService keeps them current
+        order.setPaidAmount(BigDecimal.ZERO);
+        order.setOutstandingAmount(order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO);
+        PurchaseOrder saved = poRepository.save(order);
+        dashboardStatsCache.orderStatusChanged(null, saved.getStatus());
+        tableVersions.changed(TableVersions.Table.ORDERS);
+        changeFeedService.orderChanged(saved);
+        rollupRecorder.orderChanged(null, saved);
+        return saved;
     }
 
-    @Transactional
+    // Stock is changed with atomic increments; the order's @Version makes a concurrent second
+    // receipt of the same order fail and retry (it then sees RECEIVED and is rejected).
     public PurchaseOrder receiveGoods(Long orderId) {
-        PurchaseOrder order = poRepository.findById(orderId)
+        return retryExecutor.execute("receiveGoods", () -> doReceiveGoods(orderId));
+    }
+
+    private PurchaseOrder doReceiveGoods(Long orderId) {
+        // Items and their products come back in the same query
+        PurchaseOrder order = poRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         // Validate order is approved
@@ -53,29 +164,41 @@ public class PurchaseOrderService {
             throw new RuntimeException("Order already received");
         }
 
-        // Update Inventory for all items
-        for (OrderItem item : order.getItems()) {
-            Product product = productRepository.findById(item.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
+        RollupRecorder.Snapshot before = rollupRecorder.snapshot(order);
 
+        // Work out the outstanding quantity per line
+        Map<OrderItem, Integer> quantityByItem = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
             // Handle null receivedQuantity for backward compatibility
             int alreadyReceived = item.getReceivedQuantity() != null ? item.getReceivedQuantity() : 0;
             int quantityToReceive = item.getQuantity() - alreadyReceived;
+            if (quantityToReceive > 0) {
+                quantityByItem.put(item, quantityToReceive);
+            }
 
-            product.setCurrentStock(product.getCurrentStock() + quantityToReceive);
-            productRepository.save(product);
-
-            // Mark item as fully received
+            // Mark item as fully received (flushed as one JDBC batch of order_item updates)
             item.setReceivedQuantity(item.getQuantity());
         }
 
+        // Append receipts to the stock ledger and update inventory for all products in one statement
+        stockLedgerService.recordReceipts(order, quantityByItem);
+
         // Update Order Status
         order.setStatus(PurchaseOrder.OrderStatus.RECEIVED);
-        return poRepository.save(order);
+        dashboardStatsCache.orderStatusChanged(PurchaseOrder.OrderStatus.APPROVED, order.getStatus());
+        tableVersions.changed(TableVersions.Table.ORDERS);
+        changeFeedService.orderChanged(order);
+        rollupRecorder.orderChanged(before, order);
+        // Managed entity: changes flush on commit. No save()/merge here, it would re-attach the
+        // detached products and replace them with uninitialized proxies in the response.
+        return order;
     }
 
-    @Transactional
     public PurchaseOrder approveOrder(Long orderId) {
+        return retryExecutor.execute("approveOrder", () -> doApproveOrder(orderId));
+    }
+
+    private PurchaseOrder doApproveOrder(Long orderId) {
         PurchaseOrder order = poRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
@@ -83,12 +206,20 @@ public class PurchaseOrderService {
             throw new RuntimeException("Only pending orders can be approved. Current status: " + order.getStatus());
         }
 
+        RollupRecorder.Snapshot before = rollupRecorder.snapshot(order);
         order.setStatus(PurchaseOrder.OrderStatus.APPROVED);
+        dashboardStatsCache.orderStatusChanged(PurchaseOrder.OrderStatus.PENDING, order.getStatus());
+        tableVersions.changed(TableVersions.Table.ORDERS);
+        changeFeedService.orderChanged(order);
+        rollupRecorder.orderChanged(before, order);
         return poRepository.save(order);
     }
 
-    @Transactional
     public PurchaseOrder cancelOrder(Long orderId) {
+        return retryExecutor.execute("cancelOrder", () -> doCancelOrder(orderId));
+    }
+
+    private PurchaseOrder doCancelOrder(Long orderId) {
         PurchaseOrder order = poRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
@@ -96,14 +227,26 @@ public class PurchaseOrderService {
             throw new RuntimeException("Cannot cancel received orders");
         }
 
+        PurchaseOrder.OrderStatus previousStatus = order.getStatus();
+        RollupRecorder.Snapshot before = rollupRecorder.snapshot(order);
         order.setStatus(PurchaseOrder.OrderStatus.CANCELLED);
+        dashboardStatsCache.orderStatusChanged(previousStatus, order.getStatus());
+        tableVersions.changed(TableVersions.Table.ORDERS);
+        changeFeedService.orderChanged(order);
+        rollupRecorder.orderChanged(before, order);
         return poRepository.save(order);
     }
 
-    @Transactional
     public PurchaseOrder receivePartialGoods(Long orderId, Long itemId, Integer quantity) {
-        PurchaseOrder order = poRepository.findById(orderId)
+        return retryExecutor.execute("receivePartialGoods", () -> doReceivePartialGoods(orderId, itemId, quantity));
+    }
+
+    private PurchaseOrder doReceivePartialGoods(Long orderId, Long itemId, Integer quantity) {
+        PurchaseOrder order = poRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        // Bump the order version even if only an item changes: two receipts against the same order
+        // (same line or the last two lines) must not both read the old received quantities.
+        entityManager.lock(order, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
 
         // Validate order is approved
         if (order.getStatus() != PurchaseOrder.OrderStatus.APPROVED) {
@@ -117,18 +260,19 @@ public class PurchaseOrderService {
                 .orElseThrow(() -> new RuntimeException("Order item not found: " + itemId));
 
         // Validate quantity
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
         int alreadyReceived = item.getReceivedQuantity() != null ? item.getReceivedQuantity() : 0;
         int remainingQuantity = item.getQuantity() - alreadyReceived;
         if (quantity > remainingQuantity) {
             throw new RuntimeException("Cannot receive more than ordered. Remaining: " + remainingQuantity);
         }
 
-        // Update inventory
-        Product product = productRepository.findById(item.getProduct().getId())
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        RollupRecorder.Snapshot before = rollupRecorder.snapshot(order);
 
-        product.setCurrentStock(product.getCurrentStock() + quantity);
-        productRepository.save(product);
+        // Update inventory (ledger entry + atomic increment, no read-modify-write on the product row)
+        stockLedgerService.recordReceipts(order, Map.of(item, quantity));
 
         // Update received quantity
         item.setReceivedQuantity(alreadyReceived + quantity);
@@ -142,8 +286,134 @@ public class PurchaseOrderService {
 
         if (allReceived) {
             order.setStatus(PurchaseOrder.OrderStatus.RECEIVED);
+            dashboardStatsCache.orderStatusChanged(PurchaseOrder.OrderStatus.APPROVED, order.getStatus());
+            changeFeedService.orderChanged(order);
         }
+        // Received quantities changed even if the status did not
+        tableVersions.changed(TableVersions.Table.ORDERS);
+        rollupRecorder.orderChanged(before, order);
 
-        return poRepository.save(order);
+        // Managed entity, flushed on commit (see doReceiveGoods)
+        return order;
+    }
+
+    // A whole delivery note in one transaction: every line is validated before anything is written,
+    // all stock increments go to the ledger in one batch, and the order is updated once. The delivery
+    // reference makes it idempotent: posting the same note again returns the original receipt.
+    public DeliveryReceipt receiveDelivery(Long orderId, DeliveryNote note) {
+        String reference = note.getDeliveryReference() != null ? note.getDeliveryReference().trim() : "";
+        if (reference.isEmpty()) {
+            throw new RuntimeException("Delivery reference is required");
+        }
+        if (reference.length() > 100) {
+            throw new RuntimeException("Delivery reference must be at most 100 characters");
+        }
+        if (note.getLines() == null || note.getLines().isEmpty()) {
+            throw new RuntimeException("Delivery must contain at least one line");
+        }
+        try {
+            return retryExecutor.execute("receiveDelivery", () -> doReceiveDelivery(orderId, reference, note.getLines()));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against a concurrent post of the same note; that one committed, replay it
+            return goodsDeliveryRepository.findByDeliveryReference(reference)
+                    .map(delivery -> replayDelivery(delivery, orderId))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private DeliveryReceipt doReceiveDelivery(Long orderId, String reference, List<DeliveryNote.Line> lines) {
+        GoodsDelivery existing = goodsDeliveryRepository.findByDeliveryReference(reference).orElse(null);
+        if (existing != null) {
+            return replayDelivery(existing, orderId);
+        }
+
+        PurchaseOrder order = poRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        // Same locking as doReceivePartialGoods
+        entityManager.lock(order, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+        if (order.getStatus() != PurchaseOrder.OrderStatus.APPROVED) {
+            throw new RuntimeException("Order must be approved before receiving goods");
+        }
+
+        Map<Long, OrderItem> itemsById = new HashMap<>();
+        int openLines = 0;
+        for (OrderItem item : order.getItems()) {
+            itemsById.put(item.getId(), item);
+            if (receivedQuantity(item) < item.getQuantity()) {
+                openLines++;
+            }
+        }
+
+        // Lines for the same item are added up; every problem is reported at once
+        Map<OrderItem, Integer> quantityByItem = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (DeliveryNote.Line line : lines) {
+            OrderItem item = line.getItemId() != null ? itemsById.get(line.getItemId()) : null;
+            if (item == null) {
+                errors.add("order item not found: " + line.getItemId());
+            } else if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                errors.add("quantity must be positive for item " + item.getId());
+            } else {
+                quantityByItem.merge(item, line.getQuantity(), Integer::sum);
+            }
+        }
+        int totalQuantity = 0;
+        for (Map.Entry<OrderItem, Integer> entry : quantityByItem.entrySet()) {
+            OrderItem item = entry.getKey();
+            int remainingQuantity = item.getQuantity() - receivedQuantity(item);
+            if (entry.getValue() > remainingQuantity) {
+                errors.add("cannot receive " + entry.getValue() + " of item " + item.getId()
+                        + ", remaining: " + remainingQuantity);
+            }
+            totalQuantity += entry.getValue();
+        }
+        if (!errors.isEmpty()) {
+            throw new RuntimeException("Delivery rejected: " + String.join("; ", errors));
+        }
+
+        // Claim the reference first: a concurrent duplicate fails here, before any stock is touched
+        GoodsDelivery delivery = new GoodsDelivery();
+        delivery.setDeliveryReference(reference);
+        delivery.setPurchaseOrderId(order.getId());
+        delivery.setLineCount(quantityByItem.size());
+        delivery.setTotalQuantity(totalQuantity);
+        delivery = goodsDeliveryRepository.saveAndFlush(delivery);
+
+        RollupRecorder.Snapshot before = rollupRecorder.snapshot(order);
+        stockLedgerService.recordReceipts(order, quantityByItem, "Delivery " + reference);
+
+        for (Map.Entry<OrderItem, Integer> entry : quantityByItem.entrySet()) {
+            OrderItem item = entry.getKey();
+            int received = receivedQuantity(item) + entry.getValue();
+            item.setReceivedQuantity(received);
+            if (received >= item.getQuantity()) {
+                openLines--;
+            }
+        }
+
+        if (openLines == 0) {
+            order.setStatus(PurchaseOrder.OrderStatus.RECEIVED);
+            dashboardStatsCache.orderStatusChanged(PurchaseOrder.OrderStatus.APPROVED, order.getStatus());
+            changeFeedService.orderChanged(order);
+        }
+        tableVersions.changed(TableVersions.Table.ORDERS);
+        rollupRecorder.orderChanged(before, order);
+
+        return DeliveryReceipt.recorded(delivery, order.getStatus());
+    }
+
+    private DeliveryReceipt replayDelivery(GoodsDelivery delivery, Long orderId) {
+        if (!delivery.getPurchaseOrderId().equals(orderId)) {
+            throw new RuntimeException("Delivery reference " + delivery.getDeliveryReference()
+                    + " was already received for order " + delivery.getPurchaseOrderId());
+        }
+        PurchaseOrder order = poRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        return DeliveryReceipt.replayed(delivery, order.getStatus());
+    }
+
+    private static int receivedQuantity(OrderItem item) {
+        return item.getReceivedQuantity() != null ? item.getReceivedQuantity() : 0;
     }
 }
@@ -0,0 +1,289 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.dto.ReplenishmentReport;
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.exception.ServiceBusyException;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
+import com.hrishikesh.inventory.repository.VendorRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Suggests purchase orders for products whose stock position has fallen below their reorder point.
+//
+// Stock position is current stock plus what is still to arrive on PENDING and APPROVED orders. PENDING
+// counts too, so a second run doesn't suggest the same stock again while earlier drafts await approval.
+// The reorder point is the product's lowStockThreshold (else inventory.low-stock.default-threshold); a
+// short product is topped up to its maxStockLevel, or to max-level-multiplier times the reorder point.
+//
+// The product id space is cut into ranges that are scanned in parallel on a dedicated fork-join pool.
+// Each range reads only the products with less than their reorder point on hand, then the open order
+// quantities for that range. Shortfalls are grouped by vendor (the product's preferred vendor, else the
+// vendor it was last ordered from) into PENDING draft orders created through PurchaseOrderService, so
+// they go through the same checks, events and counters as an order entered by hand. Products with no
+// vendor either way are reported, not ordered.
+@Service
+@Timed(value = "inventory.service", histogram = true)
+public class ReplenishmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplenishmentService.class);
+
+    private static final Set<PurchaseOrder.OrderStatus> OPEN_STATUSES =
+            Set.of(PurchaseOrder.OrderStatus.PENDING, PurchaseOrder.OrderStatus.APPROVED);
+    private static final int VENDOR_LOOKUP_CHUNK = 1000;
+
+    private final ProductRepository productRepository;
+    private final PurchaseOrderRepository poRepository;
+    private final VendorRepository vendorRepository;
+    private final PurchaseOrderService purchaseOrderService;
+    private final int defaultThreshold;
+    private final int partitionSize;
+    private final int maxLevelMultiplier;
+    private final int maxLinesPerOrder;
+    private final ForkJoinPool scanPool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReplenishmentService(ProductRepository productRepository,
+                                PurchaseOrderRepository poRepository,
+                                VendorRepository vendorRepository,
+                                PurchaseOrderService purchaseOrderService,
+                                @Value("${inventory.low-stock.default-threshold:10}") int defaultThreshold,
+                                @Value("${inventory.replenishment.partition-size:20000}") int partitionSize,
+                                @Value("${inventory.replenishment.parallelism:0}") int parallelism,
+                                @Value("${inventory.replenishment.max-level-multiplier:2}") int maxLevelMultiplier,
+                                @Value("${inventory.replenishment.max-lines-per-order:500}") int maxLinesPerOrder) {
+        this.productRepository = productRepository;
+        this.poRepository = poRepository;
+        this.vendorRepository = vendorRepository;
+        this.purchaseOrderService = purchaseOrderService;
+        this.defaultThreshold = defaultThreshold;
+        this.partitionSize = partitionSize;
+        this.maxLevelMultiplier = maxLevelMultiplier;
+        this.maxLinesPerOrder = maxLinesPerOrder;
+        // Own pool: the scan blocks on the database, which must not starve the common pool
+        this.scanPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // dryRun only reports what would be ordered
+    public ReplenishmentReport run(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ServiceBusyException("A replenishment run is already in progress. Please retry shortly.", 10);
+        }
+        try {
+            return doRun(dryRun);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Disabled unless inventory.replenishment.cron is set
+    @Scheduled(cron = "${inventory.replenishment.cron:-}")
+    public void scheduledRun() {
+        try {
+            ReplenishmentReport report = run(false);
+            log.info("Scheduled replenishment: {} shortfalls, {} draft orders, {} without vendor, {} errors in {} ms",
+                    report.getShortfalls(), report.getOrders().size(), report.getUnassignedProductIds().size(),
+                    report.getErrors().size(), report.getElapsedMs());
+        } catch (ServiceBusyException e) {
+            log.info("Scheduled replenishment skipped: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdown();
+    }
+
+    private ReplenishmentReport doRun(boolean dryRun) {
+        long started = System.nanoTime();
+        List<long[]> partitions = partitions();
+        List<PartitionScan> scanned = scanPool.submit(() -> partitions.parallelStream()
+                .map(range -> scan(range[0], range[1]))
+                .toList()).join();
+
+        long candidates = 0;
+        List<Shortfall> shortfalls = new ArrayList<>();
+        for (PartitionScan partition : scanned) {
+            candidates += partition.candidates;
+            shortfalls.addAll(partition.shortfalls);
+        }
+
+        Map<Long, Long> lastVendor = lastVendors(shortfalls);
+        Map<Long, List<ReplenishmentReport.Line>> linesByVendor = new TreeMap<>();
+        List<Long> unassigned = new ArrayList<>();
+        for (Shortfall shortfall : shortfalls) {
+            Long vendorId = shortfall.preferredVendorId != null
+                    ? shortfall.preferredVendorId
+                    : lastVendor.get(shortfall.line.getProductId());
+            if (vendorId == null) {
+                unassigned.add(shortfall.line.getProductId());
+            } else {
+                linesByVendor.computeIfAbsent(vendorId, id -> new ArrayList<>()).add(shortfall.line);
+            }
+        }
+
+        Map<Long, String> vendorNames = new HashMap<>();
+        for (Vendor vendor : vendorRepository.findAllById(linesByVendor.keySet())) {
+            vendorNames.put(vendor.getId(), vendor.getName());
+        }
+        List<ReplenishmentReport.DraftOrder> orders = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<Long, List<ReplenishmentReport.Line>> vendorLines : linesByVendor.entrySet()) {
+            List<ReplenishmentReport.Line> lines = vendorLines.getValue();
+            for (int from = 0; from < lines.size(); from += maxLinesPerOrder) {
+                List<ReplenishmentReport.Line> chunk = lines.subList(from, Math.min(from + maxLinesPerOrder, lines.size()));
+                orders.add(draft(vendorLines.getKey(), vendorNames.get(vendorLines.getKey()), chunk, dryRun, errors));
+            }
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Replenishment {}: {} partitions, {} candidates, {} shortfalls, {} draft orders in {} ms",
+                dryRun ? "dry run" : "run", partitions.size(), candidates, shortfalls.size(), orders.size(), elapsedMs);
+        return new ReplenishmentReport(dryRun, partitions.size(), candidates, shortfalls.size(), elapsedMs,
+                orders, unassigned, errors);
+    }
+
+    // [from, to) id ranges covering every product
+    private List<long[]> partitions() {
+        List<long[]> partitions = new ArrayList<>();
+        List<Object[]> bounds = productRepository.findIdRange();
+        if (bounds.isEmpty() || bounds.get(0)[0] == null) {
+            return partitions;
+        }
+        long minId = (Long) bounds.get(0)[0];
+        long maxId = (Long) bounds.get(0)[1];
+        for (long from = minId; from <= maxId; from += partitionSize) {
+            partitions.add(new long[]{from, Math.min(from + partitionSize, maxId + 1)});
+        }
+        return partitions;
+    }
+
+    private PartitionScan scan(long fromId, long toId) {
+        List<Object[]> rows = productRepository.findReplenishmentCandidates(fromId, toId, defaultThreshold);
+        if (rows.isEmpty()) {
+            return new PartitionScan(0, List.of());
+        }
+        Map<Long, Long> onOrderByProduct = new HashMap<>();
+        for (Object[] row : poRepository.sumOpenQuantityByProduct(OPEN_STATUSES, fromId, toId)) {
+            onOrderByProduct.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        List<Shortfall> shortfalls = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long productId = (Long) row[0];
+            int stock = row[2] != null ? (Integer) row[2] : 0;
+            int reorderPoint = row[3] != null ? (Integer) row[3] : defaultThreshold;
+            long onOrder = onOrderByProduct.getOrDefault(productId, 0L);
+            long position = stock + onOrder;
+            if (position >= reorderPoint) {
+                continue;
+            }
+            Integer configuredMax = (Integer) row[4];
+            int maxLevel = configuredMax != null && configuredMax > reorderPoint
+                    ? configuredMax
+                    : reorderPoint * maxLevelMultiplier;
+            int quantity = (int) (maxLevel - position);
+            shortfalls.add(new Shortfall(new ReplenishmentReport.Line(productId, (String) row[1], stock, onOrder,
+                    reorderPoint, maxLevel, quantity, (BigDecimal) row[6]), (Long) row[5]));
+        }
+        return new PartitionScan(rows.size(), shortfalls);
+    }
+
+    // Only needed for short products without a preferred vendor; one query per chunk of them
+    private Map<Long, Long> lastVendors(List<Shortfall> shortfalls) {
+        List<Long> productIds = new ArrayList<>();
+        for (Shortfall shortfall : shortfalls) {
+            if (shortfall.preferredVendorId == null) {
+                productIds.add(shortfall.line.getProductId());
+            }
+        }
+        Map<Long, Long> vendorByProduct = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += VENDOR_LOOKUP_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + VENDOR_LOOKUP_CHUNK, productIds.size()));
+            for (Object[] row : poRepository.findLastVendorByProduct(chunk, PurchaseOrder.OrderStatus.CANCELLED)) {
+                vendorByProduct.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return vendorByProduct;
+    }
+
+    private ReplenishmentReport.DraftOrder draft(Long vendorId, String vendorName, List<ReplenishmentReport.Line> lines,
+                                                 boolean dryRun, List<String> errors) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ReplenishmentReport.Line line : lines) {
+            if (line.getUnitPrice() != null) {
+                total = total.add(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+            }
+        }
+        List<ReplenishmentReport.Line> reported = List.copyOf(lines);
+        if (dryRun) {
+            return new ReplenishmentReport.DraftOrder(vendorId, vendorName, null, total, reported);
+        }
+
+        // Id-only references, as in an API request; createOrder loads the vendor and products
+        PurchaseOrder order = new PurchaseOrder();
+        Vendor vendor = new Vendor();
+        vendor.setId(vendorId);
+        order.setVendor(vendor);
+        order.setTotalAmount(total);
+        for (ReplenishmentReport.Line line : lines) {
+            Product product = new Product();
+            product.setId(line.getProductId());
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(line.getQuantity());
+            item.setUnitPrice(line.getUnitPrice());
+            order.getItems().add(item);
+        }
+        try {
+            PurchaseOrder saved = purchaseOrderService.createOrder(order);
+            return new ReplenishmentReport.DraftOrder(vendorId, vendorName, saved.getId(), total, reported);
+        } catch (RuntimeException e) {
+            errors.add("Vendor " + vendorId + ": " + e.getMessage());
+            return new ReplenishmentReport.DraftOrder(vendorId, vendorName, null, total, reported);
+        }
+    }
+
+    // Products read from one id range (below their reorder point on hand) and those still short after open orders
+    private static final class PartitionScan {
+
+        private final int candidates;
+        private final List<Shortfall> shortfalls;
+
+        private PartitionScan(int candidates, List<Shortfall> shortfalls) {
+            this.candidates = candidates;
+            this.shortfalls = shortfalls;
+        }
+    }
+
+    private static final class Shortfall {
+
+        private final ReplenishmentReport.Line line;
+        private final Long preferredVendorId;
+
+        private Shortfall(ReplenishmentReport.Line line, Long preferredVendorId) {
+            this.line = line;
+            this.preferredVendorId = preferredVendorId;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.repository.RollupRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Keeps the analytics rollups (order_daily_rollup, payment_daily_rollup) in step with the order and
+// payment services. A change is recorded as a delta: the old row's key loses it, the new row's key
+// gains it. Deltas are summed per transaction and upserted in beforeCommit, inside the same
+// transaction, so the rollups commit or roll back together with the change that caused them. Keys
+// are written in sorted order so concurrent transactions lock rollup rows in the same order.
+//
+// The dimension values match the SQL in V7__analytics_rollups.sql and RollupRepository.rebuild
+// (null status/method defaults, rows without a date skipped), so a rebuild lands on the same keys.
+@Component
+public class RollupRecorder {
+
+    private final RollupRepository rollupRepository;
+
+    public RollupRecorder(RollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    // Take before mutating an order; pass to orderChanged afterwards
+    public Snapshot snapshot(PurchaseOrder order) {
+        return new Snapshot(order);
+    }
+
+    // before is null for a new order
+    public void orderChanged(Snapshot before, PurchaseOrder after) {
+        Pending pending = pending();
+        if (before != null) {
+            before.addTo(pending.orders, -1);
+        }
+        new Snapshot(after).addTo(pending.orders, 1);
+        flushIfNoTransaction(pending);
+    }
+
+    public void paymentCreated(Payment payment) {
+        paymentChanged(payment, null);
+    }
+
+    // Only the status of a payment ever changes after it is created
+    public void paymentStatusChanged(Payment payment, Payment.PaymentStatus previousStatus) {
+        paymentChanged(payment, statusName(previousStatus));
+    }
+
+    private void paymentChanged(Payment payment, String previousStatus) {
+        LocalDate day = day(payment.getPaymentDate());
+        if (day == null) {
+            return;
+        }
+        Pending pending = pending();
+        Long vendorId = payment.getPurchaseOrder().getVendor().getId();
+        String method = payment.getPaymentMethod() != null ? payment.getPaymentMethod().name() : "UNSPECIFIED";
+        BigDecimal amount = payment.getAmount() != null ? payment.getAmount() : BigDecimal.ZERO;
+        if (previousStatus != null) {
+            pending.payments.computeIfAbsent(new Key(vendorId, day, method, previousStatus), key -> new Delta())
+                    .add(-1, amount.negate(), 0, 0);
+        }
+        pending.payments.computeIfAbsent(new Key(vendorId, day, method, statusName(payment.getStatus())),
+                key -> new Delta()).add(1, amount, 0, 0);
+        flushIfNoTransaction(pending);
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending();
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    RollupRecorder.this.flush(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RollupRecorder.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void flushIfNoTransaction(Pending pending) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            flush(pending);
+        }
+    }
+
+    private void flush(Pending pending) {
+        List<Object[]> orderRows = new ArrayList<>();
+        pending.orders.forEach((key, delta) -> {
+            if (!delta.isEmpty()) {
+                orderRows.add(new Object[]{key.vendorId, Date.valueOf(key.day), key.status,
+                        delta.count, delta.amount, delta.ordered, delta.received});
+            }
+        });
+        List<Object[]> paymentRows = new ArrayList<>();
+        pending.payments.forEach((key, delta) -> {
+            if (!delta.isEmpty()) {
+                paymentRows.add(new Object[]{key.vendorId, Date.valueOf(key.day), key.method, key.status,
+                        delta.count, delta.amount});
+            }
+        });
+        pending.orders.clear();
+        pending.payments.clear();
+        if (!orderRows.isEmpty()) {
+            rollupRepository.addOrderDeltas(orderRows);
+        }
+        if (!paymentRows.isEmpty()) {
+            rollupRepository.addPaymentDeltas(paymentRows);
+        }
+    }
+
+    private static String statusName(Payment.PaymentStatus status) {
+        return status != null ? status.name() : "COMPLETED";
+    }
+
+    private static LocalDate day(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate() : null;
+    }
+
+    // What an order contributes to its rollup row at one point in time
+    public static final class Snapshot {
+
+        private final Long vendorId;
+        private final LocalDate day;
+        private final String status;
+        private final BigDecimal totalAmount;
+        private final long ordered;
+        private final long received;
+
+        private Snapshot(PurchaseOrder order) {
+            this.vendorId = order.getVendor().getId();
+            this.day = day(order.getOrderDate());
+            this.status = order.getStatus() != null ? order.getStatus().name() : "PENDING";
+            this.totalAmount = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+            long orderedSum = 0;
+            long receivedSum = 0;
+            for (OrderItem item : order.getItems()) {
+                orderedSum += item.getQuantity() != null ? item.getQuantity() : 0;
+                receivedSum += item.getReceivedQuantity() != null ? item.getReceivedQuantity() : 0;
+            }
+            this.ordered = orderedSum;
+            this.received = receivedSum;
+        }
+
+        private void addTo(Map<Key, Delta> deltas, int sign) {
+            if (day == null) {
+                return;
+            }
+            BigDecimal amount = sign < 0 ? totalAmount.negate() : totalAmount;
+            deltas.computeIfAbsent(new Key(vendorId, day, "", status), key -> new Delta())
+                    .add(sign, amount, sign * ordered, sign * received);
+        }
+    }
+
+    private static final class Pending {
+
+        private final Map<Key, Delta> orders = new TreeMap<>();
+        private final Map<Key, Delta> payments = new TreeMap<>();
+    }
+
+    private static final class Key implements Comparable<Key> {
+
+        private final Long vendorId;
+        private final LocalDate day;
+        private final String method;
+        private final String status;
+
+        private Key(Long vendorId, LocalDate day, String method, String status) {
+            this.vendorId = vendorId;
+            this.day = day;
+            this.method = method;
+            this.status = status;
+        }
+
+        // Primary key column order, which is also the order rows are locked in
+        @Override
+        public int compareTo(Key other) {
+            int result = vendorId.compareTo(other.vendorId);
+            if (result == 0) {
+                result = day.compareTo(other.day);
+            }
+            if (result == 0) {
+                result = method.compareTo(other.method);
+            }
+            return result != 0 ? result : status.compareTo(other.status);
+        }
+    }
+
+    private static final class Delta {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long ordered;
+        private long received;
+
+        private void add(long count, BigDecimal amount, long ordered, long received) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+            this.ordered += ordered;
+            this.received += received;
+        }
+
+        // A status flip and back within one transaction cancels out; nothing to write
+        private boolean isEmpty() {
+            return count == 0 && amount.signum() == 0 && ordered == 0 && received == 0;
+        }
+    }
+}
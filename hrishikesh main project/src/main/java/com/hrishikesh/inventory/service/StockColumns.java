@@ -0,0 +1,526 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.exception.ServiceBusyException;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Column store of the stock figures of every product, for inventory valuation, low-stock and stock
+// distribution queries (/api/stock/valuation, /low-stock, /distribution) that would otherwise load every
+// Product entity with its boxed Integer and BigDecimal fields.
+//
+// Each product has a dense ordinal; its id, stock, effective low-stock threshold (the default already
+// applied) and unit price in cents sit at that position in parallel int/long columns, so a query is one
+// pass over primitive values with nothing allocated per product. With inventory.stock-columns.off-heap
+// the columns live in direct buffers outside the heap.
+//
+// Stock changes arrive as deltas from the stock ledger (goods receipts, adjustments, reversals) and are
+// added in place once their transaction commits; new products are appended. Loading and the periodic
+// refresh work like ProductSearchIndex: paged reads by id, never overwriting a product changed after its
+// page was read. Because deltas are not idempotent, a product with a ledger transaction still in flight
+// is also left alone, or a page read just after the commit would count the delta twice. Queries share a
+// read lock; changes take the write lock.
+@Component
+public class StockColumns {
+
+    private static final Logger log = LoggerFactory.getLogger(StockColumns.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+    private final int defaultThreshold;
+    private final int refreshPageSize;
+    private final int maxLowStockResults;
+    private final boolean offHeap;
+    private final int[] distributionBounds;
+    private final String[] distributionLabels;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock; position = ordinal
+    private int capacity;
+    private int count;
+    private LongBuffer ids;
+    private IntBuffer stock;
+    private IntBuffer thresholds;
+    private LongBuffer priceCents;
+    private LongBuffer changedAt;
+    private IntBuffer inFlight;
+    private final IdOrdinals ordinals = new IdOrdinals();
+
+    // Incremented by every completed change; a refresh page only overwrites products not changed since
+    // it was read and with no ledger transaction in flight
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-columns-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRefreshedAt;
+
+    private final Timer valuationTimer;
+    private final Timer lowStockTimer;
+    private final Timer distributionTimer;
+
+    public StockColumns(ProductRepository productRepository,
+                        @Value("${inventory.low-stock.default-threshold:10}") int defaultThreshold,
+                        @Value("${inventory.stock-columns.refresh-page-size:5000}") int refreshPageSize,
+                        @Value("${inventory.stock-columns.max-low-stock-results:1000}") int maxLowStockResults,
+                        @Value("${inventory.stock-columns.off-heap:false}") boolean offHeap,
+                        @Value("${inventory.stock-columns.distribution-buckets:10,50,100,500,1000}") int[] distributionBounds,
+                        MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.defaultThreshold = defaultThreshold;
+        this.refreshPageSize = refreshPageSize;
+        this.maxLowStockResults = maxLowStockResults;
+        this.offHeap = offHeap;
+        this.distributionBounds = distributionBounds;
+        // Bucket 0 is out of stock, then [1, b0), [b0, b1), ..., [bn, infinity)
+        this.distributionLabels = new String[distributionBounds.length + 2];
+        distributionLabels[0] = "0";
+        int lower = 1;
+        for (int i = 0; i < distributionBounds.length; i++) {
+            distributionLabels[i + 1] = lower + "-" + (distributionBounds[i] - 1);
+            lower = distributionBounds[i];
+        }
+        distributionLabels[distributionBounds.length + 1] = lower + "+";
+        allocate(INITIAL_CAPACITY);
+
+        this.valuationTimer = scanTimer(meterRegistry, "valuation");
+        this.lowStockTimer = scanTimer(meterRegistry, "low-stock");
+        this.distributionTimer = scanTimer(meterRegistry, "distribution");
+        Gauge.builder("inventory.stock.columns.products", this, StockColumns::productCount)
+                .description("Products in the stock column store")
+                .register(meterRegistry);
+    }
+
+    // Sum of stock x unit price over all products
+    public Map<String, Object> getValuation() {
+        ensureReady();
+        long started = System.nanoTime();
+        long units = 0;
+        long valueCents = 0;
+        int products;
+        lock.readLock().lock();
+        try {
+            products = count;
+            for (int i = 0; i < products; i++) {
+                int onHand = stock.get(i);
+                units += onHand;
+                valueCents = Math.addExact(valueCents, Math.multiplyExact((long) onHand, priceCents.get(i)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long took = record(valuationTimer, started);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("products", products);
+        result.put("units", units);
+        result.put("totalValue", BigDecimal.valueOf(valueCents, 2));
+        result.put("tookMicros", took);
+        return result;
+    }
+
+    // Products with less stock than their threshold, in id order (the first limit of them) plus the total
+    public Map<String, Object> getLowStock(Integer limit) {
+        ensureReady();
+        long started = System.nanoTime();
+        int size = limit == null || limit <= 0 ? 100 : Math.min(limit, maxLowStockResults);
+        List<Map<String, Object>> items = new ArrayList<>(Math.min(size, 64));
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            int products = count;
+            for (int i = 0; i < products; i++) {
+                int onHand = stock.get(i);
+                int threshold = thresholds.get(i);
+                if (onHand < threshold) {
+                    if (total < size) {
+                        Map<String, Object> item = new LinkedHashMap<>();
+                        item.put("productId", ids.get(i));
+                        item.put("currentStock", onHand);
+                        item.put("lowStockThreshold", threshold);
+                        item.put("shortfall", threshold - onHand);
+                        items.add(item);
+                    }
+                    total++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long took = record(lowStockTimer, started);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("items", items);
+        result.put("tookMicros", took);
+        return result;
+    }
+
+    // Product counts per stock range (inventory.stock-columns.distribution-buckets)
+    public Map<String, Object> getDistribution() {
+        ensureReady();
+        long started = System.nanoTime();
+        int[] buckets = new int[distributionLabels.length];
+        lock.readLock().lock();
+        try {
+            int products = count;
+            for (int i = 0; i < products; i++) {
+                buckets[bucket(stock.get(i))]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long took = record(distributionTimer, started);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            counts.put(distributionLabels[i], buckets[i]);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("buckets", counts);
+        result.put("tookMicros", took);
+        return result;
+    }
+
+    // New products (single creates and bulk imports), appended once their transaction commits
+    public void productsSaved(Collection<Product> products) {
+        List<Object[]> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rows.add(new Object[]{product.getId(), product.getCurrentStock(), product.getLowStockThreshold(),
+                    product.getUnitPrice()});
+        }
+        AfterCommit.run(() -> apply(rows, Long.MAX_VALUE));
+    }
+
+    // Stock deltas by product id (ledger movements), added once the transaction commits
+    public void stockAdded(Map<Long, Integer> quantityByProduct) {
+        track(quantityByProduct, true);
+    }
+
+    // Absolute stock levels by product id (a projection rebuilt from the ledger)
+    public void stockSet(Map<Long, Integer> stockByProduct) {
+        track(stockByProduct, false);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("products", count);
+            stats.put("capacity", capacity);
+            stats.put("offHeap", offHeap);
+            // ids, prices, changedAt: 3 longs; stock, threshold, inFlight: 3 ints
+            stats.put("bytes", (long) capacity * (3 * Long.BYTES + 3 * Integer.BYTES));
+            stats.put("lastRefreshedAt", lastRefreshedAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        scheduleRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-columns.refresh-interval-ms:3600000}",
+            initialDelayString = "${inventory.stock-columns.refresh-interval-ms:3600000}")
+    public void refreshPeriodically() {
+        scheduleRefresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void ensureReady() {
+        if (!ready) {
+            throw new ServiceBusyException("Stock figures are still loading. Please retry shortly.", 5);
+        }
+    }
+
+    private int bucket(int onHand) {
+        if (onHand <= 0) {
+            return 0;
+        }
+        for (int i = 0; i < distributionBounds.length; i++) {
+            if (onHand < distributionBounds[i]) {
+                return i + 1;
+            }
+        }
+        return distributionBounds.length + 1;
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(this::refresh);
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    // Package-private so StockColumnsTest can run one at a chosen point of a transaction
+    void refresh() {
+        long started = System.nanoTime();
+        int loaded = 0;
+        try {
+            long cursor = 0;
+            while (true) {
+                long readAt = changeSequence.get();
+                List<Object[]> rows = productRepository.findStockColumnsAfter(cursor, PageRequest.of(0, refreshPageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                apply(rows, readAt);
+                loaded += rows.size();
+                cursor = (Long) rows.get(rows.size() - 1)[0];
+                if (rows.size() < refreshPageSize) {
+                    break;
+                }
+            }
+            ready = true;
+            lastRefreshedAt = LocalDateTime.now();
+            log.info("Stock columns refreshed: {} products in {} ms", loaded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.warn("Stock columns refresh failed after {} products: {}", loaded, e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    // Rows: id, currentStock, lowStockThreshold, unitPrice. snapshot is the change sequence they were read
+    // at (Long.MAX_VALUE for new products, which always apply).
+    private void apply(List<Object[]> rows, long snapshot) {
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                long id = (Long) row[0];
+                int ordinal = ordinals.get(id);
+                if (ordinal < 0) {
+                    ordinal = append(id);
+                } else if (snapshot != Long.MAX_VALUE
+                        && (changedAt.get(ordinal) > snapshot || inFlight.get(ordinal) > 0)) {
+                    continue;
+                }
+                stock.put(ordinal, row[1] != null ? (Integer) row[1] : 0);
+                thresholds.put(ordinal, row[2] != null ? (Integer) row[2] : defaultThreshold);
+                priceCents.put(ordinal, cents((BigDecimal) row[3]));
+                changedAt.put(ordinal, snapshot == Long.MAX_VALUE ? changeSequence.incrementAndGet() : snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Marks the products as in flight now and applies the values when the transaction completes (at once
+    // without one). Products not loaded yet are skipped: the refresh will read their committed stock.
+    private void track(Map<Long, Integer> values, boolean delta) {
+        int[] targets = new int[values.size()];
+        int[] amounts = new int[values.size()];
+        int tracked = 0;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Integer> entry : values.entrySet()) {
+                int ordinal = ordinals.get(entry.getKey());
+                if (ordinal >= 0) {
+                    targets[tracked] = ordinal;
+                    amounts[tracked] = entry.getValue();
+                    inFlight.put(ordinal, inFlight.get(ordinal) + 1);
+                    tracked++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int size = tracked;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(targets, amounts, size, delta, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            complete(targets, amounts, size, delta, true);
+        }
+    }
+
+    private void complete(int[] targets, int[] amounts, int size, boolean delta, boolean committed) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int ordinal = targets[i];
+                if (committed) {
+                    stock.put(ordinal, delta ? stock.get(ordinal) + amounts[i] : amounts[i]);
+                }
+                inFlight.put(ordinal, inFlight.get(ordinal) - 1);
+                changedAt.put(ordinal, changeSequence.incrementAndGet());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(long id) {
+        if (count == capacity) {
+            allocate(capacity * 2);
+        }
+        ordinals.put(id, count);
+        ids.put(count, id);
+        return count++;
+    }
+
+    // Allocates all columns at the new capacity and copies the current rows over
+    private void allocate(int newCapacity) {
+        LongBuffer newIds = longColumn(newCapacity);
+        IntBuffer newStock = intColumn(newCapacity);
+        IntBuffer newThresholds = intColumn(newCapacity);
+        LongBuffer newPrices = longColumn(newCapacity);
+        LongBuffer newChangedAt = longColumn(newCapacity);
+        IntBuffer newInFlight = intColumn(newCapacity);
+        if (count > 0) {
+            newIds.put(0, ids, 0, count);
+            newStock.put(0, stock, 0, count);
+            newThresholds.put(0, thresholds, 0, count);
+            newPrices.put(0, priceCents, 0, count);
+            newChangedAt.put(0, changedAt, 0, count);
+            newInFlight.put(0, inFlight, 0, count);
+        }
+        ids = newIds;
+        stock = newStock;
+        thresholds = newThresholds;
+        priceCents = newPrices;
+        changedAt = newChangedAt;
+        inFlight = newInFlight;
+        capacity = newCapacity;
+    }
+
+    private IntBuffer intColumn(int size) {
+        return offHeap
+                ? ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer()
+                : IntBuffer.allocate(size);
+    }
+
+    private LongBuffer longColumn(int size) {
+        return offHeap
+                ? ByteBuffer.allocateDirect(size * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+                : LongBuffer.allocate(size);
+    }
+
+    private int productCount() {
+        return count;
+    }
+
+    private static long cents(BigDecimal price) {
+        return price != null ? price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    private static long record(Timer timer, long started) {
+        long nanos = System.nanoTime() - started;
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static Timer scanTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("inventory.stock.columns.scan")
+                .description("Stock column store queries")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Product id -> ordinal without boxing: open addressing with linear probing over a power-of-two
+    // table, kept at most half full. Ids are positive, so 0 marks a free slot. Only touched under the lock.
+    private static final class IdOrdinals {
+
+        private long[] keys = new long[2 * INITIAL_CAPACITY];
+        private int[] values = new int[2 * INITIAL_CAPACITY];
+        private int size;
+
+        private int get(long id) {
+            int mask = keys.length - 1;
+            for (int slot = hash(id) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == id) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void put(long id, int ordinal) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(id) & mask;
+            while (keys[slot] != 0 && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = id;
+            values[slot] = ordinal;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
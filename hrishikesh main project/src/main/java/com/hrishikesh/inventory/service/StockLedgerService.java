@@ -0,0 +1,368 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.StockMovement;
+import com.hrishikesh.inventory.entity.StockSnapshot;
+import com.hrishikesh.inventory.repository.BulkInsertRepository;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.repository.ProductStockRepository;
+import com.hrishikesh.inventory.repository.StockMovementRepository;
+import com.hrishikesh.inventory.repository.StockSnapshotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// All stock changes go through here: each one appends to the StockMovement ledger and applies the
+// same delta to Product.currentStock, which is the materialized projection of the ledger.
+@Service
+public class StockLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    // Lower bound for ledger queries when a product has no snapshot yet
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final int SNAPSHOT_LOOKUP_CHUNK = 1000;
+
+    private static final String OPENING_BALANCE_NOTE = "Opening balance";
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Autowired
+    private CursorPaging cursorPaging;
+
+    @Autowired
+    private BulkInsertRepository bulkInsertRepository;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private StockColumns stockColumns;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Snapshots only cover movements older than this, so transactions still in flight are never skipped
+    @Value("${inventory.stock.snapshot-lag-ms:60000}")
+    private long snapshotLagMs;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public StockLedgerService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Joins the caller's (receiving) transaction
+    public void recordReceipts(PurchaseOrder order, Map<OrderItem, Integer> quantityByItem) {
+        recordReceipts(order, quantityByItem, null);
+    }
+
+    // note is stored on every movement (e.g. the delivery reference)
+    public void recordReceipts(PurchaseOrder order, Map<OrderItem, Integer> quantityByItem, String note) {
+        List<StockMovement> movements = new ArrayList<>();
+        Map<Long, Integer> quantityByProduct = new LinkedHashMap<>();
+        Map<Long, Product> productsById = new HashMap<>();
+
+        for (Map.Entry<OrderItem, Integer> entry : quantityByItem.entrySet()) {
+            OrderItem item = entry.getKey();
+            Product product = item.getProduct();
+            movements.add(newMovement(StockMovement.MovementType.RECEIPT, product.getId(), entry.getValue(),
+                    order.getId(), item.getId(), note));
+            quantityByProduct.merge(product.getId(), entry.getValue(), Integer::sum);
+            productsById.put(product.getId(), product);
+        }
+
+        movementRepository.saveAll(movements);
+        applyToProjection(productsById, quantityByProduct);
+    }
+
+    // The initial stock is written with the product row itself, so only the ledger entry is added
+    public void recordOpeningBalance(Product product) {
+        if (product.getCurrentStock() != null && product.getCurrentStock() != 0) {
+            movementRepository.save(openingBalance(product.getId(), product.getCurrentStock()));
+        }
+    }
+
+    // Bulk import variant: opening balances for a whole chunk of new products in one batch
+    public void recordOpeningBalances(Map<Long, Integer> stockByProductId) {
+        Map<Long, Integer> nonZero = new LinkedHashMap<>();
+        stockByProductId.forEach((productId, stock) -> {
+            if (stock != null && stock != 0) {
+                nonZero.put(productId, stock);
+            }
+        });
+        if (!nonZero.isEmpty()) {
+            bulkInsertRepository.insertOpeningBalances(nonZero, OPENING_BALANCE_NOTE);
+        }
+    }
+
+    @Transactional
+    public StockMovement adjustStock(Long productId, Integer quantity, String note) {
+        if (quantity == null || quantity == 0) {
+            throw new RuntimeException("Adjustment quantity must be non-zero");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        ensureNotNegative(product, quantity);
+
+        StockMovement movement = movementRepository.save(newMovement(StockMovement.MovementType.ADJUSTMENT,
+                productId, quantity, null, null, note));
+        applyToProjection(Map.of(productId, product), Map.of(productId, quantity));
+        return movement;
+    }
+
+    // Cancels a movement's effect on stock. Order item received quantities are not touched.
+    @Transactional
+    public StockMovement reverseMovement(Long movementId, String note) {
+        StockMovement original = movementRepository.findById(movementId)
+                .orElseThrow(() -> new RuntimeException("Stock movement not found: " + movementId));
+        if (original.getType() == StockMovement.MovementType.REVERSAL) {
+            throw new RuntimeException("A reversal cannot be reversed; record an adjustment instead");
+        }
+        if (movementRepository.existsByReversedMovementId(movementId)) {
+            throw new RuntimeException("Stock movement already reversed: " + movementId);
+        }
+
+        Long productId = original.getProductId();
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        int quantity = -original.getQuantity();
+        ensureNotNegative(product, quantity);
+
+        StockMovement reversal = newMovement(StockMovement.MovementType.REVERSAL, productId, quantity,
+                original.getPurchaseOrderId(), original.getOrderItemId(), note);
+        reversal.setReversedMovementId(movementId);
+        reversal = movementRepository.save(reversal);
+        applyToProjection(Map.of(productId, product), Map.of(productId, quantity));
+        return reversal;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<StockMovement> getMovements(Long productId, Long cursor, Integer size) {
+        int pageSize = cursorPaging.resolveSize(size);
+        long start = cursorPaging.startCursor(cursor, true);
+        List<StockMovement> rows = movementRepository.findByProductIdAndIdLessThanOrderByIdDesc(
+                productId, start, cursorPaging.limit(pageSize));
+        return CursorPage.of(rows, pageSize, StockMovement::getId);
+    }
+
+    // Point-in-time stock: nearest snapshot plus the (short) ledger tail after it
+    @Transactional(readOnly = true)
+    public int getStockAt(Long productId, LocalDateTime at) {
+        Optional<StockSnapshot> snapshot =
+                snapshotRepository.findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(productId, at);
+        int base = snapshot.map(StockSnapshot::getQuantity).orElse(0);
+        LocalDateTime after = snapshot.map(StockSnapshot::getAsOf).orElse(LEDGER_START);
+        return base + (int) movementRepository.sumQuantity(productId, after, at);
+    }
+
+    // Whole-inventory figures, scanned from the in-memory stock columns rather than the products table
+    public Map<String, Object> getValuation() {
+        return stockColumns.getValuation();
+    }
+
+    public Map<String, Object> getLowStock(Integer limit) {
+        return stockColumns.getLowStock(limit);
+    }
+
+    public Map<String, Object> getDistribution() {
+        return stockColumns.getDistribution();
+    }
+
+    public Map<String, Object> getColumnStats() {
+        return stockColumns.getStats();
+    }
+
+    // Recomputes Product.currentStock from the ledger (snapshot + tail) and overwrites the projection.
+    // The product row is locked before the ledger is read: a receipt that already incremented the row has
+    // committed its movements by the time the lock is granted, and later ones wait until this rebuild
+    // commits, so neither increment is lost to the overwrite.
+    @Transactional
+    public Product rebuildCurrentStock(Long productId) {
+        if (!productStockRepository.lockProduct(productId)) {
+            throw new RuntimeException("Product not found with id: " + productId);
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        int oldStock = product.getCurrentStock() != null ? product.getCurrentStock() : 0;
+        int stock = getStockAt(productId, LocalDateTime.now());
+
+        productStockRepository.setStock(productId, stock);
+        entityManager.detach(product);
+        product.setCurrentStock(stock);
+        dashboardStatsCache.stockChanged(product, oldStock, stock);
+        productCatalogCache.evict(productId);
+        tableVersions.changed(TableVersions.Table.PRODUCTS);
+        if (oldStock != stock) {
+            log.warn("Rebuilt stock for product {}: projection was {}, ledger says {}", productId, oldStock, stock);
+            changeFeedService.stockChanged(product);
+            productSearchIndex.stockChanged(Map.of(productId, stock));
+            stockColumns.stockSet(Map.of(productId, stock));
+        }
+        return product;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.snapshot-interval-ms:3600000}",
+            initialDelayString = "${inventory.stock.snapshot-interval-ms:3600000}")
+    @Transactional
+    public void takeSnapshots() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(snapshotLagMs));
+        LocalDateTime previous = snapshotRepository.findLatestAsOf();
+        if (previous == null) {
+            previous = LEDGER_START;
+        }
+        if (!cutoff.isAfter(previous)) {
+            return;
+        }
+
+        Map<Long, Integer> deltaByProduct = new LinkedHashMap<>();
+        for (Object[] row : movementRepository.sumQuantityByProduct(previous, cutoff)) {
+            deltaByProduct.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        if (deltaByProduct.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> baseByProduct = new HashMap<>();
+        List<Long> productIds = new ArrayList<>(deltaByProduct.keySet());
+        for (int from = 0; from < productIds.size(); from += SNAPSHOT_LOOKUP_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + SNAPSHOT_LOOKUP_CHUNK, productIds.size()));
+            for (StockSnapshot snapshot : snapshotRepository.findLatestForProducts(chunk)) {
+                baseByProduct.put(snapshot.getProductId(), snapshot.getQuantity());
+            }
+        }
+
+        List<StockSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : deltaByProduct.entrySet()) {
+            StockSnapshot snapshot = new StockSnapshot();
+            snapshot.setProductId(entry.getKey());
+            snapshot.setQuantity(baseByProduct.getOrDefault(entry.getKey(), 0) + entry.getValue());
+            snapshot.setAsOf(cutoff);
+            snapshots.add(snapshot);
+        }
+        snapshotRepository.saveAll(snapshots);
+        log.info("Stock snapshot as of {}: {} products", cutoff, snapshots.size());
+    }
+
+    // Products that existed before the ledger get their current stock recorded as an opening balance,
+    // otherwise a rebuild or point-in-time query would start from zero for them. Every instance runs this
+    // on start-up: if another one seeds the same products first, the unique opening_balance_of column
+    // rejects this batch and the whole transaction rolls back.
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOpeningBalances() {
+        try {
+            Integer seeded = transactionTemplate.execute(status -> {
+                List<StockMovement> movements = new ArrayList<>();
+                for (Object[] row : movementRepository.findProductsWithoutMovements()) {
+                    movements.add(openingBalance((Long) row[0], (Integer) row[1]));
+                }
+                movementRepository.saveAllAndFlush(movements);
+                return movements.size();
+            });
+            if (seeded != null && seeded > 0) {
+                log.info("Recorded opening stock balances for {} products", seeded);
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.info("Opening stock balances are being recorded by another instance");
+        }
+    }
+
+    // Single atomic UPDATE for all products, then the resulting stock is read back: the loaded entities may
+    // predate a concurrent change, so their currentStock + delta is not what was committed. The entities are
+    // detached so they can carry the new values in responses without Hibernate writing them back.
+    private void applyToProjection(Map<Long, Product> productsById, Map<Long, Integer> quantityByProduct) {
+        productStockRepository.incrementStock(quantityByProduct);
+        Map<Long, Integer> stockByProduct = productStockRepository.findStock(quantityByProduct.keySet());
+        tableVersions.changed(TableVersions.Table.PRODUCTS);
+
+        for (Map.Entry<Long, Integer> entry : quantityByProduct.entrySet()) {
+            Product product = productsById.get(entry.getKey());
+            int newStock = stockByProduct.get(entry.getKey());
+            // ensureNotNegative checked the loaded value; a concurrent removal may have taken the rest
+            if (newStock < 0) {
+                throw new RuntimeException("Stock cannot go negative. Current stock: " + (newStock - entry.getValue()));
+            }
+
+            entityManager.detach(product);
+            product.setCurrentStock(newStock);
+            dashboardStatsCache.stockChanged(product, newStock - entry.getValue(), newStock);
+            changeFeedService.stockChanged(product);
+        }
+        productSearchIndex.stockChanged(stockByProduct);
+        stockColumns.stockAdded(quantityByProduct);
+        productCatalogCache.evictAll(new ArrayList<>(quantityByProduct.keySet()));
+    }
+
+    private void ensureNotNegative(Product product, int quantity) {
+        int current = product.getCurrentStock() != null ? product.getCurrentStock() : 0;
+        if (current + quantity < 0) {
+            throw new RuntimeException("Stock cannot go negative. Current stock: " + current);
+        }
+    }
+
+    private StockMovement openingBalance(Long productId, Integer stock) {
+        StockMovement movement = newMovement(StockMovement.MovementType.ADJUSTMENT, productId, stock, null, null,
+                OPENING_BALANCE_NOTE);
+        movement.setOpeningBalanceOf(productId);
+        return movement;
+    }
+
+    private StockMovement newMovement(StockMovement.MovementType type, Long productId, Integer quantity,
+                                      Long purchaseOrderId, Long orderItemId, String note) {
+        StockMovement movement = new StockMovement();
+        movement.setType(type);
+        movement.setProductId(productId);
+        movement.setQuantity(quantity);
+        movement.setPurchaseOrderId(purchaseOrderId);
+        movement.setOrderItemId(orderItemId);
+        movement.setNote(note);
+        return movement;
+    }
+}
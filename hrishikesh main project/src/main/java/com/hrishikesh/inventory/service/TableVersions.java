@@ -0,0 +1,53 @@
+package com.hrishikesh.inventory.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Change counters per table, behind the ETags of the read endpoints. An ETag is the startup time plus the
+// counters of the tables a response is built from, so checking If-None-Match costs no query and no body
+// hash. Writers call changed() inside their transaction: the counter moves right away and once more when
+// the transaction completes, so a list read while the commit was in flight is never validated as current.
+//
+// Counters live in memory: with more than one application instance writing, each would need a shared
+// version source (e.g. a row in the database) instead.
+@Component
+public class TableVersions {
+
+    public enum Table {
+        VENDORS, PRODUCTS, ORDERS, PAYMENTS
+    }
+
+    // A restart must never produce an ETag a client already holds for different data
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+
+    public void changed(Table... tables) {
+        bump(tables);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(tables);
+                }
+            });
+        }
+    }
+
+    // Weak: the same version may be sent gzip-compressed or not
+    public String etag(Table... tables) {
+        StringBuilder etag = new StringBuilder("W/\"").append(epoch);
+        for (Table table : tables) {
+            etag.append('-').append(versions.get(table.ordinal()));
+        }
+        return etag.append('"').toString();
+    }
+
+    private void bump(Table... tables) {
+        for (Table table : tables) {
+            versions.incrementAndGet(table.ordinal());
+        }
+    }
+}
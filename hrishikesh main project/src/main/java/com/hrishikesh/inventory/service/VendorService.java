@@ -1,6 +1,9 @@
 package com.hrishikesh.inventory.service;
 
+import com.hrishikesh.inventory.dto.CursorPage;
 import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.repository.KeysetPageRepository;
+import com.hrishikesh.inventory.repository.SortKey;
 import com.hrishikesh.inventory.repository.VendorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,12 +16,42 @@ public class VendorService {
     @Autowired
     private VendorRepository vendorRepository;
 
+    @Autowired
+    private CursorPaging cursorPaging;
+
+    @Autowired
+    private KeysetPageRepository keysetPageRepository;
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TableVersions tableVersions;
+
     public List<Vendor> getAllVendors() {
         return vendorRepository.findAll();
     }
 
+    public CursorPage<Vendor> getVendorsPage(String cursor, Integer size, String sort, String direction,
+                                             String name) {
+        int pageSize = cursorPaging.resolveSize(size);
+        SortKey<Vendor> sortKey = cursorPaging.resolveSort(sort, KeysetPageRepository.VENDOR_SORTS);
+        boolean descending = cursorPaging.isDescending(direction);
+
+        List<Vendor> rows = keysetPageRepository.findVendors(cursorPaging.likePattern(name), sortKey,
+                cursorPaging.decodeCursor(cursor, sortKey), descending, cursorPaging.limit(pageSize));
+        return cursorPaging.page(rows, pageSize, sortKey, Vendor::getId);
+    }
+
     public Vendor createVendor(Vendor vendor) {
-        return vendorRepository.save(vendor);
+        Vendor saved = vendorRepository.save(vendor);
+        dashboardStatsCache.vendorCreated();
+        tableVersions.changed(TableVersions.Table.VENDORS);
+        changeFeedService.vendorCreated(saved);
+        return saved;
     }
 
     public Vendor getVendorById(Long id) {
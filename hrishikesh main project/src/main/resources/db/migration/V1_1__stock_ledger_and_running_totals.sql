@@ -0,0 +1,42 @@
+-- Tables and columns the application gained after the V1 baseline: optimistic-lock versions, the per-product
+-- low-stock threshold, the running paid/outstanding totals on orders, and the stock ledger with its snapshots.
+-- Runs right after V1 (and before V3, which seeds id_generator from the ledger tables), so a database
+-- baselined at V1 receives it as well.
+-- paid_amount/outstanding_amount stay NULL on existing orders; PaymentService fills them in on first use.
+-- Existing products get their current stock recorded as an opening ledger entry on the next start
+-- (StockLedgerService.seedOpeningBalances).
+
+ALTER TABLE product ADD COLUMN low_stock_threshold INT;
+ALTER TABLE product ADD COLUMN version BIGINT DEFAULT 0;
+
+ALTER TABLE purchase_order ADD COLUMN paid_amount DECIMAL(38, 2);
+ALTER TABLE purchase_order ADD COLUMN outstanding_amount DECIMAL(38, 2);
+ALTER TABLE purchase_order ADD COLUMN version BIGINT DEFAULT 0;
+
+ALTER TABLE payment ADD COLUMN version BIGINT DEFAULT 0;
+
+CREATE TABLE stock_movement (
+    id                   BIGINT      NOT NULL AUTO_INCREMENT,
+    product_id           BIGINT      NOT NULL,
+    type                 VARCHAR(32) NOT NULL,
+    quantity             INT         NOT NULL,
+    purchase_order_id    BIGINT,
+    order_item_id        BIGINT,
+    reversed_movement_id BIGINT,
+    note                 VARCHAR(255),
+    created_at           DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_movement_reversed UNIQUE (reversed_movement_id)
+);
+
+CREATE INDEX idx_stock_movement_product_created ON stock_movement (product_id, created_at);
+
+CREATE TABLE stock_snapshot (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    product_id BIGINT      NOT NULL,
+    quantity   INT         NOT NULL,
+    as_of      DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_stock_snapshot_product_as_of ON stock_snapshot (product_id, as_of);
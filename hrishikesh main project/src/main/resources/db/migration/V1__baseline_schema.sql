@@ -0,0 +1,60 @@
+-- Baseline: the schema Hibernate (ddl-auto=update) produced before migrations were introduced.
+-- Existing databases are baselined at this version and skip it (spring.flyway.baseline-on-migrate).
+-- Kept to the MySQL / H2 (MODE=MySQL) common subset so the benchmark profile can run it too.
+
+CREATE TABLE vendor (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    name           VARCHAR(255) NOT NULL,
+    contact_number VARCHAR(255) NOT NULL,
+    email          VARCHAR(255),
+    address        VARCHAR(255),
+    created_at     DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE product (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255) NOT NULL,
+    sku           VARCHAR(255) NOT NULL,
+    description   VARCHAR(255),
+    unit_price    DECIMAL(38, 2),
+    current_stock INT,
+    last_updated  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_sku UNIQUE (sku)
+);
+
+CREATE TABLE purchase_order (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    vendor_id    BIGINT NOT NULL,
+    order_date   DATETIME(6),
+    status       VARCHAR(32),
+    total_amount DECIMAL(38, 2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_purchase_order_vendor FOREIGN KEY (vendor_id) REFERENCES vendor (id)
+);
+
+CREATE TABLE order_item (
+    id                BIGINT NOT NULL AUTO_INCREMENT,
+    purchase_order_id BIGINT,
+    product_id        BIGINT,
+    quantity          INT,
+    received_quantity INT,
+    unit_price        DECIMAL(38, 2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_purchase_order FOREIGN KEY (purchase_order_id) REFERENCES purchase_order (id),
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE payment (
+    id                    BIGINT         NOT NULL AUTO_INCREMENT,
+    purchase_order_id     BIGINT         NOT NULL,
+    amount                DECIMAL(38, 2) NOT NULL,
+    payment_date          DATETIME(6),
+    payment_method        VARCHAR(32)    NOT NULL,
+    status                VARCHAR(32),
+    transaction_reference VARCHAR(255),
+    notes                 VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_payment_purchase_order FOREIGN KEY (purchase_order_id) REFERENCES purchase_order (id)
+);
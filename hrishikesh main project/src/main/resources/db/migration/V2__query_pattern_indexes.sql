@@ -0,0 +1,20 @@
+-- Composite indexes for the filters the API and background jobs actually run.
+-- InnoDB appends the primary key to every secondary index, so (status) also serves
+-- "WHERE status = ? AND id > ? ORDER BY id" keyset pages without a sort.
+
+-- Payment totals per order (sumAmountByOrder / sumAmountByOrders) and payment lists per order
+CREATE INDEX idx_payment_order_status ON payment (purchase_order_id, status);
+-- findByStatus, status-filtered payment pages
+CREATE INDEX idx_payment_status ON payment (status);
+-- Export date range
+CREATE INDEX idx_payment_date ON payment (payment_date);
+
+-- Dashboard countByStatus, status-filtered order pages
+CREATE INDEX idx_purchase_order_status ON purchase_order (status);
+-- Vendor + status filter on order pages and exports
+CREATE INDEX idx_purchase_order_vendor_status ON purchase_order (vendor_id, status);
+-- Date range filter on order pages and exports
+CREATE INDEX idx_purchase_order_date ON purchase_order (order_date);
+
+-- Loading an order's lines and joining them to products without touching the row
+CREATE INDEX idx_order_item_order_product ON order_item (purchase_order_id, product_id);
@@ -0,0 +1,19 @@
+-- Ids move from AUTO_INCREMENT to a pooled table generator (see entity.IdGeneration), one row per table.
+-- next_val is the first id not yet handed out, so each row starts right after the table's current maximum.
+-- The AUTO_INCREMENT attribute stays on the id columns; it is simply no longer used by the application.
+-- Run with the previous release stopped: it still inserts through AUTO_INCREMENT and could take an id
+-- that is handed out again from here.
+
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT       NOT NULL,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'vendor', COALESCE(MAX(id), 0) + 1 FROM vendor;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'product', COALESCE(MAX(id), 0) + 1 FROM product;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'purchase_order', COALESCE(MAX(id), 0) + 1 FROM purchase_order;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'order_item', COALESCE(MAX(id), 0) + 1 FROM order_item;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'payment', COALESCE(MAX(id), 0) + 1 FROM payment;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'stock_movement', COALESCE(MAX(id), 0) + 1 FROM stock_movement;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'stock_snapshot', COALESCE(MAX(id), 0) + 1 FROM stock_snapshot;
@@ -0,0 +1,3 @@
+-- Payment ingestion checks each micro-batch of transaction references against recorded payments
+-- and looks references up for status polling. Not unique: manually entered payments may already share one.
+CREATE INDEX idx_payment_transaction_reference ON payment (transaction_reference);
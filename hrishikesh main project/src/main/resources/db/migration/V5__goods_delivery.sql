@@ -0,0 +1,16 @@
+-- One row per delivery note received against a purchase order (POST /api/orders/{id}/deliveries).
+-- The unique delivery_reference makes a resubmitted delivery note a no-op instead of a second receipt.
+
+CREATE TABLE goods_delivery (
+    id                 BIGINT       NOT NULL,
+    delivery_reference VARCHAR(100) NOT NULL,
+    purchase_order_id  BIGINT       NOT NULL,
+    line_count         INT          NOT NULL,
+    total_quantity     INT          NOT NULL,
+    received_at        DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_goods_delivery_reference UNIQUE (delivery_reference),
+    CONSTRAINT fk_goods_delivery_purchase_order FOREIGN KEY (purchase_order_id) REFERENCES purchase_order (id)
+);
+
+INSERT INTO id_generator (sequence_name, next_val) VALUES ('goods_delivery', 1);
@@ -0,0 +1,7 @@
+-- Replenishment levels per product (both optional). The reorder point stays low_stock_threshold;
+-- max_stock_level is the level a suggested order tops the product up to, and preferred_vendor_id the
+-- vendor the suggestion goes to (otherwise the vendor the product was last ordered from).
+
+ALTER TABLE product ADD COLUMN max_stock_level INT NULL;
+ALTER TABLE product ADD COLUMN preferred_vendor_id BIGINT NULL;
+ALTER TABLE product ADD CONSTRAINT fk_product_preferred_vendor FOREIGN KEY (preferred_vendor_id) REFERENCES vendor (id);
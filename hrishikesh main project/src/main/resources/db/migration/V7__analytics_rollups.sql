@@ -0,0 +1,49 @@
+-- Pre-aggregated rollups behind /api/analytics: orders per vendor, day and status, and payments per
+-- vendor, day, method and status. Services add their deltas in the same transaction as the change, so
+-- a query over any period reads (vendors x days) rows however many orders and payments there are.
+-- Rows without an order/payment date are left out; a missing order status, payment status or method
+-- is rolled up as PENDING, COMPLETED or UNSPECIFIED, matching RollupRecorder.
+
+CREATE TABLE order_daily_rollup (
+    vendor_id         BIGINT         NOT NULL,
+    rollup_date       DATE           NOT NULL,
+    status            VARCHAR(32)    NOT NULL,
+    order_count       BIGINT         NOT NULL,
+    total_amount      DECIMAL(38, 2) NOT NULL,
+    ordered_quantity  BIGINT         NOT NULL,
+    received_quantity BIGINT         NOT NULL,
+    PRIMARY KEY (vendor_id, rollup_date, status)
+);
+CREATE INDEX idx_order_daily_rollup_date ON order_daily_rollup (rollup_date);
+
+CREATE TABLE payment_daily_rollup (
+    vendor_id      BIGINT         NOT NULL,
+    rollup_date    DATE           NOT NULL,
+    payment_method VARCHAR(32)    NOT NULL,
+    status         VARCHAR(32)    NOT NULL,
+    payment_count  BIGINT         NOT NULL,
+    amount         DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (vendor_id, rollup_date, payment_method, status)
+);
+CREATE INDEX idx_payment_daily_rollup_date ON payment_daily_rollup (rollup_date);
+
+-- Existing history (the same statements AnalyticsService.rebuildRollups runs per date range)
+INSERT INTO order_daily_rollup (vendor_id, rollup_date, status, order_count, total_amount, ordered_quantity,
+                                received_quantity)
+SELECT o.vendor_id, CAST(o.order_date AS DATE), COALESCE(o.status, 'PENDING'), COUNT(*),
+       COALESCE(SUM(o.total_amount), 0), COALESCE(SUM(q.ordered_quantity), 0), COALESCE(SUM(q.received_quantity), 0)
+FROM purchase_order o
+LEFT JOIN (SELECT purchase_order_id, SUM(quantity) AS ordered_quantity,
+                  SUM(COALESCE(received_quantity, 0)) AS received_quantity
+           FROM order_item GROUP BY purchase_order_id) q ON q.purchase_order_id = o.id
+WHERE o.order_date IS NOT NULL
+GROUP BY o.vendor_id, CAST(o.order_date AS DATE), COALESCE(o.status, 'PENDING');
+
+INSERT INTO payment_daily_rollup (vendor_id, rollup_date, payment_method, status, payment_count, amount)
+SELECT o.vendor_id, CAST(p.payment_date AS DATE), COALESCE(p.payment_method, 'UNSPECIFIED'),
+       COALESCE(p.status, 'COMPLETED'), COUNT(*), COALESCE(SUM(p.amount), 0)
+FROM payment p
+JOIN purchase_order o ON o.id = p.purchase_order_id
+WHERE p.payment_date IS NOT NULL
+GROUP BY o.vendor_id, CAST(p.payment_date AS DATE), COALESCE(p.payment_method, 'UNSPECIFIED'),
+         COALESCE(p.status, 'COMPLETED');
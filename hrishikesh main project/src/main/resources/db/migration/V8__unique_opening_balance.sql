@@ -0,0 +1,16 @@
+-- At most one opening balance per product. Every instance runs StockLedgerService.seedOpeningBalances on
+-- start-up; when two start together, the second one's inserts now fail on uk_stock_movement_opening_balance
+-- instead of recording the product's stock a second time. opening_balance_of holds the product id on
+-- opening-balance rows and stays NULL on every other movement.
+-- Existing opening balances are marked from the ledger: the first one per product (any later ones are
+-- duplicates from before this constraint and stay unmarked).
+
+ALTER TABLE stock_movement ADD COLUMN opening_balance_of BIGINT NULL;
+
+UPDATE stock_movement SET opening_balance_of = product_id
+WHERE id IN (SELECT first_opening.id
+             FROM (SELECT MIN(id) AS id FROM stock_movement
+                   WHERE type = 'ADJUSTMENT' AND note = 'Opening balance'
+                   GROUP BY product_id) first_opening);
+
+ALTER TABLE stock_movement ADD CONSTRAINT uk_stock_movement_opening_balance UNIQUE (opening_balance_of);
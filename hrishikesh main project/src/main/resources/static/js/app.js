@@ -1,43 +1,316 @@
 // Base API URL
 const API_BASE = '/api';
 
+// Matches inventory.low-stock.default-threshold on the server
+const DEFAULT_LOW_STOCK_THRESHOLD = 10;
+
+function isLowStock(p) {
+    const threshold = p.lowStockThreshold ?? DEFAULT_LOW_STOCK_THRESHOLD;
+    return p.currentStock < threshold;
+}
+
 document.addEventListener('DOMContentLoaded', () => {
     const path = window.location.pathname;
 
+    // The change feed is opened before the first load so no change can fall between the two
     if (path === '/' || path.endsWith('index.html')) {
         loadDashboardStats();
     } else if (path.endsWith('vendors.html')) {
+        vendorTable = new VirtualTable('vendor-table-body', 5, `${API_BASE}/vendors/page`, vendorRow,
+            'No vendors yet');
+        connectChangeFeed({ vendor: v => vendorTable.upsert(v) }, { vendors: loadVendors });
         loadVendors();
         setupVendorForm();
     } else if (path.endsWith('inventory.html')) {
+        productTable = new VirtualTable('product-table-body', 5, `${API_BASE}/products/page`, productRow,
+            'No products yet');
+        connectChangeFeed({ product: p => productTable.upsert(p), stock: applyStockChange },
+            { products: loadProducts });
         loadProducts();
         setupProductForm();
+        setupProductSearch();
     } else if (path.endsWith('orders.html')) {
+        orderTable = new VirtualTable('order-table-body', 5, `${API_BASE}/orders/page`, orderRow,
+            'No orders yet');
+        connectChangeFeed({
+            order: o => orderTable.upsert(o),
+            vendor: v => vendorLookup.put(v)
+        }, {
+            orders: loadOrders,
+            vendors: () => vendorLookup.clear()
+        });
         loadOrders();
         setupOrderForm();
+        setupReplenishment();
     } else if (path.endsWith('payments.html')) {
+        paymentTable = new VirtualTable('payment-table-body', 8, `${API_BASE}/payments/page`, paymentRow,
+            'No payments recorded yet');
+        connectChangeFeed({ payment: p => paymentTable.upsert(p), order: updatePayableOrder },
+            { payments: loadPayments, orders: () => { payableOrders = null; } });
         loadPayments();
         setupPaymentForm();
     }
 });
 
+// --- Change Feed ---
+// Server-sent events from /api/changes carry the changed row, so pages patch it in place instead of
+// re-fetching the whole table after every action. A "resync" event (bulk import, or events missed
+// while disconnected) reloads the affected resource.
+let changeFeed = null;
+
+function connectChangeFeed(handlers, reloaders) {
+    changeFeed = new EventSource(`${API_BASE}/changes`);
+
+    Object.entries(handlers).forEach(([type, handler]) => {
+        changeFeed.addEventListener(type, e => handler(JSON.parse(e.data)));
+    });
+    changeFeed.addEventListener('resync', e => {
+        const { resource } = JSON.parse(e.data);
+        Object.entries(reloaders).forEach(([name, reload]) => {
+            if (resource === 'all' || resource === name) reload();
+        });
+    });
+
+    // EventSource retries dropped connections itself, but gives up on an error response (e.g. 503
+    // when the server has too many feeds open); reload and try again later in that case
+    changeFeed.onerror = () => {
+        if (changeFeed.readyState === EventSource.CLOSED) {
+            setTimeout(() => {
+                Object.values(reloaders).forEach(reload => reload());
+                connectChangeFeed(handlers, reloaders);
+            }, 10000);
+        }
+    };
+}
+
+// After a successful action: the change event updates the table, unless the feed is down
+function refreshUnlessLive(load) {
+    if (!changeFeed || changeFeed.readyState !== EventSource.OPEN) {
+        load();
+    }
+}
+
+// --- Virtual Tables ---
+// List pages keep the rows loaded so far in memory but only put the ones in view (plus an overscan) in the
+// DOM, between two spacer rows that stand in for the rest. Rows come from the cursor-paged endpoints
+// (/api/*/page) in id order, one page at a time as the user scrolls towards the end. Each scroll frame
+// renders the window as one HTML string, so the DOM stays at a few dozen rows at 100k orders.
+const PAGE_SIZE = 200;
+const OVERSCAN_ROWS = 10;
+
+let vendorTable, productTable, orderTable, paymentTable;
+
+class VirtualTable {
+    constructor(tbodyId, columns, pageUrl, renderRow, emptyText) {
+        this.tbody = document.getElementById(tbodyId);
+        // The scroll container wraps the table; rows need a fixed height (see .virtual-scroll in styles.css)
+        this.scroller = this.tbody.closest('.virtual-scroll');
+        this.columns = columns;
+        this.pageUrl = pageUrl;
+        this.renderRow = renderRow;
+        this.emptyText = emptyText;
+        this.rowHeight = 49;
+        this.rowHeightMeasured = false;
+        this.generation = 0;
+        this.renderScheduled = false;
+        this.scroller.addEventListener('scroll', () => this.scheduleRender(), { passive: true });
+        window.addEventListener('resize', () => this.scheduleRender());
+    }
+
+    // Drops everything loaded and starts again from the first page (initial load and resync)
+    reset() {
+        this.rows = [];
+        this.indexById = new Map();
+        this.nextCursor = null;
+        this.hasMore = true;
+        this.loading = null;
+        this.generation++;
+        this.scroller.scrollTop = 0;
+        this.render();
+        return this.loadMore();
+    }
+
+    loadMore() {
+        if (this.loading || !this.hasMore) return this.loading;
+
+        const generation = this.generation;
+        const url = new URL(this.pageUrl, window.location.origin);
+        url.searchParams.set('size', PAGE_SIZE);
+        if (this.nextCursor !== null) url.searchParams.set('cursor', this.nextCursor);
+
+        this.loading = fetch(url)
+            .then(res => res.json())
+            .then(page => {
+                if (generation !== this.generation) return; // reset while this page was in flight
+                page.items.forEach(item => {
+                    if (!this.indexById.has(item.id)) this.append(item);
+                });
+                this.nextCursor = page.nextCursor;
+                this.hasMore = page.hasMore;
+            })
+            .catch(error => console.error('Error loading rows:', error))
+            .finally(() => {
+                if (generation !== this.generation) return;
+                this.loading = null;
+                this.render();
+            });
+        return this.loading;
+    }
+
+    get(id) {
+        const index = this.indexById.get(id);
+        return index === undefined ? undefined : this.rows[index];
+    }
+
+    // Applies a change event: replaces a loaded row, or adds a new one if its position has been loaded
+    // already (otherwise the page that contains it will bring it in)
+    upsert(item) {
+        const index = this.indexById.get(item.id);
+        if (index !== undefined) {
+            this.rows[index] = item;
+        } else if (!this.hasMore || (this.rows.length > 0 && item.id < this.rows[this.rows.length - 1].id)) {
+            this.insertSorted(item);
+        } else {
+            return;
+        }
+        this.scheduleRender();
+    }
+
+    append(item) {
+        this.indexById.set(item.id, this.rows.length);
+        this.rows.push(item);
+    }
+
+    // Ids are almost always increasing, so this is a push; a late commit of a lower id re-indexes once
+    insertSorted(item) {
+        const last = this.rows[this.rows.length - 1];
+        if (!last || item.id > last.id) {
+            this.append(item);
+            return;
+        }
+        let low = 0;
+        let high = this.rows.length;
+        while (low < high) {
+            const mid = (low + high) >> 1;
+            if (this.rows[mid].id < item.id) low = mid + 1; else high = mid;
+        }
+        this.rows.splice(low, 0, item);
+        this.indexById = new Map(this.rows.map((row, i) => [row.id, i]));
+    }
+
+    scheduleRender() {
+        if (this.renderScheduled) return;
+        this.renderScheduled = true;
+        requestAnimationFrame(() => {
+            this.renderScheduled = false;
+            this.render();
+        });
+    }
+
+    render() {
+        const total = this.rows.length;
+        if (total === 0) {
+            this.tbody.innerHTML = this.messageRow(this.hasMore ? 'Loading...' : this.emptyText);
+            return;
+        }
+
+        const top = this.scroller.scrollTop;
+        // Always start on an even row so striped tables keep their stripes while scrolling
+        let first = Math.max(0, Math.floor(top / this.rowHeight) - OVERSCAN_ROWS);
+        first -= first % 2;
+        const last = Math.min(total, Math.ceil((top + this.scroller.clientHeight) / this.rowHeight) + OVERSCAN_ROWS);
+
+        const html = [this.spacerRow(first * this.rowHeight)];
+        for (let i = first; i < last; i++) {
+            html.push(this.renderRow(this.rows[i]));
+        }
+        html.push(this.spacerRow((total - last) * this.rowHeight));
+        this.tbody.innerHTML = html.join('');
+
+        if (!this.rowHeightMeasured) {
+            const row = this.tbody.querySelector('tr[data-id]');
+            if (row && row.offsetHeight > 0) {
+                this.rowHeightMeasured = true;
+                if (row.offsetHeight !== this.rowHeight) {
+                    this.rowHeight = row.offsetHeight;
+                    this.scheduleRender();
+                }
+            }
+        }
+
+        // Fetch the next page before the user reaches the end of what is loaded
+        if (this.hasMore && last >= total - OVERSCAN_ROWS) {
+            this.loadMore();
+        }
+    }
+
+    // Rendered even at height 0 so the rows after it always keep the same nth-of-type parity
+    spacerRow(height) {
+        return `<tr class="virtual-spacer" style="height: ${height}px"><td colspan="${this.columns}"></td></tr>`;
+    }
+
+    messageRow(text) {
+        return `<tr><td colspan="${this.columns}" class="text-center">${text}</td></tr>`;
+    }
+}
+
+// Fetches every page of a cursor-paged listing (used for dropdowns, not for the tables)
+async function fetchAllPages(url) {
+    const items = [];
+    let cursor = null;
+    do {
+        const pageUrl = new URL(url, window.location.origin);
+        pageUrl.searchParams.set('size', 500);
+        if (cursor !== null) pageUrl.searchParams.set('cursor', cursor);
+        const page = await fetch(pageUrl).then(res => res.json());
+        items.push(...page.items);
+        cursor = page.hasMore ? page.nextCursor : null;
+    } while (cursor !== null);
+    return items;
+}
+
+// Vendor list for the order form dropdown: fetched once per page view instead of on every modal open,
+// then kept current from vendor change events
+class LookupCache {
+    constructor(url) {
+        this.url = url;
+        this.byId = null;
+        this.pending = null;
+    }
+
+    async all() {
+        if (!this.byId) {
+            this.pending ??= fetch(this.url)
+                .then(res => res.json())
+                .then(items => { this.byId = new Map(items.map(item => [item.id, item])); })
+                .finally(() => { this.pending = null; });
+            await this.pending;
+        }
+        return [...this.byId.values()];
+    }
+
+    put(item) {
+        this.byId?.set(item.id, item);
+    }
+
+    clear() {
+        this.byId = null;
+    }
+}
+
+// One request for the full list (compressed, and a 304 when nothing changed) beats paging through it.
+// Products are too many for that; the item rows search them instead (setupProductPicker).
+const vendorLookup = new LookupCache(`${API_BASE}/vendors`);
+
 // --- Dashboard Functions ---
 async function loadDashboardStats() {
     try {
-        const [vendors, products, orders] = await Promise.all([
-            fetch(`${API_BASE}/vendors`).then(res => res.json()),
-            fetch(`${API_BASE}/products`).then(res => res.json()),
-            fetch(`${API_BASE}/orders`).then(res => res.json())
-        ]);
+        const stats = await fetch(`${API_BASE}/dashboard/stats`).then(res => res.json());
 
-        document.getElementById('total-vendors').innerText = vendors.length;
-        document.getElementById('total-products').innerText = products.length;
-
-        const pending = orders.filter(o => o.status === 'PENDING').length;
-        document.getElementById('pending-orders').innerText = pending;
-
-        const lowStock = products.filter(p => p.currentStock < 10).length;
-        document.getElementById('low-stock').innerText = lowStock;
+        document.getElementById('total-vendors').innerText = stats.totalVendors;
+        document.getElementById('total-products').innerText = stats.totalProducts;
+        document.getElementById('pending-orders').innerText = stats.pendingOrders;
+        document.getElementById('low-stock').innerText = stats.lowStockProducts;
 
     } catch (error) {
         console.error('Error loading stats:', error);
@@ -45,23 +318,20 @@ async function loadDashboardStats() {
 }
 
 // --- Vendor Functions ---
-async function loadVendors() {
-    const res = await fetch(`${API_BASE}/vendors`);
-    const vendors = await res.json();
-    const tbody = document.getElementById('vendor-table-body');
-    tbody.innerHTML = '';
-
-    vendors.forEach(v => {
-        tbody.innerHTML += `
-            <tr>
-                <td>${v.id}</td>
-                <td>${v.name}</td>
-                <td>${v.contactNumber}</td>
-                <td>${v.email || '-'}</td>
-                <td>${v.address || '-'}</td>
-            </tr>
-        `;
-    });
+function loadVendors() {
+    return vendorTable.reset();
+}
+
+function vendorRow(v) {
+    return `
+        <tr data-id="${v.id}">
+            <td>${v.id}</td>
+            <td>${v.name}</td>
+            <td>${v.contactNumber}</td>
+            <td>${v.email || '-'}</td>
+            <td>${v.address || '-'}</td>
+        </tr>
+    `;
 }
 
 function setupVendorForm() {
@@ -81,41 +351,47 @@ function setupVendorForm() {
         });
 
         e.target.reset();
-        loadVendors();
+        refreshUnlessLive(loadVendors);
     });
 }
 
 // --- Product/Inventory Functions ---
-async function loadProducts() {
-    const res = await fetch(`${API_BASE}/products`);
-    const products = await res.json();
-    const tbody = document.getElementById('product-table-body');
-    tbody.innerHTML = '';
-
-    products.forEach(p => {
-        const statusClass = p.currentStock < 10 ? 'text-danger fw-bold' : 'text-success';
-        const statusText = p.currentStock < 10 ? 'Low Stock' : 'In Stock';
-
-        tbody.innerHTML += `
-            <tr>
-                <td>${p.sku}</td>
-                <td>${p.name}</td>
-                <td>₹${p.unitPrice}</td>
-                <td>${p.currentStock}</td>
-                <td class="${statusClass}">${statusText}</td>
-            </tr>
-        `;
-    });
+function loadProducts() {
+    return productTable.reset();
+}
+
+function productRow(p) {
+    const statusClass = isLowStock(p) ? 'text-danger fw-bold' : 'text-success';
+    const statusText = isLowStock(p) ? 'Low Stock' : 'In Stock';
+
+    return `
+        <tr data-id="${p.id}">
+            <td>${p.sku}</td>
+            <td>${p.name}</td>
+            <td>₹${p.unitPrice}</td>
+            <td>${p.currentStock}</td>
+            <td class="${statusClass}">${statusText}</td>
+        </tr>
+    `;
+}
+
+// Stock events carry only the id and new level; patch the loaded product
+function applyStockChange(change) {
+    const product = productTable.get(change.productId);
+    if (!product) return;
+    productTable.upsert({ ...product, currentStock: change.currentStock, lowStockThreshold: change.lowStockThreshold });
 }
 
 function setupProductForm() {
     document.getElementById('add-product-form').addEventListener('submit', async (e) => {
         e.preventDefault();
+        const threshold = document.getElementById('productThreshold').value;
         const product = {
             name: document.getElementById('productName').value,
             sku: document.getElementById('productSku').value,
             unitPrice: parseFloat(document.getElementById('productPrice').value),
             currentStock: parseInt(document.getElementById('productStock').value),
+            lowStockThreshold: threshold ? parseInt(threshold) : null,
             description: document.getElementById('productDesc').value
         };
 
@@ -131,57 +407,107 @@ function setupProductForm() {
         }
 
         e.target.reset();
-        loadProducts();
+        refreshUnlessLive(loadProducts);
     });
 }
 
+// Server-side search (/api/products/search) instead of filtering a downloaded catalog; the table shows
+// the top hits and the summary line the total and stock facet counts
+const PRODUCT_SEARCH_LIMIT = 50;
+let productSearchTimer = null;
+let productSearchSeq = 0;
+
+function setupProductSearch() {
+    ['productSearch', 'productSearchMinPrice', 'productSearchMaxPrice'].forEach(id =>
+        document.getElementById(id).addEventListener('input', () => {
+            clearTimeout(productSearchTimer);
+            productSearchTimer = setTimeout(searchProducts, 200);
+        }));
+}
+
+async function searchProducts() {
+    const q = document.getElementById('productSearch').value.trim();
+    const minPrice = document.getElementById('productSearchMinPrice').value;
+    const maxPrice = document.getElementById('productSearchMaxPrice').value;
+    const table = document.getElementById('product-search-results');
+    const summary = document.getElementById('product-search-summary');
+    if (!q && !minPrice && !maxPrice) {
+        table.classList.add('d-none');
+        summary.innerText = '';
+        return;
+    }
+
+    const url = new URL(`${API_BASE}/products/search`, window.location.origin);
+    if (q) url.searchParams.set('q', q);
+    if (minPrice) url.searchParams.set('minPrice', minPrice);
+    if (maxPrice) url.searchParams.set('maxPrice', maxPrice);
+    url.searchParams.set('limit', PRODUCT_SEARCH_LIMIT);
+
+    // Only the latest request may render; earlier ones can arrive late
+    const seq = ++productSearchSeq;
+    const res = await fetch(url);
+    if (seq !== productSearchSeq) return;
+    if (!res.ok) {
+        table.classList.add('d-none');
+        summary.innerText = res.status === 503 ? 'Search index is loading, try again in a moment' : 'Search failed';
+        return;
+    }
+
+    const result = await res.json();
+    const stock = result.facets.stock;
+    summary.innerText = `${result.total} matching products (showing ${result.hits.length}) - `
+        + `${stock.inStock} in stock, ${stock.lowStock} low, ${stock.outOfStock} out of stock`;
+    document.getElementById('product-search-body').innerHTML = result.hits.length
+        ? result.hits.map(productRow).join('')
+        : '<tr><td colspan="5" class="text-center">No matching products</td></tr>';
+    table.classList.remove('d-none');
+}
+
 // --- Purchase Order Functions ---
-async function loadOrders() {
-    const res = await fetch(`${API_BASE}/orders`);
-    const orders = await res.json();
-    const tbody = document.getElementById('order-table-body');
-    tbody.innerHTML = '';
-
-    orders.forEach(o => {
-        const date = new Date(o.orderDate).toLocaleDateString();
-
-        // Dynamic action buttons based on status
-        let actionBtns = '';
-        if (o.status === 'PENDING') {
-            actionBtns = `
-                <button class="btn btn-sm btn-success me-1" onclick="approveOrder(${o.id})">Approve</button>
-                <button class="btn btn-sm btn-danger" onclick="cancelOrder(${o.id})">Cancel</button>
-            `;
-        } else if (o.status === 'APPROVED') {
-            actionBtns = `
-                <button class="btn btn-sm btn-primary me-1" onclick="showPartialReceiptModal(${o.id})">Partial Receipt</button>
-                <button class="btn btn-sm btn-success me-1" onclick="receiveOrder(${o.id})">Receive All</button>
-                <button class="btn btn-sm btn-danger" onclick="cancelOrder(${o.id})">Cancel</button>
-            `;
-        } else if (o.status === 'RECEIVED') {
-            actionBtns = '<span class="badge bg-success">Completed</span>';
-        } else if (o.status === 'CANCELLED') {
-            actionBtns = '<span class="badge bg-secondary">Cancelled</span>';
-        }
+// Rows are OrderSummary objects, from /api/orders/page and from order change events
+function loadOrders() {
+    return orderTable.reset();
+}
 
-        // Status badge colors
-        const statusColors = {
-            'PENDING': 'warning',
-            'APPROVED': 'info',
-            'RECEIVED': 'success',
-            'CANCELLED': 'secondary'
-        };
+function orderRow(o) {
+    const date = new Date(o.orderDate).toLocaleDateString();
 
-        tbody.innerHTML += `
-            <tr>
-                <td>#${o.id}</td>
-                <td>${o.vendor.name}</td>
-                <td>${date}</td>
-                <td><span class="badge bg-${statusColors[o.status] || 'secondary'}">${o.status}</span></td>
-                <td>${actionBtns}</td>
-            </tr>
+    // Dynamic action buttons based on status
+    let actionBtns = '';
+    if (o.status === 'PENDING') {
+        actionBtns = `
+            <button class="btn btn-sm btn-success me-1" onclick="approveOrder(${o.id})">Approve</button>
+            <button class="btn btn-sm btn-danger" onclick="cancelOrder(${o.id})">Cancel</button>
+        `;
+    } else if (o.status === 'APPROVED') {
+        actionBtns = `
+            <button class="btn btn-sm btn-primary me-1" onclick="showPartialReceiptModal(${o.id})">Partial Receipt</button>
+            <button class="btn btn-sm btn-success me-1" onclick="receiveOrder(${o.id})">Receive All</button>
+            <button class="btn btn-sm btn-danger" onclick="cancelOrder(${o.id})">Cancel</button>
+        `;
+    } else if (o.status === 'RECEIVED') {
+        actionBtns = '<span class="badge bg-success">Completed</span>';
+    } else if (o.status === 'CANCELLED') {
+        actionBtns = '<span class="badge bg-secondary">Cancelled</span>';
+    }
+
+    // Status badge colors
+    const statusColors = {
+        'PENDING': 'warning',
+        'APPROVED': 'info',
+        'RECEIVED': 'success',
+        'CANCELLED': 'secondary'
+    };
+
+    return `
+        <tr data-id="${o.id}">
+            <td>#${o.id}</td>
+            <td>${o.vendorName}</td>
+            <td>${date}</td>
+            <td><span class="badge bg-${statusColors[o.status] || 'secondary'}">${o.status}</span></td>
+            <td>${actionBtns}</td>
+        </tr>
         `;
-    });
 }
 
 async function receiveOrder(id) {
@@ -190,7 +516,7 @@ async function receiveOrder(id) {
     const res = await fetch(`${API_BASE}/orders/${id}/receive`, { method: 'POST' });
     if (res.ok) {
         alert('All Goods Received! Inventory Updated. Order marked as RECEIVED.');
-        loadOrders();
+        refreshUnlessLive(loadOrders);
     } else {
         const error = await res.text();
         alert('Error: ' + error);
@@ -203,7 +529,7 @@ async function approveOrder(id) {
     const res = await fetch(`${API_BASE}/orders/${id}/approve`, { method: 'POST' });
     if (res.ok) {
         alert('Order Approved! You can now receive goods.');
-        loadOrders();
+        refreshUnlessLive(loadOrders);
     } else {
         const error = await res.text();
         alert('Error: ' + error);
@@ -216,7 +542,7 @@ async function cancelOrder(id) {
     const res = await fetch(`${API_BASE}/orders/${id}/cancel`, { method: 'POST' });
     if (res.ok) {
         alert('Order Cancelled.');
-        loadOrders();
+        refreshUnlessLive(loadOrders);
     } else {
         const error = await res.text();
         alert('Error: ' + error);
@@ -225,14 +551,12 @@ async function cancelOrder(id) {
 
 async function showPartialReceiptModal(orderId) {
     // Fetch order details
-    const res = await fetch(`${API_BASE}/orders`);
-    const orders = await res.json();
-    const order = orders.find(o => o.id === orderId);
-
-    if (!order) {
+    const res = await fetch(`${API_BASE}/orders/${orderId}`);
+    if (!res.ok) {
         alert('Order not found');
         return;
     }
+    const order = await res.json();
 
     // Build modal content
     let modalHTML = `
@@ -315,9 +639,9 @@ async function receivePartialItem(orderId, itemId, maxQty) {
 
     if (res.ok) {
         alert(`Received ${quantity} items! Inventory updated.`);
-        // Close modal and reload
+        // Close modal; the order row updates from the change feed
         bootstrap.Modal.getInstance(document.getElementById('partialReceiptModal')).hide();
-        loadOrders();
+        refreshUnlessLive(loadOrders);
     } else {
         const error = await res.text();
         alert('Error: ' + error);
@@ -331,19 +655,50 @@ window.cancelOrder = cancelOrder;
 window.showPartialReceiptModal = showPartialReceiptModal;
 window.receivePartialItem = receivePartialItem;
 
+// Server-side replenishment run: PENDING drafts per vendor for everything below its reorder point.
+// The new orders arrive through the change feed like any other.
+function setupReplenishment() {
+    const button = document.getElementById('replenish-btn');
+    button.addEventListener('click', async () => {
+        if (!confirm('Create draft purchase orders for all products below their reorder point?')) return;
+        button.disabled = true;
+        try {
+            const res = await fetch(`${API_BASE}/replenishment/run`, { method: 'POST' });
+            if (!res.ok) {
+                const error = await res.json().catch(() => ({}));
+                alert('Replenishment failed: ' + (error.message || res.status));
+                return;
+            }
+            const report = await res.json();
+            let message = `${report.shortfalls} products short; ${report.orders.filter(o => o.orderId).length} draft orders created.`;
+            if (report.unassignedProductIds.length) {
+                message += `\n${report.unassignedProductIds.length} products have no vendor to order from.`;
+            }
+            if (report.errors.length) {
+                message += '\n' + report.errors.join('\n');
+            }
+            alert(message);
+            refreshUnlessLive(loadOrders);
+        } finally {
+            button.disabled = false;
+        }
+    });
+}
+
 function setupOrderForm() {
+    const refreshFirstPicker = setupProductPicker(document.querySelector('.item-row'));
+
     // Load dropdowns when modal opens
     const modal = document.getElementById('createOrderModal');
     modal.addEventListener('show.bs.modal', async () => {
         // Load Vendors
-        const vRes = await fetch(`${API_BASE}/vendors`);
-        const vendors = await vRes.json();
+        const vendors = await vendorLookup.all();
         const vSelect = document.getElementById('orderVendorSelect');
-        vSelect.innerHTML = '<option value="">Choose...</option>';
-        vendors.forEach(v => vSelect.innerHTML += `<option value="${v.id}">${v.name}</option>`);
+        vSelect.innerHTML = '<option value="">Choose...</option>'
+            + vendors.map(v => `<option value="${v.id}">${v.name}</option>`).join('');
 
-        // Load Products for the first item row
-        loadProductsForSelect(document.querySelector('.product-select'));
+        // Products matching the first item row's search box
+        refreshFirstPicker();
     });
 
     // Add Item Row
@@ -353,7 +708,8 @@ function setupOrderForm() {
         row.className = 'row mb-2 item-row';
         row.innerHTML = `
             <div class="col-6">
-                <select class="form-select product-select" required><option>Loading...</option></select>
+                <input type="search" class="form-control form-control-sm mb-1 product-query" placeholder="Search name or SKU">
+                <select class="form-select product-select" required><option value="">Loading...</option></select>
             </div>
             <div class="col-3">
                 <input type="number" class="form-control quantity-input" placeholder="Qty" required>
@@ -363,7 +719,7 @@ function setupOrderForm() {
             </div>
         `;
         container.appendChild(row);
-        loadProductsForSelect(row.querySelector('.product-select'));
+        setupProductPicker(row)();
 
         row.querySelector('.remove-item').addEventListener('click', () => row.remove());
     });
@@ -399,71 +755,131 @@ function setupOrderForm() {
 
         if (res.ok) {
             alert('Order Created!');
-            location.reload(); // Simple reload to clear form and refresh list
+            // Clear the form back to one item row; the new order arrives on the change feed
+            e.target.reset();
+            document.querySelectorAll('.item-row').forEach((row, i) => { if (i > 0) row.remove(); });
+            bootstrap.Modal.getInstance(modal).hide();
+            refreshUnlessLive(loadOrders);
         } else {
             alert('Failed to create order');
         }
     });
 }
 
-async function loadProductsForSelect(selectElement) {
-    const res = await fetch(`${API_BASE}/products`);
-    const products = await res.json();
-    selectElement.innerHTML = '<option value="">Select Product</option>';
-    products.forEach(p => {
-        selectElement.innerHTML += `<option value="${p.id}">${p.name} (₹${p.unitPrice})</option>`;
+// Product picker of an order item row: the search box queries /api/products/search and the dropdown
+// lists the top matches (a chosen product stays listed while searching on), instead of the page
+// downloading the whole catalog. Returns the function that (re)loads the dropdown.
+const PRODUCT_PICKER_LIMIT = 20;
+
+function setupProductPicker(row) {
+    const query = row.querySelector('.product-query');
+    const select = row.querySelector('.product-select');
+    let timer = null;
+    let seq = 0;
+
+    const load = async () => {
+        const url = new URL(`${API_BASE}/products/search`, window.location.origin);
+        const q = query.value.trim();
+        if (q) url.searchParams.set('q', q);
+        url.searchParams.set('limit', PRODUCT_PICKER_LIMIT);
+
+        // Only the latest request may render; earlier ones can arrive late
+        const current = ++seq;
+        const res = await fetch(url);
+        if (current !== seq) return;
+        const chosen = select.value ? select.selectedOptions[0].outerHTML : '';
+        const chosenId = select.value;
+        if (!res.ok) {
+            const message = res.status === 503 ? 'Search index is loading, try again' : 'Product search failed';
+            select.innerHTML = `<option value="">${message}</option>` + chosen;
+            select.value = chosenId;
+            return;
+        }
+
+        const result = await res.json();
+        select.innerHTML = '<option value="">Select Product</option>' + chosen + result.hits
+            .filter(p => String(p.id) !== chosenId)
+            .map(p => `<option value="${p.id}">${p.name} [${p.sku}] (₹${p.unitPrice})</option>`)
+            .join('');
+        select.value = chosenId;
+    };
+
+    query.addEventListener('input', () => {
+        clearTimeout(timer);
+        timer = setTimeout(load, 200);
     });
+    return load;
 }
 
 // --- Payment Functions ---
-async function loadPayments() {
-    const res = await fetch(`${API_BASE}/payments`);
-    const payments = await res.json();
-    const tbody = document.getElementById('payment-table-body');
-    tbody.innerHTML = '';
-
-    if (payments.length === 0) {
-        tbody.innerHTML = '<tr><td colspan="8" class="text-center">No payments recorded yet</td></tr>';
-        return;
-    }
+// Rows are PaymentSummary objects, from /api/payments/page and from payment change events
+function loadPayments() {
+    return paymentTable.reset();
+}
 
-    payments.forEach(p => {
-        const date = new Date(p.paymentDate).toLocaleDateString();
-        const statusColors = {
-            'COMPLETED': 'success',
-            'PENDING': 'warning',
-            'FAILED': 'danger',
-            'CANCELLED': 'secondary'
-        };
+function paymentRow(p) {
+    const date = new Date(p.paymentDate).toLocaleDateString();
+    const statusColors = {
+        'COMPLETED': 'success',
+        'PENDING': 'warning',
+        'FAILED': 'danger',
+        'CANCELLED': 'secondary'
+    };
+
+    return `
+        <tr data-id="${p.id}">
+            <td>#${p.id}</td>
+            <td>#${p.orderId}</td>
+            <td>${p.vendorName}</td>
+            <td>₹${p.amount}</td>
+            <td>${date}</td>
+            <td>${p.paymentMethod}</td>
+            <td><span class="badge bg-${statusColors[p.status]}">${p.status}</span></td>
+            <td>${p.transactionReference || '-'}</td>
+        </tr>
+    `;
+}
 
-        tbody.innerHTML += `
-            <tr>
-                <td>#${p.id}</td>
-                <td>#${p.purchaseOrder.id}</td>
-                <td>${p.purchaseOrder.vendor.name}</td>
-                <td>₹${p.amount}</td>
-                <td>${date}</td>
-                <td>${p.paymentMethod}</td>
-                <td><span class="badge bg-${statusColors[p.status]}">${p.status}</span></td>
-                <td>${p.transactionReference || '-'}</td>
-            </tr>
-        `;
-    });
+// Orders that can take a payment (APPROVED or RECEIVED), by id. Fetched when the payment modal first
+// opens and then kept current from order change events, instead of re-fetching /api/orders every time.
+let payableOrders = null;
+
+function isPayable(o) {
+    return o.status === 'APPROVED' || o.status === 'RECEIVED';
+}
+
+function updatePayableOrder(o) {
+    if (!payableOrders) return;
+    if (isPayable(o)) {
+        payableOrders.set(o.id, o);
+    } else {
+        payableOrders.delete(o.id);
+    }
+}
+
+// Order summaries filtered by status on the server, instead of every full order with its items
+async function loadPayableOrders() {
+    const [approved, received] = await Promise.all([
+        fetchAllPages(`${API_BASE}/orders/page?status=APPROVED`),
+        fetchAllPages(`${API_BASE}/orders/page?status=RECEIVED`)
+    ]);
+    payableOrders = new Map();
+    [...approved, ...received].forEach(o => payableOrders.set(o.id, o));
 }
 
 function setupPaymentForm() {
     // Load orders when modal opens
     const modal = document.getElementById('createPaymentModal');
     modal.addEventListener('show.bs.modal', async () => {
-        const res = await fetch(`${API_BASE}/orders`);
-        const orders = await res.json();
+        // Without a live feed the cached list could be stale, so fetch it again
+        if (!payableOrders || changeFeed.readyState !== EventSource.OPEN) {
+            await loadPayableOrders();
+        }
         const select = document.getElementById('paymentOrderSelect');
-        select.innerHTML = '<option value="">Choose...</option>';
-
-        // Only show APPROVED or RECEIVED orders
-        orders.filter(o => o.status === 'APPROVED' || o.status === 'RECEIVED').forEach(o => {
-            select.innerHTML += `<option value="${o.id}">Order #${o.id} - ${o.vendor.name} (₹${o.totalAmount})</option>`;
-        });
+        const options = [...payableOrders.values()]
+            .sort((a, b) => a.id - b.id)
+            .map(o => `<option value="${o.id}">Order #${o.id} - ${o.vendorName} (₹${o.totalAmount})</option>`);
+        select.innerHTML = '<option value="">Choose...</option>' + options.join('');
     });
 
     // Show order summary when order is selected
@@ -513,7 +929,7 @@ function setupPaymentForm() {
             bootstrap.Modal.getInstance(modal).hide();
             e.target.reset();
             document.getElementById('order-summary').innerHTML = '';
-            loadPayments();
+            refreshUnlessLive(loadPayments);
         } else {
             const error = await res.text();
             alert('Error: ' + error);
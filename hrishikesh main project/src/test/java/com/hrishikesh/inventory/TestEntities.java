@@ -0,0 +1,52 @@
+package com.hrishikesh.inventory;
+
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Request-shaped entities for the service tests, the same as the JSON bodies the UI posts
+public final class TestEntities {
+
+    private TestEntities() {
+    }
+
+    public static Vendor vendor(String name) {
+        Vendor vendor = new Vendor();
+        vendor.setName(name);
+        vendor.setContactNumber("555-0100");
+        return vendor;
+    }
+
+    public static Product product(String sku, int stock) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setUnitPrice(BigDecimal.TEN);
+        product.setCurrentStock(stock);
+        return product;
+    }
+
+    // One line per product id, quantity units each at 10.00; the vendor and products are referenced by id
+    public static PurchaseOrder order(Vendor vendor, int quantity, Long... productIds) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setVendor(vendor);
+        List<OrderItem> items = new ArrayList<>();
+        for (Long productId : productIds) {
+            Product product = new Product();
+            product.setId(productId);
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setUnitPrice(BigDecimal.TEN);
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf((long) quantity * productIds.length)));
+        return order;
+    }
+}
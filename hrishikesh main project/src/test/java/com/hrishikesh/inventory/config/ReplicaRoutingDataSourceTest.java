@@ -0,0 +1,146 @@
+package com.hrishikesh.inventory.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Routing through the same wiring as ReplicaRoutingConfig (lazy proxy in front of the routing data source),
+// with two separate in-memory H2 databases standing in for the primary and the replica
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromHealthyReplica() {
+        ReplicaRoutingDataSource routing = routing("");
+        routing.checkReplicas();
+
+        String url = connectionUrl(routing, true);
+
+        assertTrue(url.startsWith("jdbc:h2:mem:routing_replica"), url);
+        assertEquals(1.0, routeCount("replica-1", "read"));
+        assertEquals(0.0, routeCount(ReplicaRoutingDataSource.PRIMARY, "read-write"));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        ReplicaRoutingDataSource routing = routing("");
+        routing.checkReplicas();
+
+        String url = connectionUrl(routing, false);
+
+        assertTrue(url.startsWith("jdbc:h2:mem:routing_primary"), url);
+        assertEquals(1.0, routeCount(ReplicaRoutingDataSource.PRIMARY, "read-write"));
+        assertEquals(0.0, routeCount("replica-1", "read"));
+    }
+
+    @Test
+    void replicaServesNoReadsBeforeItsFirstCheck() {
+        ReplicaRoutingDataSource routing = routing("");
+
+        String url = connectionUrl(routing, true);
+
+        assertTrue(url.startsWith("jdbc:h2:mem:routing_primary"), url);
+        assertEquals(1.0, routeCount(ReplicaRoutingDataSource.PRIMARY, "fallback"));
+    }
+
+    @Test
+    void laggingReplicaLeavesRotation() {
+        // 60 s behind, limit 5 s
+        ReplicaRoutingDataSource routing = routing("SELECT 60");
+        routing.checkReplicas();
+
+        String url = connectionUrl(routing, true);
+
+        assertTrue(url.startsWith("jdbc:h2:mem:routing_primary"), url);
+        assertEquals(1.0, routeCount(ReplicaRoutingDataSource.PRIMARY, "fallback"));
+        assertEquals(0.0, routeCount("replica-1", "read"));
+    }
+
+    @Test
+    void readAfterCommittedWriteInSameRequestUsesPrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing("");
+        routing.checkReplicas();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> urls = new ArrayList<>();
+
+        new ReplicaStickinessFilter(5000).doFilter(new MockHttpServletRequest("POST", "/api/products"), response,
+                (request, servletResponse) -> {
+                    urls.add(connectionUrl(routing, false));
+                    urls.add(connectionUrl(routing, true));
+                });
+
+        assertTrue(urls.get(1).startsWith("jdbc:h2:mem:routing_primary"), urls.get(1));
+        assertEquals(1.0, routeCount(ReplicaRoutingDataSource.PRIMARY, "sticky"));
+        assertNotNull(response.getCookie(ReplicaStickinessFilter.COOKIE));
+    }
+
+    @Test
+    void perCallCredentialsAreNotSupported() {
+        ReplicaRoutingDataSource routing = routing("");
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> routing.getConnection("sa", ""));
+    }
+
+    @Test
+    void blankReplicaUrlsAreDropped() {
+        assertEquals(List.of(REPLICA_URL, "jdbc:h2:mem:other"),
+                ReplicaRoutingConfig.replicaUrls(" " + REPLICA_URL + " ,, ,jdbc:h2:mem:other,"));
+        assertEquals(List.of(), ReplicaRoutingConfig.replicaUrls(" , ,"));
+    }
+
+    @Test
+    void routingWithoutReplicasIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY_URL, "sa", ""), List.of(), "", 5, meterRegistry));
+    }
+
+    private ReplicaRoutingDataSource routing(String lagQuery) {
+        return new ReplicaRoutingDataSource(new DriverManagerDataSource(PRIMARY_URL, "sa", ""),
+                List.of(new DriverManagerDataSource(REPLICA_URL, "sa", "")), lagQuery, 5, meterRegistry);
+    }
+
+    // JDBC URL of the connection a transaction got; the transaction manager marks it read-only before the
+    // lazy proxy asks the routing data source for a physical connection
+    private static String connectionUrl(ReplicaRoutingDataSource routing, boolean readOnly) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        // Known defaults, so the proxy doesn't fetch (and count) a connection of its own to find them
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getURL()));
+    }
+
+    private double routeCount(String target, String reason) {
+        return meterRegistry.find("inventory.datasource.route").tags("target", target, "reason", reason)
+                .counter().count();
+    }
+}
@@ -0,0 +1,181 @@
+package com.hrishikesh.inventory.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.entity.OrderItem;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.StockMovement;
+import com.hrishikesh.inventory.entity.Vendor;
+import com.hrishikesh.inventory.repository.PaymentRepository;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import com.hrishikesh.inventory.repository.PurchaseOrderRepository;
+import com.hrishikesh.inventory.repository.StockMovementRepository;
+import com.hrishikesh.inventory.repository.VendorRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statements per request for every list endpoint. Each endpoint is called with N and then 10N rows
+// behind it (page endpoints with a page size to match); the count must stay the same, or something is
+// loaded per row. Runs on a database of its own so the row counts are exact.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:list_query_counts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.hrishikesh.inventory.controller.ListQueryCountTest$StatementCounter"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListQueryCountTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    // All seeded payments belong to the first order
+    private PurchaseOrder firstOrder;
+
+    // All seeded stock movements belong to the first product
+    private Product firstProduct;
+
+    @Test
+    void listEndpointsRunAsManyStatementsForTenTimesTheRows() throws Exception {
+        seed(ROWS);
+        Map<String, Integer> small = statementsPerEndpoint(ROWS);
+        seed(9 * ROWS);
+        Map<String, Integer> large = statementsPerEndpoint(10 * ROWS);
+
+        for (Map.Entry<String, Integer> endpoint : small.entrySet()) {
+            assertEquals(endpoint.getValue(), large.get(endpoint.getKey()), endpoint.getKey());
+        }
+    }
+
+    private Map<String, Integer> statementsPerEndpoint(int rows) throws Exception {
+        String size = Integer.toString(rows);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String list : new String[]{"/api/products", "/api/vendors", "/api/orders", "/api/payments"}) {
+            counts.put(list, statements(list, get(list), rows));
+            counts.put(list + "/page", statements(list + "/page", get(list + "/page").param("size", size), rows));
+        }
+        counts.put("/api/payments/order/{orderId}", statements("/api/payments/order/{orderId}",
+                get("/api/payments/order/{orderId}", firstOrder.getId()), rows));
+        counts.put("/api/stock/{productId}/movements", statements("/api/stock/{productId}/movements",
+                get("/api/stock/{productId}/movements", firstProduct.getId()).param("size", size), rows));
+        return counts;
+    }
+
+    private int statements(String uri, MockHttpServletRequestBuilder request, int rows) throws Exception {
+        int before = StatementCounter.count();
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+        int statements = StatementCounter.count() - before;
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals(rows, (json.isArray() ? json : json.get("items")).size(), uri + " rows");
+        return statements;
+    }
+
+    // Adds count rows to every listed table: vendors, products, one-line orders, payments and stock movements
+    private void seed(int count) {
+        List<Vendor> vendors = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            vendors.add(TestEntities.vendor("Vendor " + i));
+            products.add(TestEntities.product("QC-" + count + "-" + i, 100));
+        }
+        vendorRepository.saveAll(vendors);
+        productRepository.saveAll(products);
+
+        List<PurchaseOrder> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PurchaseOrder order = new PurchaseOrder();
+            order.setVendor(vendors.get(i));
+            order.setStatus(PurchaseOrder.OrderStatus.APPROVED);
+            order.setTotalAmount(new BigDecimal("100.00"));
+            OrderItem item = new OrderItem();
+            item.setPurchaseOrder(order);
+            item.setProduct(products.get(i));
+            item.setQuantity(10);
+            item.setUnitPrice(BigDecimal.TEN);
+            order.getItems().add(item);
+            orders.add(order);
+        }
+        purchaseOrderRepository.saveAll(orders);
+        if (firstOrder == null) {
+            firstOrder = orders.get(0);
+        }
+
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Payment payment = new Payment();
+            payment.setPurchaseOrder(firstOrder);
+            payment.setAmount(BigDecimal.ONE);
+            payment.setPaymentMethod(Payment.PaymentMethod.BANK_TRANSFER);
+            payments.add(payment);
+        }
+        paymentRepository.saveAll(payments);
+
+        if (firstProduct == null) {
+            firstProduct = products.get(0);
+        }
+        List<StockMovement> movements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StockMovement movement = new StockMovement();
+            movement.setProductId(firstProduct.getId());
+            movement.setType(StockMovement.MovementType.ADJUSTMENT);
+            movement.setQuantity(1);
+            movements.add(movement);
+        }
+        stockMovementRepository.saveAll(movements);
+    }
+
+    // Counts the statements Hibernate prepares on the calling thread, which is the one MockMvc serves on
+    public static class StatementCounter implements StatementInspector {
+
+        private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+        static int count() {
+            return COUNT.get()[0];
+        }
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.get()[0]++;
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.hrishikesh.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The feed without a web container: emitters record the frames they are sent, or stall in a send
+class ChangeFeedServiceTest {
+
+    private static final long SEND_TIMEOUT_MS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ChangeFeedService changeFeed = new ChangeFeedService(new ObjectMapper(), 100, 10, 60_000, 100,
+            SEND_TIMEOUT_MS, meterRegistry);
+
+    @AfterEach
+    void shutDown() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWithoutHoldingUpOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        changeFeed.subscribe(null, stalled);
+        changeFeed.subscribe(null, healthy);
+
+        changeFeed.resync("products");
+        assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+        assertTrue(healthy.next().contains("products"));
+
+        Thread.sleep(SEND_TIMEOUT_MS * 2);
+        changeFeed.resync("vendors");
+        assertTrue(healthy.next().contains("vendors"));
+        assertEquals(1.0, meterRegistry.get("inventory.changes.dropped.subscribers").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void reconnectReplaysOwnEventsAndResyncsOnForeignIds() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(null);
+        changeFeed.subscribe(null, first);
+        changeFeed.resync("products");
+        changeFeed.resync("vendors");
+        changeFeed.resync("orders");
+        String firstId = idOf(first.next());
+        first.next();
+        first.next();
+
+        RecordingEmitter reconnected = new RecordingEmitter(null);
+        changeFeed.subscribe(firstId, reconnected);
+        assertTrue(reconnected.next().contains("vendors"));
+        assertTrue(reconnected.next().contains("orders"));
+
+        RecordingEmitter elsewhere = new RecordingEmitter(null);
+        changeFeed.subscribe("0badf00d-2", elsewhere);
+        assertTrue(elsewhere.next().contains("\"resource\":\"all\""));
+    }
+
+    private static String idOf(String frame) {
+        for (String line : frame.split("\n")) {
+            if (line.startsWith("id:")) {
+                return line.substring(3);
+            }
+        }
+        throw new AssertionError("No id in " + frame);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        // release: when set, every send blocks until it is counted down
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder frame = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                frame.append(part.getData());
+            }
+            frames.add(frame.toString());
+        }
+
+        private String next() throws InterruptedException {
+            String frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame, "no event within 5 s");
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.entity.Product;
+import com.hrishikesh.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The low-stock counter is kept up to date incrementally and periodically reset from countLowStock; both
+// must classify a product the same way, or every reconcile reports (and overwrites) drift.
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardStatsCacheTest {
+
+    @Autowired
+    private DashboardStatsCache dashboardStatsCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${inventory.low-stock.default-threshold:10}")
+    private int defaultThreshold;
+
+    @Test
+    void productWithoutStockIsLowInCounterAndQueryAlike() {
+        long cachedBefore = dashboardStatsCache.getStats().getLowStockProducts();
+        long countedBefore = productRepository.countLowStock(defaultThreshold);
+
+        Product product = TestEntities.product("DASHBOARD-1", 0);
+        product.setCurrentStock(null);
+        productService.createProduct(product);
+
+        assertEquals(cachedBefore + 1, dashboardStatsCache.getStats().getLowStockProducts());
+        assertEquals(countedBefore + 1, productRepository.countLowStock(defaultThreshold));
+    }
+}
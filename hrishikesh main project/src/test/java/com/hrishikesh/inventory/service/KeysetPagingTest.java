@@ -0,0 +1,109 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.dto.CursorPage;
+import com.hrishikesh.inventory.dto.OrderSummary;
+import com.hrishikesh.inventory.dto.PaymentSummary;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Paging one row at a time by a date sort key must visit every row once, including rows whose date is
+// NULL (legacy rows, imports): they sort before every dated row, and ties on the date fall back to the id.
+@SpringBootTest
+@ActiveProfiles("test")
+class KeysetPagingTest {
+
+    private static final String DATE = "2024-03-01 10:00:00";
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void orderDatePagesIncludeUndatedOrders() {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Paging vendor"));
+        Long productId = productService.createProduct(TestEntities.product("PAGING-1", 0)).getId();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(purchaseOrderService.createOrder(TestEntities.order(vendor, 1, productId)).getId());
+        }
+        jdbcTemplate.update("UPDATE purchase_order SET order_date = NULL WHERE id = ?", ids.get(1));
+        jdbcTemplate.update("UPDATE purchase_order SET order_date = ? WHERE id IN (?, ?)", DATE, ids.get(0), ids.get(2));
+
+        List<Long> ascending = pageThrough(cursor -> purchaseOrderService.getOrdersPage(cursor, 1, "orderDate",
+                "asc", null, vendor.getId(), null, null), OrderSummary::getId);
+        List<Long> descending = pageThrough(cursor -> purchaseOrderService.getOrdersPage(cursor, 1, "orderDate",
+                "desc", null, vendor.getId(), null, null), OrderSummary::getId);
+
+        assertEquals(List.of(ids.get(1), ids.get(0), ids.get(2)), ascending);
+        assertEquals(List.of(ids.get(2), ids.get(0), ids.get(1)), descending);
+    }
+
+    @Test
+    void paymentDatePagesIncludeUndatedPayments() {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Paging payment vendor"));
+        Long productId = productService.createProduct(TestEntities.product("PAGING-2", 0)).getId();
+        PurchaseOrder order = purchaseOrderService.createOrder(TestEntities.order(vendor, 10, productId));
+        purchaseOrderService.approveOrder(order.getId());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(paymentService.createPayment(payment(order)).getId());
+        }
+        jdbcTemplate.update("UPDATE payment SET payment_date = NULL WHERE id = ?", ids.get(2));
+        jdbcTemplate.update("UPDATE payment SET payment_date = ? WHERE id IN (?, ?)", DATE, ids.get(0), ids.get(1));
+
+        List<Long> ascending = pageThrough(cursor -> paymentService.getPaymentsPage(cursor, 1, "paymentDate",
+                "asc", order.getId(), null, null), PaymentSummary::getId);
+        List<Long> descending = pageThrough(cursor -> paymentService.getPaymentsPage(cursor, 1, "paymentDate",
+                "desc", order.getId(), null, null), PaymentSummary::getId);
+
+        assertEquals(List.of(ids.get(2), ids.get(0), ids.get(1)), ascending);
+        assertEquals(List.of(ids.get(1), ids.get(0), ids.get(2)), descending);
+    }
+
+    // Ids of every row, following next cursors until the last page
+    private static <T> List<Long> pageThrough(Function<String, CursorPage<T>> pages, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> page = pages.apply(cursor);
+            page.getItems().forEach(row -> ids.add(idOf.apply(row)));
+            cursor = page.getNextCursor();
+        } while (cursor != null && ids.size() < 10);
+        return ids;
+    }
+
+    private static Payment payment(PurchaseOrder order) {
+        PurchaseOrder reference = new PurchaseOrder();
+        reference.setId(order.getId());
+        Payment payment = new Payment();
+        payment.setPurchaseOrder(reference);
+        payment.setAmount(BigDecimal.ONE);
+        payment.setPaymentMethod(Payment.PaymentMethod.BANK_TRANSFER);
+        return payment;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.dto.PaymentIngestionStatus;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Submitted payments are applied by the service's own flush thread, with no call to flush() from the test
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentIngestionServiceTest {
+
+    @Autowired
+    private PaymentIngestionService paymentIngestionService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Test
+    void queuedPaymentsAreAppliedWithoutBeingFlushedByHand() throws Exception {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Ingest vendor"));
+        Long productId = productService.createProduct(TestEntities.product("INGEST-1", 0)).getId();
+        PurchaseOrder order = purchaseOrderService.createOrder(TestEntities.order(vendor, 10, productId));
+        purchaseOrderService.approveOrder(order.getId());
+
+        paymentIngestionService.submit(payment(order, "INGEST-TX-1", "30.00"));
+        paymentIngestionService.submit(payment(order, "INGEST-TX-2", "20.00"));
+
+        assertNotNull(applied("INGEST-TX-1").getPaymentId());
+        assertNotNull(applied("INGEST-TX-2").getPaymentId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(paymentService.getTotalPaid(order.getId())));
+    }
+
+    private PaymentIngestionStatus applied(String reference) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        PaymentIngestionStatus status = paymentIngestionService.getStatus(reference);
+        while (status.getState() == PaymentIngestionStatus.State.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = paymentIngestionService.getStatus(reference);
+        }
+        assertEquals(PaymentIngestionStatus.State.APPLIED, status.getState(), reference);
+        return status;
+    }
+
+    private static Payment payment(PurchaseOrder order, String reference, String amount) {
+        PurchaseOrder orderReference = new PurchaseOrder();
+        orderReference.setId(order.getId());
+        Payment payment = new Payment();
+        payment.setPurchaseOrder(orderReference);
+        payment.setTransactionReference(reference);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setPaymentMethod(Payment.PaymentMethod.BANK_TRANSFER);
+        return payment;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The balance reads are read-only (replica-safe): an order without running totals is summed, not seeded
+    @Test
+    void balanceReadsDoNotSeedRunningTotals() {
+        PurchaseOrder order = paidOrder("PAYMENT-1", "30.00");
+        jdbcTemplate.update("UPDATE purchase_order SET paid_amount = NULL, outstanding_amount = NULL WHERE id = ?",
+                order.getId());
+
+        assertAmount("30.00", paymentService.getTotalPaid(order.getId()));
+        assertAmount("70.00", paymentService.getOutstandingBalance(order.getId()));
+        assertNull(jdbcTemplate.queryForObject("SELECT paid_amount FROM purchase_order WHERE id = ?",
+                BigDecimal.class, order.getId()));
+    }
+
+    @Test
+    void reconcileSeedsAndCorrectsRunningTotals() {
+        PurchaseOrder unseeded = paidOrder("PAYMENT-2", "30.00");
+        PurchaseOrder drifted = paidOrder("PAYMENT-3", "40.00");
+        jdbcTemplate.update("UPDATE purchase_order SET paid_amount = NULL, outstanding_amount = NULL WHERE id = ?",
+                unseeded.getId());
+        jdbcTemplate.update("UPDATE purchase_order SET paid_amount = 0, outstanding_amount = 100 WHERE id = ?",
+                drifted.getId());
+
+        paymentService.reconcileRunningTotals();
+
+        assertStored(unseeded, "30.00", "70.00");
+        assertStored(drifted, "40.00", "60.00");
+    }
+
+    // An approved 100.00 order with one completed payment
+    private PurchaseOrder paidOrder(String sku, String amount) {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Payment vendor " + sku));
+        Long productId = productService.createProduct(TestEntities.product(sku, 0)).getId();
+        PurchaseOrder order = purchaseOrderService.createOrder(TestEntities.order(vendor, 10, productId));
+        purchaseOrderService.approveOrder(order.getId());
+
+        PurchaseOrder reference = new PurchaseOrder();
+        reference.setId(order.getId());
+        Payment payment = new Payment();
+        payment.setPurchaseOrder(reference);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setPaymentMethod(Payment.PaymentMethod.BANK_TRANSFER);
+        paymentService.createPayment(payment);
+        return order;
+    }
+
+    private void assertStored(PurchaseOrder order, String paid, String outstanding) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT paid_amount, outstanding_amount FROM purchase_order WHERE id = ?", order.getId());
+        assertAmount(paid, (BigDecimal) row.get("paid_amount"));
+        assertAmount(outstanding, (BigDecimal) row.get("outstanding_amount"));
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
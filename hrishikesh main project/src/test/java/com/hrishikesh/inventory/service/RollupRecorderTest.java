@@ -0,0 +1,122 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.dto.DeliveryNote;
+import com.hrishikesh.inventory.entity.Payment;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// The rollup rows the services build up delta by delta must be the rows AnalyticsService.rebuildRollups
+// computes from the base tables. Runs on a database of its own, where every order and payment went through
+// the services.
+@SpringBootTest(properties = "spring.datasource.url="
+        + "jdbc:h2:mem:rollups;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class RollupRecorderTest {
+
+    // Keys that only ever had deltas cancelling out stay behind as all-zero rows; a rebuild doesn't write them
+    private static final String ORDER_ROWS = "SELECT vendor_id, rollup_date, status, order_count, total_amount, "
+            + "ordered_quantity, received_quantity FROM order_daily_rollup "
+            + "WHERE order_count <> 0 OR total_amount <> 0 OR ordered_quantity <> 0 OR received_quantity <> 0 "
+            + "ORDER BY vendor_id, rollup_date, status";
+
+    private static final String PAYMENT_ROWS = "SELECT vendor_id, rollup_date, payment_method, status, "
+            + "payment_count, amount FROM payment_daily_rollup WHERE payment_count <> 0 OR amount <> 0 "
+            + "ORDER BY vendor_id, rollup_date, payment_method, status";
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordedDeltasMatchRebuild() {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Rollup vendor"));
+        Vendor other = vendorService.createVendor(TestEntities.vendor("Other rollup vendor"));
+        Long first = productService.createProduct(TestEntities.product("ROLLUP-1", 0)).getId();
+        Long second = productService.createProduct(TestEntities.product("ROLLUP-2", 0)).getId();
+
+        // Received in parts, then in full
+        PurchaseOrder received = approvedOrder(vendor, 10, first, second);
+        purchaseOrderService.receivePartialGoods(received.getId(), received.getItems().get(0).getId(), 4);
+        purchaseOrderService.receiveGoods(received.getId());
+
+        // Partly delivered and still open
+        PurchaseOrder open = approvedOrder(vendor, 6, first);
+        DeliveryNote note = new DeliveryNote();
+        note.setDeliveryReference("ROLLUP-DN-1");
+        DeliveryNote.Line line = new DeliveryNote.Line();
+        line.setItemId(open.getItems().get(0).getId());
+        line.setQuantity(2);
+        note.setLines(List.of(line));
+        purchaseOrderService.receiveDelivery(open.getId(), note);
+
+        // Cancelled while pending, and one left pending for the other vendor
+        PurchaseOrder cancelled = purchaseOrderService.createOrder(TestEntities.order(vendor, 3, second));
+        purchaseOrderService.cancelOrder(cancelled.getId());
+        purchaseOrderService.createOrder(TestEntities.order(other, 5, first, second));
+
+        // A completed payment, and a pending one that completes later and one that fails
+        paymentService.createPayment(payment(received, "50.00", Payment.PaymentMethod.BANK_TRANSFER,
+                Payment.PaymentStatus.COMPLETED));
+        Payment pending = paymentService.createPayment(payment(received, "30.00", Payment.PaymentMethod.UPI,
+                Payment.PaymentStatus.PENDING));
+        paymentService.updatePaymentStatus(pending.getId(), Payment.PaymentStatus.COMPLETED);
+        Payment failed = paymentService.createPayment(payment(open, "20.00", Payment.PaymentMethod.CHEQUE,
+                Payment.PaymentStatus.PENDING));
+        paymentService.updatePaymentStatus(failed.getId(), Payment.PaymentStatus.FAILED);
+
+        List<Map<String, Object>> orderRows = jdbcTemplate.queryForList(ORDER_ROWS);
+        List<Map<String, Object>> paymentRows = jdbcTemplate.queryForList(PAYMENT_ROWS);
+        assertFalse(orderRows.isEmpty());
+        assertFalse(paymentRows.isEmpty());
+
+        analyticsService.rebuildRollups();
+
+        assertEquals(jdbcTemplate.queryForList(ORDER_ROWS), orderRows);
+        assertEquals(jdbcTemplate.queryForList(PAYMENT_ROWS), paymentRows);
+    }
+
+    private PurchaseOrder approvedOrder(Vendor vendor, int quantity, Long... productIds) {
+        PurchaseOrder order = purchaseOrderService.createOrder(TestEntities.order(vendor, quantity, productIds));
+        purchaseOrderService.approveOrder(order.getId());
+        return order;
+    }
+
+    private static Payment payment(PurchaseOrder order, String amount, Payment.PaymentMethod method,
+                                   Payment.PaymentStatus status) {
+        PurchaseOrder reference = new PurchaseOrder();
+        reference.setId(order.getId());
+        Payment payment = new Payment();
+        payment.setPurchaseOrder(reference);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setPaymentMethod(method);
+        payment.setStatus(status);
+        return payment;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Stock deltas are added to the columns when their transaction completes, and a refresh page must not
+// overwrite a product whose delta is still on its way: the committed row already contains it, so the
+// delta would be counted twice. Each test runs a refresh at a chosen point of a ledger transaction.
+@SpringBootTest
+@ActiveProfiles("test")
+class StockColumnsTest {
+
+    @Autowired
+    private StockColumns stockColumns;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void refreshBetweenCommitAndCompletionDoesNotCountDeltaTwice() {
+        Long productId = createProduct("COLUMNS-1", 40);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Registered ahead of the one StockColumns adds, so it runs first: committed, not yet applied
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    refresh();
+                }
+            });
+            stockLedgerService.adjustStock(productId, 5, "Columns test");
+        });
+
+        assertEquals(45, databaseStock(productId));
+        assertEquals(45, columnStock(productId));
+    }
+
+    @Test
+    void refreshDuringTransactionKeepsCommittedStockUntilCompletion() {
+        Long productId = createProduct("COLUMNS-2", 40);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockLedgerService.adjustStock(productId, 5, "Columns test");
+            refresh();
+            assertEquals(40, columnStock(productId));
+        });
+
+        assertEquals(45, columnStock(productId));
+    }
+
+    @Test
+    void rolledBackChangeLeavesColumnsAlone() {
+        Long productId = createProduct("COLUMNS-3", 40);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockLedgerService.adjustStock(productId, 5, "Columns test");
+            refresh();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(40, databaseStock(productId));
+        assertEquals(40, columnStock(productId));
+    }
+
+    @Test
+    void refreshPicksUpStockChangedOutsideTheApplication() {
+        Long productId = createProduct("COLUMNS-4", 40);
+        jdbcTemplate.update("UPDATE product SET current_stock = 12 WHERE id = ?", productId);
+
+        refresh();
+
+        assertEquals(12, columnStock(productId));
+    }
+
+    // Always below its threshold, so the low-stock listing reports its column value
+    private Long createProduct(String sku, int stock) {
+        Product product = TestEntities.product(sku, stock);
+        product.setLowStockThreshold(1_000_000);
+        return productService.createProduct(product).getId();
+    }
+
+    // On a thread of its own, like the refresher: the caller's transaction is neither bound there nor visible
+    private void refresh() {
+        CompletableFuture.runAsync(stockColumns::refresh).join();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int columnStock(Long productId) {
+        for (Map<String, Object> item : (List<Map<String, Object>>) stockColumns.getLowStock(1000).get("items")) {
+            if (productId.equals(item.get("productId"))) {
+                return (Integer) item.get("currentStock");
+            }
+        }
+        return fail("Product " + productId + " is not in the stock columns");
+    }
+
+    private int databaseStock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM product WHERE id = ?", Integer.class, productId);
+    }
+}
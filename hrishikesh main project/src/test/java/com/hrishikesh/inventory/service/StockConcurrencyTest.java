@@ -0,0 +1,143 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.dto.DeliveryNote;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Partial receipts, delivery notes and manual adjustments hitting one product at the same time. Each
+// receiving thread works through an order of its own, so they only meet on the product row and the ledger.
+@SpringBootTest
+@ActiveProfiles("test")
+class StockConcurrencyTest {
+
+    private static final int THREADS = 6;
+    private static final int ROUNDS = 25;
+    private static final int OPENING_STOCK = 100;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReceiptsDeliveriesAndAdjustmentsAllReachLedgerAndStock() throws Exception {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Concurrency vendor"));
+        Long productId = productService.createProduct(TestEntities.product("CONCURRENCY-1", OPENING_STOCK)).getId();
+
+        // Quantities of the calls that returned; the opening balance is the first ledger entry
+        AtomicInteger applied = new AtomicInteger(OPENING_STOCK);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            switch (thread % 3) {
+                case 0 -> workers.add(partialReceipts(approvedOrder(vendor, productId, 2 * ROUNDS), applied, start));
+                case 1 -> workers.add(deliveries(approvedOrder(vendor, productId, 3 * ROUNDS), applied, start));
+                default -> workers.add(adjustments(productId, applied, start));
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (Callable<Void> worker : workers) {
+                results.add(executor.submit(worker));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int stock = jdbcTemplate.queryForObject("SELECT current_stock FROM product WHERE id = ?",
+                Integer.class, productId);
+        int ledger = jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM stock_movement WHERE product_id = ?",
+                Integer.class, productId);
+        assertEquals(applied.get(), ledger, "sum of ledger entries");
+        assertEquals(applied.get(), stock, "current_stock");
+    }
+
+    // 2 units per call until the line is complete
+    private Callable<Void> partialReceipts(PurchaseOrder order, AtomicInteger applied, CountDownLatch start) {
+        Long itemId = order.getItems().get(0).getId();
+        return () -> {
+            start.await();
+            for (int round = 0; round < ROUNDS; round++) {
+                purchaseOrderService.receivePartialGoods(order.getId(), itemId, 2);
+                applied.addAndGet(2);
+            }
+            return null;
+        };
+    }
+
+    // 3 units per note, as two lines for the same item
+    private Callable<Void> deliveries(PurchaseOrder order, AtomicInteger applied, CountDownLatch start) {
+        Long itemId = order.getItems().get(0).getId();
+        return () -> {
+            start.await();
+            for (int round = 0; round < ROUNDS; round++) {
+                DeliveryNote note = new DeliveryNote();
+                note.setDeliveryReference("CONCURRENCY-" + order.getId() + "-" + round);
+                note.setLines(List.of(line(itemId, 1), line(itemId, 2)));
+                purchaseOrderService.receiveDelivery(order.getId(), note);
+                applied.addAndGet(3);
+            }
+            return null;
+        };
+    }
+
+    // Alternating +3 / -1, so stock never nears zero
+    private Callable<Void> adjustments(Long productId, AtomicInteger applied, CountDownLatch start) {
+        return () -> {
+            start.await();
+            for (int round = 0; round < ROUNDS; round++) {
+                int quantity = round % 2 == 0 ? 3 : -1;
+                stockLedgerService.adjustStock(productId, quantity, "Concurrency test");
+                applied.addAndGet(quantity);
+            }
+            return null;
+        };
+    }
+
+    private PurchaseOrder approvedOrder(Vendor vendor, Long productId, int quantity) {
+        PurchaseOrder order = purchaseOrderService.createOrder(TestEntities.order(vendor, quantity, productId));
+        purchaseOrderService.approveOrder(order.getId());
+        return order;
+    }
+
+    private static DeliveryNote.Line line(Long itemId, int quantity) {
+        DeliveryNote.Line line = new DeliveryNote.Line();
+        line.setItemId(itemId);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
@@ -0,0 +1,121 @@
+package com.hrishikesh.inventory.service;
+
+import com.hrishikesh.inventory.TestEntities;
+import com.hrishikesh.inventory.dto.DeliveryNote;
+import com.hrishikesh.inventory.entity.PurchaseOrder;
+import com.hrishikesh.inventory.entity.StockMovement;
+import com.hrishikesh.inventory.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Product.currentStock is a projection of the stock_movement ledger: after any mix of receipts,
+// adjustments and reversals it must equal the ledger sum, and a rebuild from the ledger must agree.
+@SpringBootTest
+@ActiveProfiles("test")
+class StockLedgerServiceTest {
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void projectionFollowsEveryKindOfMovement() {
+        Vendor vendor = vendorService.createVendor(TestEntities.vendor("Ledger vendor"));
+        Long productId = productService.createProduct(TestEntities.product("LEDGER-1", 10)).getId();
+        PurchaseOrder order = purchaseOrderService.createOrder(TestEntities.order(vendor, 20, productId));
+        Long itemId = order.getItems().get(0).getId();
+        purchaseOrderService.approveOrder(order.getId());
+
+        // 20 received in three steps: partial receipt, delivery note, then the rest
+        purchaseOrderService.receivePartialGoods(order.getId(), itemId, 5);
+        DeliveryNote note = new DeliveryNote();
+        note.setDeliveryReference("LEDGER-DN-1");
+        DeliveryNote.Line line = new DeliveryNote.Line();
+        line.setItemId(itemId);
+        line.setQuantity(7);
+        note.setLines(List.of(line));
+        purchaseOrderService.receiveDelivery(order.getId(), note);
+        purchaseOrderService.receiveGoods(order.getId());
+
+        stockLedgerService.adjustStock(productId, -4, "Damaged");
+        StockMovement recount = stockLedgerService.adjustStock(productId, 6, "Recount");
+        stockLedgerService.reverseMovement(recount.getId(), "Recount was wrong");
+
+        int expected = 10 + 20 - 4;
+        assertEquals(expected, currentStock(productId));
+        assertEquals(expected, ledgerSum(productId));
+        assertEquals(expected, stockLedgerService.getStockAt(productId, LocalDateTime.now().plusSeconds(1)));
+        assertEquals(expected, stockLedgerService.rebuildCurrentStock(productId).getCurrentStock());
+        assertEquals(expected, currentStock(productId));
+    }
+
+    @Test
+    void rejectedChangesLeaveLedgerAndProjectionAlone() {
+        Long productId = productService.createProduct(TestEntities.product("LEDGER-2", 3)).getId();
+        StockMovement removal = stockLedgerService.adjustStock(productId, -3, "Sold out");
+
+        assertThrows(RuntimeException.class, () -> stockLedgerService.adjustStock(productId, -1, "Below zero"));
+        stockLedgerService.reverseMovement(removal.getId(), "Found them");
+        assertThrows(RuntimeException.class, () -> stockLedgerService.reverseMovement(removal.getId(), "Again"));
+
+        assertEquals(3, currentStock(productId));
+        assertEquals(3, ledgerSum(productId));
+    }
+
+    @Test
+    void rebuildRestoresDriftedProjectionFromLedger() {
+        Long productId = productService.createProduct(TestEntities.product("LEDGER-3", 8)).getId();
+        stockLedgerService.adjustStock(productId, 2, "Found");
+        jdbcTemplate.update("UPDATE product SET current_stock = 999 WHERE id = ?", productId);
+
+        assertEquals(10, stockLedgerService.rebuildCurrentStock(productId).getCurrentStock());
+        assertEquals(10, currentStock(productId));
+        assertEquals(10, ledgerSum(productId));
+    }
+
+    // Every instance seeds opening balances on start-up; whichever runs second must not add another one
+    @Test
+    void productGetsAtMostOneOpeningBalance() {
+        Long productId = productService.createProduct(TestEntities.product("LEDGER-4", 5)).getId();
+        jdbcTemplate.update("DELETE FROM stock_movement WHERE product_id = ?", productId);
+
+        stockLedgerService.seedOpeningBalances();
+        stockLedgerService.seedOpeningBalances();
+        assertThrows(DataIntegrityViolationException.class,
+                () -> stockLedgerService.recordOpeningBalances(Map.of(productId, 5)));
+
+        assertEquals(5, ledgerSum(productId));
+        assertEquals(5, stockLedgerService.rebuildCurrentStock(productId).getCurrentStock());
+    }
+
+    private int currentStock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM product WHERE id = ?", Integer.class, productId);
+    }
+
+    private int ledgerSum(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM stock_movement WHERE product_id = ?",
+                Integer.class, productId);
+    }
+}